@@ -0,0 +1,45 @@
+package ru.astera.backend.bench;
+
+import org.openjdk.jmh.annotations.*;
+import ru.astera.backend.security.JwtPrincipal;
+import ru.astera.backend.service.impl.JwtServiceImpl;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Разбор и проверка JWT, которые выполняются на каждом аутентифицированном запросе.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtServiceImpl jwtService;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtService = new JwtServiceImpl("benchmark-jwt-secret-key-0123456789abcdef", 86_400_000L);
+        token = jwtService.generateToken(UUID.randomUUID(), "bench@astera.example", "customer");
+    }
+
+    @Benchmark
+    public String extractEmail() {
+        return jwtService.extractEmail(token);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtService.validateToken(token, "bench@astera.example");
+    }
+
+    @Benchmark
+    public Optional<JwtPrincipal> authenticate() {
+        return jwtService.authenticate(token);
+    }
+}
@@ -0,0 +1,85 @@
+package ru.astera.backend.bench;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import ru.astera.backend.security.JwtAuthenticationFilter;
+import ru.astera.backend.security.UserDetails;
+import ru.astera.backend.security.VerifiedTokenCache;
+import ru.astera.backend.service.impl.JwtServiceImpl;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Накладные расходы JWT-фильтра на запрос: {@code filter} — повторный запрос с уже
+ * проверенным токеном (попадание в {@link VerifiedTokenCache}), {@code filterUncached} —
+ * один разбор токена без кэша, {@code fourParses} — прежняя последовательность
+ * extractEmail → validateToken (ещё два разбора) → extractUserId → extractRole.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtFilterBenchmark {
+
+    private JwtServiceImpl jwtService;
+    private JwtAuthenticationFilter filter;
+    private JwtAuthenticationFilter filterUncached;
+    private String token;
+    private MockHttpServletRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtService = new JwtServiceImpl("benchmark-jwt-secret-key-0123456789abcdef", 86_400_000L);
+        filter = new JwtAuthenticationFilter(
+                new VerifiedTokenCache(jwtService, new SimpleMeterRegistry(), 10_000, Duration.ofMinutes(10), 86_400_000L));
+        filterUncached = new JwtAuthenticationFilter(
+                new VerifiedTokenCache(jwtService, new SimpleMeterRegistry(), 0, Duration.ofMinutes(10), 86_400_000L));
+        token = jwtService.generateToken(UUID.randomUUID(), "bench@astera.example", "customer");
+        request = new MockHttpServletRequest("GET", "/api/heating-requests");
+        request.addHeader("Authorization", "Bearer " + token);
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+        request.clearAttributes();
+    }
+
+    @Benchmark
+    public Authentication filter() throws ServletException, IOException {
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public Authentication filterUncached() throws ServletException, IOException {
+        filterUncached.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public Authentication fourParses() {
+        String email = jwtService.extractEmail(token);
+        if (email == null || !jwtService.validateToken(token, email)) {
+            return null;
+        }
+        UUID userId = jwtService.extractUserId(token);
+        String role = jwtService.extractRole(token);
+        return new UsernamePasswordAuthenticationToken(new UserDetails(userId, email), null,
+                List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+    }
+}
@@ -0,0 +1,81 @@
+package ru.astera.backend.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.astera.backend.dto.selection.ConfigurationCandidateDto;
+import ru.astera.backend.dto.selection.ConfigurationComponentDto;
+import ru.astera.backend.entity.*;
+import ru.astera.backend.mapper.ConfigCandidateMapperImpl;
+import ru.astera.backend.mapper.ConfigComponentMapperImpl;
+import ru.astera.backend.mapper.EquipmentMapperImpl;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct-мапперы на горячем пути подбора и выдачи кандидатов.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private EquipmentMapperImpl equipmentMapper;
+    private ConfigCandidateMapperImpl candidateMapper;
+    private Equipment equipment;
+    private ConfigCandidate candidate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        equipmentMapper = new EquipmentMapperImpl();
+        candidateMapper = new ConfigCandidateMapperImpl();
+        ReflectionTestUtils.setField(candidateMapper, "configComponentMapper", new ConfigComponentMapperImpl());
+
+        List<Equipment> catalog = SyntheticCatalog.generate(100);
+        equipment = catalog.get(0);
+
+        HeatingRequest request = new HeatingRequest();
+        request.setId(UUID.randomUUID());
+        candidate = new ConfigCandidate();
+        candidate.setId(UUID.randomUUID());
+        candidate.setRequest(request);
+        candidate.setCurrency("RUB");
+
+        List<ConfigComponent> components = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (EquipmentCategory category : EquipmentCategory.values()) {
+            Equipment e = catalog.stream()
+                    .filter(it -> it.getCategory() == category)
+                    .findFirst()
+                    .orElseThrow();
+            ConfigComponent component = new ConfigComponent();
+            component.setId(new ConfigComponentId(candidate.getId(), e.getId()));
+            component.setCandidate(candidate);
+            component.setEquipment(e);
+            component.setCategory(category);
+            component.setQty(BigDecimal.ONE);
+            component.setUnitPrice(e.getPrice());
+            component.setSubtotal(e.getPrice());
+            components.add(component);
+            total = total.add(e.getPrice());
+        }
+        candidate.setComponents(components);
+        candidate.setTotalPrice(total);
+    }
+
+    @Benchmark
+    public ConfigurationComponentDto equipmentToComponentDto() {
+        return equipmentMapper.toComponentDto(equipment);
+    }
+
+    @Benchmark
+    public ConfigurationCandidateDto candidateToDto() {
+        return candidateMapper.toDto(candidate);
+    }
+}
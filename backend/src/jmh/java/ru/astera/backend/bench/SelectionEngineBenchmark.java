@@ -0,0 +1,92 @@
+package ru.astera.backend.bench;
+
+import org.openjdk.jmh.annotations.*;
+import ru.astera.backend.catalog.CatalogItem;
+import ru.astera.backend.catalog.CatalogSnapshot;
+import ru.astera.backend.catalog.EquipmentChangedEvent;
+import ru.astera.backend.catalog.BandTableMaterializer;
+import ru.astera.backend.catalog.BandTables;
+import ru.astera.backend.catalog.BundleSearch;
+import ru.astera.backend.catalog.SelectionResultCache;
+import ru.astera.backend.dto.selection.ConfigurationCandidateDto;
+import ru.astera.backend.dto.selection.HeatingRequestDto;
+import ru.astera.backend.entity.FuelType;
+import ru.astera.backend.mapper.EquipmentMapperImpl;
+import ru.astera.backend.metrics.SelectionMetrics;
+import ru.astera.backend.service.CatalogService;
+import ru.astera.backend.service.impl.ConfigurationSelectionServiceImpl;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Подбор топ-N комплектов по снимку каталога разного размера.
+ * Запуск: mvn -Pbenchmarks test-compile exec:exec -Djmh.args="SelectionEngine -prof gc"
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SelectionEngineBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int catalogSize;
+
+    @Param({"5", "20"})
+    public int topN;
+
+    private ConfigurationSelectionServiceImpl engine;
+    private HeatingRequestDto request;
+    private CatalogSnapshot snapshot;
+    private BandTables bandTables;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<CatalogItem> items = SyntheticCatalog.generate(catalogSize).stream()
+                .map(CatalogItem::of)
+                .toList();
+        snapshot = CatalogSnapshot.of(1, items);
+        bandTables = BandTables.build(snapshot, null, 20, Integer.MAX_VALUE);
+        engine = new ConfigurationSelectionServiceImpl(
+                new FixedCatalog(snapshot), new EquipmentMapperImpl(),
+                SelectionResultCache.disabled(), BandTableMaterializer.disabled(), SelectionMetrics.disabled());
+        request = HeatingRequestDto.builder()
+                .id(UUID.randomUUID())
+                .powerKw(new BigDecimal("500"))
+                .tIn(new BigDecimal("95"))
+                .tOut(new BigDecimal("70"))
+                .fuelType(FuelType.gas)
+                .build();
+    }
+
+    @Benchmark
+    public List<ConfigurationCandidateDto> selectTopConfigurations() {
+        return engine.selectTopConfigurations(request, topN, true);
+    }
+
+    /**
+     * Тот же запрос по готовой таблице полос мощности (расход 95/70 °C для 500 кВт).
+     */
+    @Benchmark
+    public Optional<List<BundleSearch.Bundle>> bandTableLookup() {
+        return bandTables.lookup(snapshot, request.powerKw(), 17_200_000L, FuelType.gas, true, topN);
+    }
+
+    private record FixedCatalog(CatalogSnapshot snapshot) implements CatalogService {
+        @Override
+        public CatalogSnapshot rebuild() {
+            return snapshot;
+        }
+
+        @Override
+        public CatalogSnapshot apply(Collection<EquipmentChangedEvent> changes) {
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package ru.astera.backend.bench;
+
+import ru.astera.backend.entity.Equipment;
+import ru.astera.backend.entity.EquipmentCategory;
+import ru.astera.backend.entity.FuelType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Синтетический каталог в форме R__demo_catalog.sql: котлы и горелки с диапазонами
+ * мощности и ключами DN{n}_{FUEL}_STD, насосы с диапазонами расхода, арматура и
+ * расходомеры по DN, немного автоматики. Генерация детерминирована (фиксированный seed).
+ */
+final class SyntheticCatalog {
+
+    private static final int[] DN_SIZES = {50, 65, 80, 100, 125, 150};
+    private static final FuelType[] FUELS = {FuelType.gas, FuelType.diesel};
+
+    private SyntheticCatalog() {
+    }
+
+    static List<Equipment> generate(int size) {
+        Random random = new Random(42);
+        List<Equipment> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int bucket = i % 100;
+            EquipmentCategory category;
+            if (bucket < 35) {
+                category = EquipmentCategory.boiler;
+            } else if (bucket < 70) {
+                category = EquipmentCategory.burner;
+            } else if (bucket < 80) {
+                category = EquipmentCategory.pump;
+            } else if (bucket < 88) {
+                category = EquipmentCategory.valve;
+            } else if (bucket < 96) {
+                category = EquipmentCategory.flowmeter;
+            } else {
+                category = EquipmentCategory.automation;
+            }
+            items.add(item(category, i, random));
+        }
+        return items;
+    }
+
+    private static Equipment item(EquipmentCategory category, int index, Random random) {
+        int dn = DN_SIZES[random.nextInt(DN_SIZES.length)];
+        FuelType fuel = FUELS[random.nextInt(FUELS.length)];
+        Equipment e = new Equipment();
+        e.setId(new UUID(0L, index));
+        e.setCategory(category);
+        e.setBrand("BRAND-" + random.nextInt(40));
+        e.setModel(category.name().toUpperCase() + "-" + index);
+        e.setActive(true);
+        e.setDeliveryDays(5 + random.nextInt(25));
+        switch (category) {
+            case boiler, burner -> {
+                int min = 50 * (1 + random.nextInt(30));
+                e.setPowerMinKw(BigDecimal.valueOf(min));
+                e.setPowerMaxKw(BigDecimal.valueOf(min + 100 + random.nextInt(400)));
+                e.setConnectionKey("DN" + dn + "_" + fuel.name().toUpperCase() + "_STD");
+                if (category == EquipmentCategory.boiler) {
+                    e.setDnSize(dn);
+                    e.setPrice(price(random, 400_000, 1_500_000));
+                } else {
+                    e.setFuelType(fuel);
+                    e.setPrice(price(random, 150_000, 450_000));
+                }
+            }
+            case pump -> {
+                int min = 2 * random.nextInt(40);
+                e.setFlowMinM3h(BigDecimal.valueOf(min));
+                e.setFlowMaxM3h(BigDecimal.valueOf(min + 20 + random.nextInt(60)));
+                e.setPrice(price(random, 90_000, 200_000));
+            }
+            case valve, flowmeter -> {
+                e.setDnSize(dn);
+                e.setPrice(price(random, 20_000, 90_000));
+            }
+            case automation -> e.setPrice(price(random, 40_000, 100_000));
+        }
+        return e;
+    }
+
+    private static BigDecimal price(Random random, int from, int to) {
+        return BigDecimal.valueOf((from + random.nextInt(to - from)) / 100 * 100L);
+    }
+}
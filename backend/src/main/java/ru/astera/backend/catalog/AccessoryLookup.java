@@ -0,0 +1,82 @@
+package ru.astera.backend.catalog;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * План поиска комплектующих в рамках одного запроса подбора.
+ * Насос (по расходу) и автоматика одинаковы для всех пар, поэтому ищутся один раз;
+ * задвижка и расходомер зависят только от DN котла и запоминаются по DN.
+ * Объект не потокобезопасен и не должен переживать запрос.
+ */
+public final class AccessoryLookup {
+
+    private final CatalogSnapshot catalog;
+    private final boolean available;
+    private final Optional<CatalogItem> pump;
+    private final Optional<CatalogItem> automation;
+    private final Map<Integer, Optional<Kit>> byDn = new HashMap<>();
+
+    private AccessoryLookup(CatalogSnapshot catalog, boolean available,
+                            Optional<CatalogItem> pump, Optional<CatalogItem> automation) {
+        this.catalog = catalog;
+        this.available = available;
+        this.pump = pump;
+        this.automation = automation;
+    }
+
+    /**
+     * @param flowMicro расход теплоносителя в миллионных долях м³/ч
+     */
+    public static AccessoryLookup forRequest(CatalogSnapshot catalog, long flowMicro, boolean includeAutomation) {
+        Optional<CatalogItem> pump = catalog.cheapestPump(flowMicro);
+        return new AccessoryLookup(catalog, pump.isPresent(), pump,
+                includeAutomation ? catalog.cheapestAutomation() : Optional.empty());
+    }
+
+    /**
+     * Только зависящая от DN часть (задвижка, расходомер) — для таблицы полос мощности,
+     * где насос и автоматика добавляются при выдаче.
+     */
+    static AccessoryLookup byDnOnly(CatalogSnapshot catalog) {
+        return new AccessoryLookup(catalog, true, Optional.empty(), Optional.empty());
+    }
+
+    /**
+     * Комплектующие к котлу с данным DN в порядке насос, задвижка, расходомер[, автоматика].
+     * Пусто, если хотя бы одной обязательной позиции нет в каталоге.
+     */
+    public Optional<Kit> forDn(int dn) {
+        return byDn.computeIfAbsent(dn, this::resolve);
+    }
+
+    private Optional<Kit> resolve(int dn) {
+        Optional<CatalogItem> valve = catalog.cheapestValve(dn);
+        Optional<CatalogItem> flowmeter = catalog.cheapestFlowmeter(dn);
+        if (!available || valve.isEmpty() || flowmeter.isEmpty()) {
+            return Optional.empty();
+        }
+        List<CatalogItem> items = new ArrayList<>(4);
+        pump.ifPresent(items::add);
+        items.add(valve.get());
+        items.add(flowmeter.get());
+        automation.ifPresent(items::add);
+
+        long price = 0;
+        int days = 0;
+        for (CatalogItem item : items) {
+            price += item.priceKopecks();
+            days = Math.max(days, item.deliveryDaysOrZero());
+        }
+        return Optional.of(new Kit(List.copyOf(items), price, days));
+    }
+
+    /**
+     * Набор комплектующих с уже посчитанными ценой (в копейках) и сроком поставки.
+     */
+    public record Kit(List<CatalogItem> items, long priceKopecks, int maxDeliveryDays) {
+    }
+}
@@ -0,0 +1,113 @@
+package ru.astera.backend.catalog;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.astera.backend.service.CatalogService;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Фоновая сборка {@link BandTables}. Пока таблица не совпадает с текущим снимком,
+ * подбор идёт вживую, а пересборка ставится в единственный фоновый поток;
+ * устаревшие задачи (снимок успел смениться ещё раз) пропускаются.
+ */
+@Component
+@Slf4j
+public class BandTableMaterializer {
+
+    private final CatalogService catalogService;
+    private final int depth;
+    private final int maxBands;
+    private final ExecutorService executor;
+
+    private final AtomicReference<BandTables> current = new AtomicReference<>();
+    private final AtomicLong scheduled = new AtomicLong(-1);
+
+    public BandTableMaterializer(CatalogService catalogService,
+                                 @Value("${app.selection.bands.depth:10}") int depth,
+                                 @Value("${app.selection.bands.max-bands:20000}") int maxBands) {
+        this.catalogService = catalogService;
+        this.depth = depth;
+        this.maxBands = maxBands;
+        this.executor = maxBands > 0 && depth > 0
+                ? Executors.newSingleThreadExecutor(r -> {
+                    Thread t = new Thread(r, "band-tables");
+                    t.setDaemon(true);
+                    return t;
+                })
+                : null;
+    }
+
+    /**
+     * Выключенный материализатор: таблиц нет, подбор всегда идёт вживую.
+     */
+    public static BandTableMaterializer disabled() {
+        return new BandTableMaterializer(null, 0, 0);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (executor != null) {
+            schedule(catalogService.snapshot());
+        }
+    }
+
+    /**
+     * Таблица, посчитанная по тому же содержимому, что и снимок. Если такой нет —
+     * пусто и пересборка в фоне.
+     */
+    public Optional<BandTables> tablesFor(CatalogSnapshot snapshot) {
+        if (executor == null) {
+            return Optional.empty();
+        }
+        BandTables tables = current.get();
+        if (tables != null && tables.matches(snapshot)) {
+            return Optional.of(tables);
+        }
+        schedule(snapshot);
+        return Optional.empty();
+    }
+
+    private void schedule(CatalogSnapshot snapshot) {
+        long version = snapshot.version();
+        long previous;
+        do {
+            previous = scheduled.get();
+            if (previous >= version) {
+                return;
+            }
+        } while (!scheduled.compareAndSet(previous, version));
+        executor.execute(() -> build(snapshot));
+    }
+
+    private void build(CatalogSnapshot snapshot) {
+        if (snapshot.version() < scheduled.get()) {
+            return;
+        }
+        try {
+            long started = System.nanoTime();
+            BandTables tables = BandTables.build(snapshot, current.get(), depth, maxBands);
+            current.set(tables);
+            log.info("Band tables for catalog v{} built in {} ms: {} power bands, {} recomputed",
+                    snapshot.version(), (System.nanoTime() - started) / 1_000_000,
+                    tables.powerBands(), tables.rebuiltPowerBands());
+        } catch (RuntimeException e) {
+            log.error("Band tables for catalog v{} failed, selection stays live", snapshot.version(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package ru.astera.backend.catalog;
+
+import ru.astera.backend.entity.EquipmentCategory;
+import ru.astera.backend.entity.FuelType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Заранее посчитанные ответы подбора по полосам мощности.
+ * <p>
+ * Границы диапазонов мощности котлов и горелок (в сотых кВт) режут ось на полосы,
+ * внутри которых набор подходящих позиций, а значит и результат, постоянен. Для каждой
+ * полосы и топлива хранится последовательность {@link BundleSearch#ranked} глубины
+ * {@code depth} без насоса и автоматики: они одинаковы для всех комплектов запроса и
+ * добавляются при выдаче. Насос так же заранее выбран по полосам расхода.
+ * Запрос — двоичный поиск по границам и чтение из массива.
+ * <p>
+ * Таблица неизменяема. При пересборке части, чьи категории не менялись, переиспользуются,
+ * а после правки котлов или горелок заново считаются только полосы, которые пересекают
+ * старый или новый диапазон изменённых позиций; остальные копируются из прежней таблицы.
+ * Правка арматуры или переупорядочивание равных по цене позиций ведут к полной пересборке.
+ */
+public final class BandTables {
+
+    private static final FuelType[] FUELS = FuelType.values();
+
+    private final int depth;
+    private final int maxBands;
+    private final long boilers;
+    private final long burners;
+    private final long valves;
+    private final long flowmeters;
+    private final long pumps;
+    private final PowerBands power;
+    private final PumpBands pump;
+
+    private BandTables(CatalogSnapshot catalog, int depth, int maxBands, PowerBands power, PumpBands pump) {
+        this.depth = depth;
+        this.maxBands = maxBands;
+        this.boilers = catalog.categoryVersion(EquipmentCategory.boiler);
+        this.burners = catalog.categoryVersion(EquipmentCategory.burner);
+        this.valves = catalog.categoryVersion(EquipmentCategory.valve);
+        this.flowmeters = catalog.categoryVersion(EquipmentCategory.flowmeter);
+        this.pumps = catalog.categoryVersion(EquipmentCategory.pump);
+        this.power = power;
+        this.pump = pump;
+    }
+
+    /**
+     * @param previous  предыдущая таблица или {@code null}; её части переиспользуются,
+     *                  если их категории в снимке не менялись, а полосы мощности —
+     *                  если их не задели изменённые котлы и горелки
+     * @param depth     сколько комплектов хранить на полосу — больший top-N считается вживую
+     * @param maxBands  предел числа полос мощности; при превышении запросы идут мимо таблицы
+     */
+    public static BandTables build(CatalogSnapshot catalog, BandTables previous, int depth, int maxBands) {
+        boolean sameSettings = previous != null && previous.depth == depth && previous.maxBands == maxBands;
+        PowerBands power;
+        if (sameSettings && previous.powerMatches(catalog)) {
+            power = previous.power;
+        } else if (sameSettings && previous.power != null
+                && previous.valves == catalog.categoryVersion(EquipmentCategory.valve)
+                && previous.flowmeters == catalog.categoryVersion(EquipmentCategory.flowmeter)) {
+            power = PowerBands.update(catalog, previous.power, depth, maxBands);
+        } else {
+            power = PowerBands.build(catalog, depth, maxBands);
+        }
+        PumpBands pump = previous != null && previous.pumps == catalog.categoryVersion(EquipmentCategory.pump)
+                ? previous.pump
+                : PumpBands.build(catalog);
+        return new BandTables(catalog, depth, maxBands, power, pump);
+    }
+
+    /**
+     * Таблица посчитана по тем же котлам, горелкам, насосам и арматуре, что и снимок.
+     */
+    public boolean matches(CatalogSnapshot catalog) {
+        return powerMatches(catalog) && pumps == catalog.categoryVersion(EquipmentCategory.pump);
+    }
+
+    /**
+     * Топ-N по таблице. Пусто, если таблица не может ответить: мощность точнее сотых,
+     * top-N больше глубины таблицы или полос оказалось больше предела.
+     */
+    public Optional<List<BundleSearch.Bundle>> lookup(CatalogSnapshot catalog,
+                                                      BigDecimal powerKw,
+                                                      long flowMicro,
+                                                      FuelType fuel,
+                                                      boolean includeAutomation,
+                                                      int topN) {
+        if (power == null || topN > depth) {
+            return Optional.empty();
+        }
+        long key = RangeKeys.floor(powerKw, RangeKeys.POWER_SCALE);
+        if (key != RangeKeys.ceil(powerKw, RangeKeys.POWER_SCALE)) {
+            return Optional.empty();
+        }
+        CatalogItem pumpItem = pump.cheapest(flowMicro);
+        if (pumpItem == null) {
+            return Optional.of(List.of());
+        }
+        Optional<CatalogItem> automation = includeAutomation ? catalog.cheapestAutomation() : Optional.empty();
+
+        long extraKopecks = pumpItem.priceKopecks();
+        int extraDays = pumpItem.deliveryDaysOrZero();
+        if (automation.isPresent()) {
+            extraKopecks += automation.get().priceKopecks();
+            extraDays = Math.max(extraDays, automation.get().deliveryDaysOrZero());
+        }
+
+        List<BundleSearch.Bundle> base = power.ranked(fuel, key);
+        List<BundleSearch.Bundle> ranked = new ArrayList<>(base.size());
+        for (BundleSearch.Bundle b : base) {
+            List<CatalogItem> accessories = new ArrayList<>(b.accessories().size() + 2);
+            accessories.add(pumpItem);
+            accessories.addAll(b.accessories());
+            automation.ifPresent(accessories::add);
+            ranked.add(new BundleSearch.Bundle(b.boiler(), b.burner(), List.copyOf(accessories),
+                    b.totalKopecks() + extraKopecks, Math.max(b.maxDeliveryDays(), extraDays)));
+        }
+        return Optional.of(BundleSearch.finish(ranked, topN));
+    }
+
+    int powerBands() {
+        return power == null ? 0 : power.starts.length;
+    }
+
+    /**
+     * Сколько полос мощности посчитано заново при сборке этой таблицы.
+     */
+    int rebuiltPowerBands() {
+        return power == null ? 0 : power.rebuilt;
+    }
+
+    boolean sharesPowerBands(BandTables other) {
+        return power == other.power;
+    }
+
+    private boolean powerMatches(CatalogSnapshot catalog) {
+        return boilers == catalog.categoryVersion(EquipmentCategory.boiler)
+                && burners == catalog.categoryVersion(EquipmentCategory.burner)
+                && valves == catalog.categoryVersion(EquipmentCategory.valve)
+                && flowmeters == catalog.categoryVersion(EquipmentCategory.flowmeter);
+    }
+
+    /**
+     * Начала полос: {@link Long#MIN_VALUE} и каждая точка, где какой-то диапазон
+     * начинается или заканчивается.
+     */
+    private static long[] bandStarts(List<CatalogItem> items, Function<CatalogItem, IntervalIndex.LongRange> range) {
+        TreeSet<Long> keys = new TreeSet<>();
+        keys.add(Long.MIN_VALUE);
+        for (CatalogItem item : items) {
+            IntervalIndex.LongRange r = range.apply(item);
+            if (r.start() > r.end()) {
+                continue;
+            }
+            keys.add(r.start());
+            if (r.end() != Long.MAX_VALUE) {
+                keys.add(r.end() + 1);
+            }
+        }
+        return keys.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Ключ-представитель полосы: её начало, а для открытой слева — точка перед следующей.
+     */
+    private static long representative(long[] starts, int band) {
+        if (starts[band] != Long.MIN_VALUE) {
+            return starts[band];
+        }
+        return starts.length > 1 ? starts[1] - 1 : 0L;
+    }
+
+    private static int band(long[] starts, long key) {
+        int i = Arrays.binarySearch(starts, key);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    private static IntervalIndex.LongRange powerRange(CatalogItem item) {
+        return RangeKeys.range(item.powerMinKw(), item.powerMaxKw(), RangeKeys.POWER_SCALE);
+    }
+
+    /**
+     * Добавляет в {@code out} позиции, которые есть только в одном из списков.
+     * {@code false}, если общие позиции идут в разном порядке: порядок решает
+     * при равной цене, и тогда полосы без изменённых позиций тоже могут поменяться.
+     */
+    private static boolean diff(List<CatalogItem> before, List<CatalogItem> after, List<CatalogItem> out) {
+        Set<CatalogItem> beforeSet = new HashSet<>(before);
+        Set<CatalogItem> afterSet = new HashSet<>(after);
+        List<CatalogItem> keptBefore = new ArrayList<>(before.size());
+        for (CatalogItem item : before) {
+            if (afterSet.contains(item)) {
+                keptBefore.add(item);
+            } else {
+                out.add(item);
+            }
+        }
+        List<CatalogItem> keptAfter = new ArrayList<>(after.size());
+        for (CatalogItem item : after) {
+            if (beforeSet.contains(item)) {
+                keptAfter.add(item);
+            } else {
+                out.add(item);
+            }
+        }
+        return keptBefore.equals(keptAfter);
+    }
+
+    /**
+     * Объединение непустых диапазонов мощности позиций: отсортированные
+     * непересекающиеся отрезки, попарно {@code [start, end]}.
+     */
+    private static long[] mergedRanges(List<CatalogItem> items) {
+        List<IntervalIndex.LongRange> ranges = new ArrayList<>(items.size());
+        for (CatalogItem item : items) {
+            IntervalIndex.LongRange r = powerRange(item);
+            if (r.start() <= r.end()) {
+                ranges.add(r);
+            }
+        }
+        ranges.sort(Comparator.comparingLong(IntervalIndex.LongRange::start));
+        long[] merged = new long[ranges.size() * 2];
+        int n = 0;
+        for (IntervalIndex.LongRange r : ranges) {
+            if (n > 0 && (merged[n - 1] == Long.MAX_VALUE || r.start() <= merged[n - 1] + 1)) {
+                merged[n - 1] = Math.max(merged[n - 1], r.end());
+            } else {
+                merged[n++] = r.start();
+                merged[n++] = r.end();
+            }
+        }
+        return Arrays.copyOf(merged, n);
+    }
+
+    /**
+     * @param boilers  котлы, по которым посчитаны полосы, в порядке снимка
+     * @param burners  горелки, аналогично
+     * @param rebuilt  сколько полос посчитано заново, а не скопировано
+     */
+    private record PowerBands(List<CatalogItem> boilers,
+                              List<CatalogItem> burners,
+                              long[] starts,
+                              List<BundleSearch.Bundle>[][] ranked,
+                              int rebuilt) {
+
+        static PowerBands build(CatalogSnapshot catalog, int depth, int maxBands) {
+            return compute(catalog, null, new long[0], depth, maxBands);
+        }
+
+        /**
+         * Пересборка после правки котлов и горелок: считаются только полосы, пересекающие
+         * старый или новый диапазон изменённых позиций, — туда же попадают полосы, которые
+         * появились или слились на их границах. В остальных полосах набор подходящих
+         * позиций прежний, и ответ берётся из {@code previous}.
+         */
+        static PowerBands update(CatalogSnapshot catalog, PowerBands previous, int depth, int maxBands) {
+            List<CatalogItem> changed = new ArrayList<>();
+            if (!diff(previous.boilers, catalog.category(EquipmentCategory.boiler), changed)
+                    || !diff(previous.burners, catalog.category(EquipmentCategory.burner), changed)) {
+                return build(catalog, depth, maxBands);
+            }
+            return compute(catalog, previous, mergedRanges(changed), depth, maxBands);
+        }
+
+        /**
+         * @param affected  отрезки {@link #mergedRanges}, где полосы считаются заново;
+         *                  без {@code previous} заново считается всё
+         */
+        private static PowerBands compute(CatalogSnapshot catalog, PowerBands previous, long[] affected,
+                                          int depth, int maxBands) {
+            List<CatalogItem> boilers = catalog.category(EquipmentCategory.boiler);
+            List<CatalogItem> burners = catalog.category(EquipmentCategory.burner);
+            List<CatalogItem> items = new ArrayList<>(boilers.size() + burners.size());
+            items.addAll(boilers);
+            items.addAll(burners);
+            long[] starts = bandStarts(items, BandTables::powerRange);
+            if (starts.length > maxBands) {
+                return null;
+            }
+            AccessoryLookup accessories = AccessoryLookup.byDnOnly(catalog);
+            @SuppressWarnings("unchecked")
+            List<BundleSearch.Bundle>[][] ranked = new List[FUELS.length][starts.length];
+            int rebuilt = 0;
+            int next = 0;
+            for (int band = 0; band < starts.length; band++) {
+                long key = representative(starts, band);
+                long end = band + 1 < starts.length ? starts[band + 1] - 1 : Long.MAX_VALUE;
+                while (next < affected.length && affected[next + 1] < starts[band]) {
+                    next += 2;
+                }
+                if (previous != null && (next == affected.length || affected[next] > end)) {
+                    int old = band(previous.starts, key);
+                    for (FuelType fuel : FUELS) {
+                        ranked[fuel.ordinal()][band] = previous.ranked[fuel.ordinal()][old];
+                    }
+                    continue;
+                }
+                BigDecimal power = BigDecimal.valueOf(key, RangeKeys.POWER_SCALE);
+                for (FuelType fuel : FUELS) {
+                    ranked[fuel.ordinal()][band] =
+                            List.copyOf(BundleSearch.ranked(catalog, power, fuel, accessories, depth));
+                }
+                rebuilt++;
+            }
+            return new PowerBands(boilers, burners, starts, ranked, rebuilt);
+        }
+
+        List<BundleSearch.Bundle> ranked(FuelType fuel, long key) {
+            return ranked[fuel.ordinal()][band(starts, key)];
+        }
+    }
+
+    private record PumpBands(long[] starts, CatalogItem[] cheapest) {
+
+        static PumpBands build(CatalogSnapshot catalog) {
+            long[] starts = bandStarts(catalog.category(EquipmentCategory.pump), item ->
+                    RangeKeys.range(item.flowMinM3h(), item.flowMaxM3h(), RangeKeys.FLOW_SCALE));
+            CatalogItem[] cheapest = new CatalogItem[starts.length];
+            for (int band = 0; band < starts.length; band++) {
+                cheapest[band] = catalog.cheapestPump(representative(starts, band)).orElse(null);
+            }
+            return new PumpBands(starts, cheapest);
+        }
+
+        CatalogItem cheapest(long flowMicro) {
+            return cheapest[band(starts, flowMicro)];
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package ru.astera.backend.catalog;
+
+import ru.astera.backend.entity.FuelType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Точный глобальный топ-N комплектов по цене без перебора декартова произведения.
+ * <p>
+ * Комплектующие (насос, задвижка, расходомер, автоматика) от горелки не зависят, поэтому
+ * для котла они складываются в базовую стоимость ветки, а горелки ветки уже отсортированы
+ * по цене. Поиск идёт best-first по куче состояний (ветка, индекс горелки): у снятого
+ * состояния лениво раскрываются следующая горелка той же ветки и первая горелка следующей
+ * ветки. Как только цена вершины кучи превышает N-й найденный комплект, остальное отсекается.
+ * <p>
+ * Цены считаются в копейках на {@code long}, куча хранит состояния в примитивных массивах.
+ */
+public final class BundleSearch {
+
+    private static final Comparator<Bundle> BY_PRICE_THEN_DAYS = Comparator
+            .comparingLong(Bundle::totalKopecks)
+            .thenComparingInt(Bundle::maxDeliveryDays);
+
+    private BundleSearch() {
+    }
+
+    public static List<Bundle> topN(CatalogSnapshot catalog,
+                                    BigDecimal power,
+                                    FuelType fuel,
+                                    AccessoryLookup accessories,
+                                    int topN) {
+        return topN(catalog, power, fuel, accessories, topN, null);
+    }
+
+    /**
+     * То же с замером стадий поиска в {@code trace} (может быть {@code null}).
+     */
+    public static List<Bundle> topN(CatalogSnapshot catalog,
+                                    BigDecimal power,
+                                    FuelType fuel,
+                                    AccessoryLookup accessories,
+                                    int topN,
+                                    Trace trace) {
+        List<Bundle> ranked = ranked(catalog, power, fuel, accessories, topN, trace);
+        long start = trace != null ? System.nanoTime() : 0;
+        List<Bundle> result = finish(ranked, topN);
+        if (trace != null) {
+            trace.sortNanos = System.nanoTime() - start;
+        }
+        return result;
+    }
+
+    /**
+     * Комплекты в порядке снятия с кучи (цена не убывает): все, что не дороже N-го.
+     * Порядок и состав не меняются, если ко всем комплектам добавить одну и ту же
+     * сумму, — на этом держится {@link BandTables}.
+     */
+    static List<Bundle> ranked(CatalogSnapshot catalog,
+                               BigDecimal power,
+                               FuelType fuel,
+                               AccessoryLookup accessories,
+                               int topN) {
+        return ranked(catalog, power, fuel, accessories, topN, null);
+    }
+
+    private static List<Bundle> ranked(CatalogSnapshot catalog,
+                                       BigDecimal power,
+                                       FuelType fuel,
+                                       AccessoryLookup accessories,
+                                       int topN,
+                                       Trace trace) {
+        if (topN <= 0) {
+            return List.of();
+        }
+        long start = trace != null ? System.nanoTime() : 0;
+        List<Branch> branches = branches(catalog, power, fuel, accessories);
+        if (trace != null) {
+            long now = System.nanoTime();
+            trace.pairingNanos = now - start;
+            trace.pairs = branches.stream().mapToLong(b -> b.burners().size()).sum();
+            start = now;
+        }
+        if (branches.isEmpty()) {
+            return List.of();
+        }
+
+        NodeHeap heap = new NodeHeap(Math.min(branches.size(), topN) + 1);
+        heap.push(branches.get(0).cost(0), 0, 0);
+
+        List<Bundle> found = new ArrayList<>();
+        while (!heap.isEmpty()) {
+            // Добираем равные по цене комплекты: среди них решает срок поставки.
+            if (found.size() >= topN && heap.peekCost() > found.get(topN - 1).totalKopecks()) {
+                break;
+            }
+            int branchIndex = heap.peekBranch();
+            int burnerIndex = heap.peekBurner();
+            heap.pop();
+
+            Branch branch = branches.get(branchIndex);
+            found.add(branch.bundle(burnerIndex));
+
+            if (burnerIndex + 1 < branch.burners().size()) {
+                heap.push(branch.cost(burnerIndex + 1), branchIndex, burnerIndex + 1);
+            }
+            if (burnerIndex == 0 && branchIndex + 1 < branches.size()) {
+                heap.push(branches.get(branchIndex + 1).cost(0), branchIndex + 1, 0);
+            }
+        }
+
+        if (trace != null) {
+            trace.searchNanos = System.nanoTime() - start;
+            trace.found = found.size();
+        }
+        return found;
+    }
+
+    /**
+     * Топ-N из последовательности {@link #ranked}, посчитанной для N или большего числа:
+     * берётся префикс не дороже N-го комплекта, равные по цене упорядочиваются по сроку.
+     */
+    static List<Bundle> finish(List<Bundle> ranked, int topN) {
+        if (topN <= 0 || ranked.isEmpty()) {
+            return List.of();
+        }
+        int end = ranked.size();
+        if (end > topN) {
+            long limit = ranked.get(topN - 1).totalKopecks();
+            end = topN;
+            while (end < ranked.size() && ranked.get(end).totalKopecks() <= limit) {
+                end++;
+            }
+        }
+        List<Bundle> result = new ArrayList<>(ranked.subList(0, end));
+        result.sort(BY_PRICE_THEN_DAYS);
+        return result.size() > topN ? List.copyOf(result.subList(0, topN)) : result;
+    }
+
+    /**
+     * Ветки поиска: котлы с доступными комплектующими и хотя бы одной горелкой,
+     * по возрастанию цены самого дешёвого комплекта ветки.
+     */
+    private static List<Branch> branches(CatalogSnapshot catalog,
+                                         BigDecimal power,
+                                         FuelType fuel,
+                                         AccessoryLookup accessories) {
+        List<Branch> branches = new ArrayList<>();
+        // Горелки зависят только от ключа подключения: котлов на один ключ много.
+        Map<String, List<CatalogItem>> burnersByKey = new HashMap<>();
+        for (CatalogItem boiler : catalog.boilersFor(power)) {
+            if (boiler.dnSize() == null) {
+                continue;
+            }
+            Optional<AccessoryLookup.Kit> kit = accessories.forDn(boiler.dnSize());
+            if (kit.isEmpty()) {
+                continue;
+            }
+            if (boiler.connectionKey() == null) {
+                continue;
+            }
+            List<CatalogItem> burners = burnersByKey.computeIfAbsent(boiler.connectionKey(),
+                    key -> catalog.burnersFor(key, fuel, power));
+            if (burners.isEmpty()) {
+                continue;
+            }
+            branches.add(new Branch(boiler, burners, kit.get(), boiler.priceKopecks() + kit.get().priceKopecks()));
+        }
+        branches.sort(Comparator.comparingLong(b -> b.cost(0)));
+        return branches;
+    }
+
+    /**
+     * Найденный комплект: котёл, горелка и комплектующие в порядке
+     * насос, задвижка, расходомер[, автоматика]. Итог — в копейках.
+     */
+    public record Bundle(CatalogItem boiler,
+                         CatalogItem burner,
+                         List<CatalogItem> accessories,
+                         long totalKopecks,
+                         int maxDeliveryDays) {
+
+        public List<CatalogItem> items() {
+            List<CatalogItem> items = new ArrayList<>(2 + accessories.size());
+            items.add(boiler);
+            items.add(burner);
+            items.addAll(accessories);
+            return items;
+        }
+    }
+
+    /**
+     * Замер одного поиска: время подбора пар котёл–горелка, обхода кучи и финальной
+     * сортировки; число допустимых пар и сколько из них снято с кучи (остальные отсечены).
+     */
+    public static final class Trace {
+
+        private long pairingNanos;
+        private long searchNanos;
+        private long sortNanos;
+        private long pairs;
+        private int found;
+
+        public long pairingNanos() {
+            return pairingNanos;
+        }
+
+        public long searchNanos() {
+            return searchNanos;
+        }
+
+        public long sortNanos() {
+            return sortNanos;
+        }
+
+        public long pairs() {
+            return pairs;
+        }
+
+        public int found() {
+            return found;
+        }
+
+        public long pruned() {
+            return Math.max(pairs - found, 0);
+        }
+    }
+
+    private record Branch(CatalogItem boiler, List<CatalogItem> burners, AccessoryLookup.Kit kit, long base) {
+
+        long cost(int burner) {
+            return base + burners.get(burner).priceKopecks();
+        }
+
+        Bundle bundle(int index) {
+            CatalogItem burner = burners.get(index);
+            int days = Math.max(kit.maxDeliveryDays(),
+                    Math.max(boiler.deliveryDaysOrZero(), burner.deliveryDaysOrZero()));
+            return new Bundle(boiler, burner, kit.items(), cost(index), days);
+        }
+    }
+
+    /**
+     * Двоичная min-куча состояний (цена, ветка, горелка) на параллельных массивах.
+     * При равной цене раньше идёт меньшая ветка, затем меньшая горелка.
+     */
+    private static final class NodeHeap {
+        private long[] costs;
+        private int[] branches;
+        private int[] burners;
+        private int size;
+
+        NodeHeap(int capacity) {
+            costs = new long[capacity];
+            branches = new int[capacity];
+            burners = new int[capacity];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long peekCost() {
+            return costs[0];
+        }
+
+        int peekBranch() {
+            return branches[0];
+        }
+
+        int peekBurner() {
+            return burners[0];
+        }
+
+        void push(long cost, int branch, int burner) {
+            if (size == costs.length) {
+                int capacity = size * 2;
+                costs = Arrays.copyOf(costs, capacity);
+                branches = Arrays.copyOf(branches, capacity);
+                burners = Arrays.copyOf(burners, capacity);
+            }
+            int i = size++;
+            set(i, cost, branch, burner);
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!less(i, parent)) {
+                    break;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        void pop() {
+            size--;
+            if (size == 0) {
+                return;
+            }
+            set(0, costs[size], branches[size], burners[size]);
+            int i = 0;
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= size) {
+                    break;
+                }
+                int child = left + 1 < size && less(left + 1, left) ? left + 1 : left;
+                if (!less(child, i)) {
+                    break;
+                }
+                swap(i, child);
+                i = child;
+            }
+        }
+
+        private boolean less(int a, int b) {
+            if (costs[a] != costs[b]) {
+                return costs[a] < costs[b];
+            }
+            if (branches[a] != branches[b]) {
+                return branches[a] < branches[b];
+            }
+            return burners[a] < burners[b];
+        }
+
+        private void set(int i, long cost, int branch, int burner) {
+            costs[i] = cost;
+            branches[i] = branch;
+            burners[i] = burner;
+        }
+
+        private void swap(int a, int b) {
+            long cost = costs[a];
+            int branch = branches[a];
+            int burner = burners[a];
+            set(a, costs[b], branches[b], burners[b]);
+            set(b, cost, branch, burner);
+        }
+    }
+}
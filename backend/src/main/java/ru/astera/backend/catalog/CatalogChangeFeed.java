@@ -0,0 +1,77 @@
+package ru.astera.backend.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.astera.backend.service.CatalogService;
+import ru.astera.backend.support.PgNotificationListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Поток изменений каталога в снимок.
+ * <p>
+ * Свои изменения приходят событием {@link EquipmentChangedEvent} после коммита.
+ * Изменения с других узлов (и из миграций) — через {@code LISTEN equipment_changes}
+ * общего {@link PgNotificationListener}; пачка уведомлений применяется одним вызовом. Эхо своих
+ * же изменений по NOTIFY снимок не меняет. После обрыва соединения пропущенные
+ * уведомления не восстановить, поэтому снимок пересобирается целиком.
+ */
+@Component
+@Slf4j
+public class CatalogChangeFeed {
+
+    static final String CHANNEL = "equipment_changes";
+
+    private final CatalogService catalogService;
+    private final ObjectMapper objectMapper;
+    private final boolean listen;
+    private final PgNotificationListener listener;
+
+    public CatalogChangeFeed(CatalogService catalogService,
+                             PgNotificationListener listener,
+                             ObjectMapper objectMapper,
+                             @Value("${app.catalog.listen:true}") boolean listen) {
+        this.catalogService = catalogService;
+        this.objectMapper = objectMapper;
+        this.listen = listen;
+        this.listener = listener;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLocalChange(EquipmentChangedEvent event) {
+        catalogService.apply(List.of(event));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (listen) {
+            listener.listen(CHANNEL, this::dispatch, catalogService::rebuild);
+        }
+    }
+
+    private void dispatch(List<String> payloads) {
+        List<EquipmentChangedEvent> changes = new ArrayList<>(payloads.size());
+        for (String payload : payloads) {
+            try {
+                changes.add(parse(payload));
+            } catch (JsonProcessingException e) {
+                log.warn("Skipping malformed catalog notification: {}", payload);
+            }
+        }
+        if (!changes.isEmpty()) {
+            catalogService.apply(changes);
+        }
+    }
+
+    EquipmentChangedEvent parse(String payload) throws JsonProcessingException {
+        return objectMapper.readValue(payload, EquipmentChangedEvent.class);
+    }
+}
@@ -0,0 +1,62 @@
+package ru.astera.backend.catalog;
+
+import ru.astera.backend.entity.Equipment;
+import ru.astera.backend.entity.EquipmentCategory;
+import ru.astera.backend.entity.FuelType;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Неизменяемая копия строки каталога {@link Equipment}, которая живёт в снимке каталога.
+ * JPA-сущность не храним: она мутабельна и привязана к persistence context.
+ * Цена дублируется в копейках, чтобы подбор считал суммы без {@link BigDecimal}.
+ */
+public record CatalogItem(
+        UUID id,
+        EquipmentCategory category,
+        String brand,
+        String model,
+        BigDecimal powerMinKw,
+        BigDecimal powerMaxKw,
+        BigDecimal flowMinM3h,
+        BigDecimal flowMaxM3h,
+        Integer dnSize,
+        FuelType fuelType,
+        String connectionKey,
+        BigDecimal price,
+        Integer deliveryDays,
+        long priceKopecks
+) {
+
+    public CatalogItem(UUID id, EquipmentCategory category, String brand, String model,
+                       BigDecimal powerMinKw, BigDecimal powerMaxKw,
+                       BigDecimal flowMinM3h, BigDecimal flowMaxM3h,
+                       Integer dnSize, FuelType fuelType, String connectionKey,
+                       BigDecimal price, Integer deliveryDays) {
+        this(id, category, brand, model, powerMinKw, powerMaxKw, flowMinM3h, flowMaxM3h,
+                dnSize, fuelType, connectionKey, price, deliveryDays, Money.kopecks(price));
+    }
+
+    public static CatalogItem of(Equipment e) {
+        return new CatalogItem(
+                e.getId(),
+                e.getCategory(),
+                e.getBrand(),
+                e.getModel(),
+                e.getPowerMinKw(),
+                e.getPowerMaxKw(),
+                e.getFlowMinM3h(),
+                e.getFlowMaxM3h(),
+                e.getDnSize(),
+                e.getFuelType(),
+                e.getConnectionKey(),
+                e.getPrice(),
+                e.getDeliveryDays()
+        );
+    }
+
+    public int deliveryDaysOrZero() {
+        return deliveryDays == null ? 0 : deliveryDays;
+    }
+}
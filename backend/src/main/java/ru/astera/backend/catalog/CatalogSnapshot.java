@@ -0,0 +1,246 @@
+package ru.astera.backend.catalog;
+
+import ru.astera.backend.entity.EquipmentCategory;
+import ru.astera.backend.entity.FuelType;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Неизменяемый снимок активной части каталога с индексами под движок подбора.
+ * Снимок строится целиком и публикуется атомарно, поэтому читатели никогда
+ * не видят каталог в промежуточном состоянии.
+ * <p>
+ * Индексы хранятся по категориям: новый снимок ({@link #of(long, Collection, CatalogSnapshot)}
+ * или {@link #apply}) пересобирает только категории, содержимое которых изменилось,
+ * а остальные вместе с их версиями берёт из предыдущего.
+ */
+public final class CatalogSnapshot {
+
+    private static final Comparator<CatalogItem> BY_PRICE =
+            Comparator.comparingLong(CatalogItem::priceKopecks);
+
+    private final long version;
+    private final Map<UUID, CatalogItem> byId;
+    private final Map<EquipmentCategory, Part> parts;
+
+    private CatalogSnapshot(long version, Map<UUID, CatalogItem> byId, Map<EquipmentCategory, Part> parts) {
+        this.version = version;
+        this.byId = byId;
+        this.parts = parts;
+    }
+
+    public static CatalogSnapshot of(long version, Collection<CatalogItem> items) {
+        return of(version, items, null);
+    }
+
+    /**
+     * Новый снимок поверх предыдущего: категории, содержимое которых не изменилось,
+     * сохраняют свою версию — зависящие от них кэши остаются валидными.
+     */
+    public static CatalogSnapshot of(long version, Collection<CatalogItem> items, CatalogSnapshot previous) {
+        Map<UUID, CatalogItem> ids = new HashMap<>(items.size() * 2);
+        Map<EquipmentCategory, List<CatalogItem>> categories = new EnumMap<>(EquipmentCategory.class);
+        for (EquipmentCategory c : EquipmentCategory.values()) {
+            categories.put(c, new ArrayList<>());
+        }
+        for (CatalogItem item : items) {
+            ids.put(item.id(), item);
+            categories.get(item.category()).add(item);
+        }
+        Map<EquipmentCategory, Part> parts = new EnumMap<>(EquipmentCategory.class);
+        categories.forEach((c, list) -> parts.put(c,
+                Part.of(c, list, version, previous == null ? null : previous.parts.get(c))));
+        return new CatalogSnapshot(version, Collections.unmodifiableMap(ids), Collections.unmodifiableMap(parts));
+    }
+
+    /**
+     * Точечное изменение: позиции {@code upserts} добавляются или заменяются по id
+     * (в том числе со сменой категории), {@code removed} удаляются. Пересобираются
+     * только затронутые категории; если содержимое не изменилось, возвращается этот же снимок.
+     */
+    public CatalogSnapshot apply(long newVersion, Collection<CatalogItem> upserts, Collection<UUID> removed) {
+        Map<UUID, CatalogItem> ids = new HashMap<>(byId);
+        Set<EquipmentCategory> touched = EnumSet.noneOf(EquipmentCategory.class);
+        for (UUID id : removed) {
+            CatalogItem old = ids.remove(id);
+            if (old != null) {
+                touched.add(old.category());
+            }
+        }
+        for (CatalogItem item : upserts) {
+            CatalogItem old = ids.put(item.id(), item);
+            if (!item.equals(old)) {
+                touched.add(item.category());
+                if (old != null) {
+                    touched.add(old.category());
+                }
+            }
+        }
+        if (touched.isEmpty()) {
+            return this;
+        }
+
+        Set<UUID> changed = new HashSet<>(removed);
+        upserts.forEach(item -> changed.add(item.id()));
+        Map<EquipmentCategory, Part> next = new EnumMap<>(parts);
+        for (EquipmentCategory c : touched) {
+            List<CatalogItem> list = new ArrayList<>();
+            for (CatalogItem item : parts.get(c).items()) {
+                if (!changed.contains(item.id())) {
+                    list.add(item);
+                }
+            }
+            for (CatalogItem item : upserts) {
+                if (item.category() == c) {
+                    list.add(item);
+                }
+            }
+            next.put(c, Part.of(c, list, newVersion, parts.get(c)));
+        }
+        return new CatalogSnapshot(newVersion, Collections.unmodifiableMap(ids), Collections.unmodifiableMap(next));
+    }
+
+    public static CatalogSnapshot empty() {
+        return of(0L, List.of());
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Версия снимка, в котором содержимое категории менялось последний раз.
+     */
+    public long categoryVersion(EquipmentCategory category) {
+        return parts.get(category).version();
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public Optional<CatalogItem> findById(UUID id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    /**
+     * Позиции категории, отсортированные по цене по возрастанию.
+     */
+    public List<CatalogItem> category(EquipmentCategory category) {
+        return parts.get(category).items();
+    }
+
+    /**
+     * Котлы, диапазон мощности которых покрывает требуемую мощность.
+     */
+    public List<CatalogItem> boilersFor(BigDecimal power) {
+        return coveringPower(EquipmentCategory.boiler, power);
+    }
+
+    /**
+     * Позиции категории, диапазон мощности которых покрывает значение (по возрастанию цены).
+     * Незаданный диапазон считается открытым.
+     */
+    public List<CatalogItem> coveringPower(EquipmentCategory category, BigDecimal power) {
+        return covering(parts.get(category).power(), power, RangeKeys.POWER_SCALE);
+    }
+
+    /**
+     * Позиции категории, диапазон расхода которых покрывает значение (по возрастанию цены).
+     */
+    public List<CatalogItem> coveringFlow(EquipmentCategory category, BigDecimal flow) {
+        return covering(parts.get(category).flow(), flow, RangeKeys.FLOW_SCALE);
+    }
+
+    /**
+     * Горелки под посадочное место котла, топливо и мощность (по возрастанию цены).
+     */
+    public List<CatalogItem> burnersFor(String connectionKey, FuelType fuel, BigDecimal power) {
+        if (connectionKey == null) {
+            return List.of();
+        }
+        IntervalIndex<CatalogItem> index = parts.get(EquipmentCategory.burner).powerByConnectionKey()
+                .getOrDefault(connectionKey, IntervalIndex.empty());
+        return covering(index, power, RangeKeys.POWER_SCALE).stream()
+                .filter(b -> b.fuelType() == fuel)
+                .toList();
+    }
+
+    /**
+     * Самый дешёвый насос под расход в миллионных долях м³/ч.
+     */
+    public Optional<CatalogItem> cheapestPump(long flowMicro) {
+        return parts.get(EquipmentCategory.pump).flow().covering(flowMicro, flowMicro).stream().findFirst();
+    }
+
+    public Optional<CatalogItem> cheapestValve(int dn) {
+        return Optional.ofNullable(parts.get(EquipmentCategory.valve).cheapestByDn().get(dn));
+    }
+
+    public Optional<CatalogItem> cheapestFlowmeter(int dn) {
+        return Optional.ofNullable(parts.get(EquipmentCategory.flowmeter).cheapestByDn().get(dn));
+    }
+
+    public Optional<CatalogItem> cheapestAutomation() {
+        return parts.get(EquipmentCategory.automation).items().stream().findFirst();
+    }
+
+    private static List<CatalogItem> covering(IntervalIndex<CatalogItem> index, BigDecimal value, int scale) {
+        return index.covering(RangeKeys.floor(value, scale), RangeKeys.ceil(value, scale));
+    }
+
+    private static IntervalIndex.LongRange powerRange(CatalogItem item) {
+        return RangeKeys.range(item.powerMinKw(), item.powerMaxKw(), RangeKeys.POWER_SCALE);
+    }
+
+    private static IntervalIndex.LongRange flowRange(CatalogItem item) {
+        return RangeKeys.range(item.flowMinM3h(), item.flowMaxM3h(), RangeKeys.FLOW_SCALE);
+    }
+
+    private static Map<Integer, CatalogItem> cheapestPerDn(List<CatalogItem> sortedByPrice) {
+        Map<Integer, CatalogItem> result = new HashMap<>();
+        for (CatalogItem item : sortedByPrice) {
+            if (item.dnSize() != null) {
+                result.putIfAbsent(item.dnSize(), item);
+            }
+        }
+        return Map.copyOf(result);
+    }
+
+    /**
+     * Одна категория: позиции по возрастанию цены, индексы по ним и версия содержимого.
+     * Индекс горелок по ключу подключения строится только для горелок, таблица
+     * самых дешёвых по DN — только для задвижек и расходомеров.
+     */
+    private record Part(long version,
+                        List<CatalogItem> items,
+                        IntervalIndex<CatalogItem> power,
+                        IntervalIndex<CatalogItem> flow,
+                        Map<String, IntervalIndex<CatalogItem>> powerByConnectionKey,
+                        Map<Integer, CatalogItem> cheapestByDn) {
+
+        static Part of(EquipmentCategory category, List<CatalogItem> items, long version, Part previous) {
+            List<CatalogItem> sorted = new ArrayList<>(items);
+            sorted.sort(BY_PRICE);
+            sorted = List.copyOf(sorted);
+            if (previous != null && previous.items().equals(sorted)) {
+                return previous;
+            }
+            Map<String, IntervalIndex<CatalogItem>> byKey = category == EquipmentCategory.burner
+                    ? sorted.stream()
+                    .filter(b -> b.connectionKey() != null)
+                    .collect(Collectors.groupingBy(CatalogItem::connectionKey,
+                            Collectors.collectingAndThen(Collectors.toList(),
+                                    list -> IntervalIndex.of(list, CatalogSnapshot::powerRange))))
+                    : Map.of();
+            Map<Integer, CatalogItem> byDn = category == EquipmentCategory.valve
+                    || category == EquipmentCategory.flowmeter ? cheapestPerDn(sorted) : Map.of();
+            return new Part(version, sorted,
+                    IntervalIndex.of(sorted, CatalogSnapshot::powerRange),
+                    IntervalIndex.of(sorted, CatalogSnapshot::flowRange),
+                    byKey, byDn);
+        }
+    }
+}
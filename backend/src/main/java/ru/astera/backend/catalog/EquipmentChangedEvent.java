@@ -0,0 +1,99 @@
+package ru.astera.backend.catalog;
+
+import ru.astera.backend.entity.Equipment;
+import ru.astera.backend.entity.EquipmentCategory;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Изменение строки каталога. Публикуется сервисом оборудования внутри транзакции
+ * и приходит от триггера {@code equipment_changes} (PostgreSQL NOTIFY) со всех узлов —
+ * формат у обоих источников один, имена полей совпадают с колонками таблицы.
+ *
+ * @param previousCategory категория до изменения (только для UPDATE)
+ * @param changedFields    изменившиеся колонки для UPDATE; для INSERT и DELETE пусто
+ */
+public record EquipmentChangedEvent(UUID id,
+                                    Operation operation,
+                                    EquipmentCategory category,
+                                    EquipmentCategory previousCategory,
+                                    Set<String> changedFields) {
+
+    public enum Operation {
+        INSERT, UPDATE, DELETE,
+        /**
+         * Массовое изменение (импорт): снимок пересобирается целиком.
+         */
+        RELOAD
+    }
+
+    public EquipmentChangedEvent {
+        changedFields = changedFields == null ? Set.of() : Set.copyOf(changedFields);
+    }
+
+    public static EquipmentChangedEvent inserted(Equipment e) {
+        return new EquipmentChangedEvent(e.getId(), Operation.INSERT, e.getCategory(), null, Set.of());
+    }
+
+    public static EquipmentChangedEvent deleted(Equipment e) {
+        return new EquipmentChangedEvent(e.getId(), Operation.DELETE, e.getCategory(), null, Set.of());
+    }
+
+    public static EquipmentChangedEvent reload() {
+        return new EquipmentChangedEvent(null, Operation.RELOAD, null, null, Set.of());
+    }
+
+    /**
+     * @param before значения колонок до изменения, см. {@link #columns(Equipment)}
+     */
+    public static EquipmentChangedEvent updated(Map<String, Object> before, Equipment after) {
+        Map<String, Object> now = columns(after);
+        Set<String> changed = new TreeSet<>();
+        now.forEach((column, value) -> {
+            if (!Objects.equals(before.get(column), value)) {
+                changed.add(column);
+            }
+        });
+        return new EquipmentChangedEvent(after.getId(), Operation.UPDATE, after.getCategory(),
+                (EquipmentCategory) before.get("category"), changed);
+    }
+
+    /**
+     * Значения колонок строки; числа приведены к виду без хвостовых нулей,
+     * чтобы 500 и 500.00 не считались изменением.
+     */
+    public static Map<String, Object> columns(Equipment e) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        columns.put("category", e.getCategory());
+        columns.put("brand", e.getBrand());
+        columns.put("model", e.getModel());
+        columns.put("active", e.isActive());
+        columns.put("power_min_kw", normalize(e.getPowerMinKw()));
+        columns.put("power_max_kw", normalize(e.getPowerMaxKw()));
+        columns.put("flow_min_m3h", normalize(e.getFlowMinM3h()));
+        columns.put("flow_max_m3h", normalize(e.getFlowMaxM3h()));
+        columns.put("dn_size", e.getDnSize());
+        columns.put("fuel_type", e.getFuelType());
+        columns.put("connection_key", e.getConnectionKey());
+        columns.put("price", normalize(e.getPrice()));
+        columns.put("delivery_days", e.getDeliveryDays());
+        return columns;
+    }
+
+    /**
+     * UPDATE, не изменивший ни одной колонки: снимок трогать не нужно.
+     */
+    public boolean isNoop() {
+        return operation == Operation.UPDATE && changedFields.isEmpty();
+    }
+
+    private static BigDecimal normalize(BigDecimal value) {
+        return value == null ? null : value.stripTrailingZeros();
+    }
+}
@@ -0,0 +1,136 @@
+package ru.astera.backend.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Статический индекс отрезков {@code [start, end]} на примитивных long-ключах:
+ * массив, отсортированный по началу, поверх которого лежит неявное сбалансированное
+ * дерево с максимумом конца в каждом поддереве. Поиск всех отрезков, покрывающих
+ * точку, стоит O(log n + k) и не создаёт промежуточных объектов на каждый элемент.
+ * <p>
+ * Открытые границы кодируются как {@link Long#MIN_VALUE} / {@link Long#MAX_VALUE}.
+ * Результаты возвращаются в порядке исходного списка.
+ */
+final class IntervalIndex<T> {
+
+    private static final IntervalIndex<?> EMPTY = new IntervalIndex<>(List.of(), i -> null);
+
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnd;
+    private final int[] ordinals;
+    private final List<T> items;
+
+    private IntervalIndex(List<T> items, Function<T, LongRange> range) {
+        int n = items.size();
+        Integer[] order = new Integer[n];
+        long[] rawStarts = new long[n];
+        long[] rawEnds = new long[n];
+        for (int i = 0; i < n; i++) {
+            LongRange r = range.apply(items.get(i));
+            order[i] = i;
+            rawStarts[i] = r.start();
+            rawEnds[i] = r.end();
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> rawStarts[i]));
+
+        this.items = List.copyOf(items);
+        this.starts = new long[n];
+        this.ends = new long[n];
+        this.maxEnd = new long[n];
+        this.ordinals = new int[n];
+        for (int i = 0; i < n; i++) {
+            int src = order[i];
+            starts[i] = rawStarts[src];
+            ends[i] = rawEnds[src];
+            ordinals[i] = src;
+        }
+        buildMaxEnd(0, n);
+    }
+
+    static <T> IntervalIndex<T> of(List<T> items, Function<T, LongRange> range) {
+        return new IntervalIndex<>(items, range);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> IntervalIndex<T> empty() {
+        return (IntervalIndex<T>) EMPTY;
+    }
+
+    int size() {
+        return items.size();
+    }
+
+    /**
+     * Элементы, отрезок которых целиком содержит {@code [lo, hi]}.
+     * Для точки {@code lo == hi}.
+     */
+    List<T> covering(long lo, long hi) {
+        if (starts.length == 0) {
+            return List.of();
+        }
+        int[] hits = new int[8];
+        int count = 0;
+
+        // Явный стек вместо рекурсии: глубина дерева ~log2(n), 64 хватит с запасом.
+        int[] stackLo = new int[64];
+        int[] stackHi = new int[64];
+        int top = 0;
+        stackLo[top] = 0;
+        stackHi[top] = starts.length;
+        top++;
+        while (top > 0) {
+            top--;
+            int from = stackLo[top];
+            int to = stackHi[top];
+            if (from >= to) {
+                continue;
+            }
+            int mid = (from + to) >>> 1;
+            if (maxEnd[mid] < hi) {
+                continue;
+            }
+            if (starts[mid] <= lo) {
+                if (ends[mid] >= hi) {
+                    if (count == hits.length) {
+                        hits = Arrays.copyOf(hits, count * 2);
+                    }
+                    hits[count++] = ordinals[mid];
+                }
+                stackLo[top] = mid + 1;
+                stackHi[top] = to;
+                top++;
+            }
+            stackLo[top] = from;
+            stackHi[top] = mid;
+            top++;
+        }
+
+        Arrays.sort(hits, 0, count);
+        List<T> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(items.get(hits[i]));
+        }
+        return result;
+    }
+
+    private long buildMaxEnd(int from, int to) {
+        if (from >= to) {
+            return Long.MIN_VALUE;
+        }
+        int mid = (from + to) >>> 1;
+        long max = Math.max(ends[mid], Math.max(buildMaxEnd(from, mid), buildMaxEnd(mid + 1, to)));
+        maxEnd[mid] = max;
+        return max;
+    }
+
+    /**
+     * Отрезок в целочисленных ключах; границы включительные.
+     */
+    record LongRange(long start, long end) {
+    }
+}
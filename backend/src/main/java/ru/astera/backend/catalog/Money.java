@@ -0,0 +1,22 @@
+package ru.astera.backend.catalog;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Деньги во внутреннем представлении движка подбора: целые копейки в {@code long}.
+ * В {@link BigDecimal} переводим только на границе DTO.
+ */
+public final class Money {
+
+    private Money() {
+    }
+
+    public static long kopecks(BigDecimal rubles) {
+        return rubles.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal rubles(long kopecks) {
+        return BigDecimal.valueOf(kopecks, 2);
+    }
+}
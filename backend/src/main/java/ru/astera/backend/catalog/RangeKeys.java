@@ -0,0 +1,41 @@
+package ru.astera.backend.catalog;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Перевод диапазонов каталога в целочисленные ключи {@link IntervalIndex}.
+ * Мощность хранится в сотых долях кВт (как NUMERIC(10,2) в БД), расход — в
+ * миллионных долях м³/ч (с запасом к NUMERIC(10,3) и к расчётному расходу со scale 6).
+ */
+final class RangeKeys {
+
+    static final int POWER_SCALE = 2;
+    static final int FLOW_SCALE = 6;
+
+    private RangeKeys() {
+    }
+
+    static IntervalIndex.LongRange range(BigDecimal min, BigDecimal max, int scale) {
+        long start = min == null ? Long.MIN_VALUE : key(min, scale, RoundingMode.CEILING);
+        long end = max == null ? Long.MAX_VALUE : key(max, scale, RoundingMode.FLOOR);
+        return new IntervalIndex.LongRange(start, end);
+    }
+
+    /**
+     * Точка запроса как пара {@code [floor, ceil]}: если значение точнее ключа,
+     * подходят только отрезки, покрывающие оба соседних ключа, — так результат
+     * совпадает с точным сравнением BigDecimal.
+     */
+    static long floor(BigDecimal value, int scale) {
+        return key(value, scale, RoundingMode.FLOOR);
+    }
+
+    static long ceil(BigDecimal value, int scale) {
+        return key(value, scale, RoundingMode.CEILING);
+    }
+
+    private static long key(BigDecimal value, int scale, RoundingMode mode) {
+        return value.movePointRight(scale).setScale(0, mode).longValueExact();
+    }
+}
@@ -0,0 +1,116 @@
+package ru.astera.backend.catalog;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.astera.backend.dto.selection.ConfigurationCandidateDto;
+import ru.astera.backend.entity.EquipmentCategory;
+import ru.astera.backend.entity.FuelType;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Кэш результатов подбора с вытеснением по размеру. Ключ — нормализованные параметры
+ * запроса и версии тех категорий снимка, от которых зависит результат: правка насоса
+ * не сбрасывает результаты, посчитанные без него, а правка котла — сбрасывает все.
+ * Кандидаты хранятся без привязки к запросу, {@code requestId} проставляется при выдаче.
+ * Метрики публикуются как {@code cache.*} с тегом {@code cache=selection.candidates}.
+ */
+@Component
+public class SelectionResultCache {
+
+    static final String NAME = "selection.candidates";
+
+    private final Cache<Key, List<ConfigurationCandidateDto>> cache;
+
+    public SelectionResultCache(MeterRegistry meterRegistry,
+                                @Value("${app.selection.cache.max-size:10000}") long maxSize) {
+        if (maxSize <= 0) {
+            this.cache = null;
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    /**
+     * Выключенный кэш: каждый вызов считает заново.
+     */
+    public static SelectionResultCache disabled() {
+        return new SelectionResultCache(new SimpleMeterRegistry(), 0);
+    }
+
+    /**
+     * Результат из кэша или посчитанный {@code compute} для снимка {@code catalog}.
+     */
+    public List<ConfigurationCandidateDto> get(CatalogSnapshot catalog,
+                                               BigDecimal powerKw,
+                                               long flowMicro,
+                                               FuelType fuel,
+                                               boolean includeAutomation,
+                                               int topN,
+                                               UUID requestId,
+                                               Supplier<List<ConfigurationCandidateDto>> compute) {
+        if (cache == null) {
+            return withRequestId(compute.get(), requestId);
+        }
+        Key key = Key.of(catalog, powerKw, flowMicro, fuel, includeAutomation, topN);
+        List<ConfigurationCandidateDto> cached = cache.get(key, k -> withRequestId(compute.get(), null));
+        return withRequestId(cached, requestId);
+    }
+
+    long size() {
+        return cache == null ? 0 : cache.estimatedSize();
+    }
+
+    private static List<ConfigurationCandidateDto> withRequestId(List<ConfigurationCandidateDto> candidates,
+                                                                 UUID requestId) {
+        return candidates.stream()
+                .map(c -> new ConfigurationCandidateDto(c.id(), requestId, c.totalPrice(), c.currency(),
+                        c.maxDeliveryDays(), c.connectionKey(), c.dnSize(), c.components()))
+                .toList();
+    }
+
+    /**
+     * Мощность приводится к виду без хвостовых нулей (500 и 500.00 — один ключ),
+     * температуры сведены к расходу, от которого зависит подбор арматуры.
+     */
+    record Key(BigDecimal powerKw,
+               long flowMicro,
+               FuelType fuel,
+               boolean includeAutomation,
+               int topN,
+               long boilers,
+               long burners,
+               long pumps,
+               long valves,
+               long flowmeters,
+               long automation) {
+
+        static Key of(CatalogSnapshot catalog, BigDecimal powerKw, long flowMicro, FuelType fuel,
+                      boolean includeAutomation, int topN) {
+            return new Key(
+                    powerKw.stripTrailingZeros(),
+                    flowMicro,
+                    fuel,
+                    includeAutomation,
+                    topN,
+                    catalog.categoryVersion(EquipmentCategory.boiler),
+                    catalog.categoryVersion(EquipmentCategory.burner),
+                    catalog.categoryVersion(EquipmentCategory.pump),
+                    catalog.categoryVersion(EquipmentCategory.valve),
+                    catalog.categoryVersion(EquipmentCategory.flowmeter),
+                    includeAutomation ? catalog.categoryVersion(EquipmentCategory.automation) : 0L);
+        }
+    }
+}
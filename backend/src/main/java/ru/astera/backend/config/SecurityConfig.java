@@ -1,6 +1,7 @@
 package ru.astera.backend.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -10,12 +11,16 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import ru.astera.backend.security.JwtAuthenticationFilter;
 
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
@@ -32,10 +37,13 @@ public class SecurityConfig {
                         .requestMatchers("/api/auth/manager/register").hasRole("admin")
                         .requestMatchers("/api/selections/**").hasRole("customer")
                         .requestMatchers("/api/heating-requests/**").hasAnyRole("customer", "manager", "admin")
+                        .requestMatchers("/api/generation-jobs/**").hasAnyRole("customer", "manager", "admin")
                         .requestMatchers("/api/candidates/**").hasRole("customer")
                         .requestMatchers("/api/admin/**").hasAnyRole("admin", "manager")
                         .requestMatchers("/api/auth/**").permitAll()
-                        .requestMatchers("/actuator/**").permitAll()
+                        // SQL-метрики, пулы и кэши — только администратору; публичны health и info
+                        .requestMatchers("/actuator/health/**", "/actuator/info").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("admin")
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
@@ -43,9 +51,17 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Новые хэши — {@code {bcrypt}} со стоимостью {@code app.security.password.bcrypt-strength};
+     * хэши прочих форматов проверяет стандартный делегирующий кодировщик. Хэши слабее
+     * текущих настроек пересчитываются при входе ({@code upgradeEncoding}).
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.password.bcrypt-strength:10}") int bcryptStrength) {
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new BCryptPasswordEncoder(bcryptStrength)));
+        encoder.setDefaultPasswordEncoderForMatches(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+        return encoder;
     }
 
     @Bean
@@ -9,6 +9,8 @@ import ru.astera.backend.dto.admin.CustomerCreateDto;
 import ru.astera.backend.dto.admin.CustomerDto;
 import ru.astera.backend.dto.admin.CustomerPageDto;
 import ru.astera.backend.dto.admin.CustomerUpdateDto;
+import ru.astera.backend.dto.common.KeysetPageDto;
+import ru.astera.backend.dto.common.PageTotal;
 import ru.astera.backend.service.CustomerService;
 
 import java.util.UUID;
@@ -28,6 +30,17 @@ public class AdminController {
         return ResponseEntity.ok(customers);
     }
 
+    /**
+     * Keyset-пагинация: следующая страница — по {@code nextCursor} предыдущей.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<KeysetPageDto<CustomerDto>> scrollCustomers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "none") PageTotal total) {
+        return ResponseEntity.ok(customerService.getCustomersKeyset(cursor, size, total));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<CustomerDto> getCustomer(@PathVariable UUID id) {
         CustomerDto customer = customerService.getCustomerById(id);
@@ -1,24 +1,47 @@
 package ru.astera.backend.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.astera.backend.dto.admin.EquipmentCreateDto;
 import ru.astera.backend.dto.admin.EquipmentDto;
+import ru.astera.backend.dto.admin.EquipmentExportFormat;
+import ru.astera.backend.dto.admin.EquipmentImportResultDto;
 import ru.astera.backend.dto.admin.EquipmentPageDto;
 import ru.astera.backend.dto.admin.EquipmentUpdateDto;
+import ru.astera.backend.dto.common.KeysetPageDto;
+import ru.astera.backend.dto.common.PageTotal;
+import ru.astera.backend.service.EquipmentImportService;
 import ru.astera.backend.service.EquipmentService;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/admin/equipment")
-@RequiredArgsConstructor
 public class AdminEquipmentController {
 
     private final EquipmentService equipmentService;
+    private final EquipmentImportService equipmentImportService;
+    private final Duration exportTimeout;
+
+    public AdminEquipmentController(EquipmentService equipmentService,
+                                    EquipmentImportService equipmentImportService,
+                                    @Value("${app.catalog.export-timeout:10m}") Duration exportTimeout) {
+        this.equipmentService = equipmentService;
+        this.equipmentImportService = equipmentImportService;
+        this.exportTimeout = exportTimeout;
+    }
 
     @GetMapping
     public ResponseEntity<EquipmentPageDto> getEquipment(
@@ -28,6 +51,39 @@ public class AdminEquipmentController {
         return ResponseEntity.ok(equipment);
     }
 
+    /**
+     * Keyset-пагинация: следующая страница — по {@code nextCursor} предыдущей,
+     * время ответа не зависит от глубины.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<KeysetPageDto<EquipmentDto>> scrollEquipment(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "none") PageTotal total) {
+        return ResponseEntity.ok(equipmentService.getEquipmentKeyset(cursor, size, total));
+    }
+
+    /**
+     * Выгрузка всего каталога ({@code format=ndjson|csv}) потоком прямо в ответ —
+     * для ночной синхронизации вместо постраничного обхода. Таймаут асинхронной записи
+     * ({@code app.catalog.export-timeout}) задаётся только этому ответу.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEquipment(
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request) {
+        EquipmentExportFormat exportFormat = EquipmentExportFormat.parse(format);
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeout.toMillis());
+        StreamingResponseBody body = out -> equipmentService.exportEquipment(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("equipment." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<EquipmentDto> getEquipment(@PathVariable UUID id) {
         EquipmentDto equipment = equipmentService.getEquipmentById(id);
@@ -40,6 +96,19 @@ public class AdminEquipmentController {
         return ResponseEntity.status(HttpStatus.CREATED).body(equipment);
     }
 
+    /**
+     * Массовая загрузка каталога (CSV, JSON-массив или NDJSON); тело читается потоком.
+     * Существующие позиции (brand + model) обновляются, ошибочные строки попадают в отчёт.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    public ResponseEntity<EquipmentImportResultDto> importEquipment(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) throws IOException {
+        try (body) {
+            return ResponseEntity.ok(equipmentImportService.importEquipment(body, contentType));
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<EquipmentDto> updateEquipment(
             @PathVariable UUID id,
@@ -9,6 +9,8 @@ import ru.astera.backend.dto.admin.UserCreateDto;
 import ru.astera.backend.dto.admin.UserDto;
 import ru.astera.backend.dto.admin.UserPageDto;
 import ru.astera.backend.dto.admin.UserUpdateDto;
+import ru.astera.backend.dto.common.KeysetPageDto;
+import ru.astera.backend.dto.common.PageTotal;
 import ru.astera.backend.entity.User;
 import ru.astera.backend.service.UserAdminService;
 
@@ -31,6 +33,18 @@ public class AdminUserController {
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * Keyset-пагинация: следующая страница — по {@code nextCursor} предыдущей.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<KeysetPageDto<UserDto>> scrollUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) List<User.Role> roles,
+            @RequestParam(defaultValue = "none") PageTotal total) {
+        return ResponseEntity.ok(userAdminService.getUsersKeyset(cursor, size, roles, total));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<UserDto> getUser(@PathVariable UUID id) {
         UserDto user = userAdminService.getUserById(id);
@@ -1,18 +1,21 @@
 package ru.astera.backend.controller;
 
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 import ru.astera.backend.dto.selection.ConfigurationCandidateDto;
-import ru.astera.backend.dto.selection.HeatingRequestDto;
-import ru.astera.backend.service.ConfigCandidateService;
-import ru.astera.backend.service.ConfigurationSelectionService;
-import ru.astera.backend.service.HeatingRequestService;
+import ru.astera.backend.dto.selection.GenerationJobDto;
+import ru.astera.backend.service.CandidateGenerationService;
+import ru.astera.backend.service.GenerationJobService;
 
+import java.net.URI;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api")
@@ -20,32 +23,57 @@ import java.util.UUID;
 @Validated
 public class ConfigurationController {
 
-    private final HeatingRequestService heatingRequestService;
-    private final ConfigurationSelectionService configurationService;
-    private final ConfigCandidateService candidateService;
+    private final CandidateGenerationService candidateGenerationService;
+    private final GenerationJobService generationJobService;
 
     /**
      * Генерация и сохранение: заменить кандидатов у запроса на top-N из движка,
-     * вернуть сохранённые (уже с ID из базы).
+     * вернуть сохранённые (уже с ID из базы). Повторные вызовы по тому же запросу
+     * сериализуются advisory-блокировкой в БД, разные запросы идут параллельно.
      */
     @PostMapping("/heating-requests/{id}/generate-candidates")
-    public synchronized ResponseEntity<List<ConfigurationCandidateDto>> generateAndPersist(
+    public ResponseEntity<List<ConfigurationCandidateDto>> generateAndPersist(
             @PathVariable UUID id,
             @RequestParam(defaultValue = "3") @Min(1) int topN,
             @RequestParam(defaultValue = "true") boolean includeAutomation
     ) {
-        // Сначала проверяем существующие кандидаты
-        List<ConfigurationCandidateDto> candidates = candidateService.findByRequest(id, true);
+        return ResponseEntity.ok(candidateGenerationService.generateIfAbsent(id, topN, includeAutomation));
+    }
 
-        // Генерируем только если их действительно нет
-        if (candidates.isEmpty()) {
-            HeatingRequestDto req = heatingRequestService.get(id);
-            candidates = configurationService.selectTopConfigurations(req, topN, includeAutomation);
-            candidateService.replaceCandidates(id, candidates);
-            // Перечитываем из базы чтобы получить актуальные ID
-            candidates = candidateService.findByRequest(id, true);
-        }
+    /**
+     * То же в фоне ({@code ?async=true}): 202 и задача, статус которой читается
+     * по {@code Location}. Пока по запросу идёт задача, возвращается она же.
+     */
+    @PostMapping(value = "/heating-requests/{id}/generate-candidates", params = "async=true")
+    public ResponseEntity<GenerationJobDto> generateAsync(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "3") @Min(1) int topN,
+            @RequestParam(defaultValue = "true") boolean includeAutomation
+    ) {
+        GenerationJobDto job = generationJobService.submit(id, topN, includeAutomation);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/generation-jobs/" + job.id()))
+                .body(job);
+    }
 
-        return ResponseEntity.ok(candidates);
+    /**
+     * Статус фоновой генерации. С {@code waitSeconds > 0} ответ придёт по завершении
+     * задачи или по истечении ожидания (long-polling), не занимая поток Tomcat.
+     */
+    @GetMapping("/generation-jobs/{jobId}")
+    public DeferredResult<ResponseEntity<GenerationJobDto>> generationJob(
+            @PathVariable UUID jobId,
+            @RequestParam(defaultValue = "0") @Min(0) @Max(60) int waitSeconds
+    ) {
+        GenerationJobDto job = generationJobService.get(jobId);
+        DeferredResult<ResponseEntity<GenerationJobDto>> result = new DeferredResult<>(
+                TimeUnit.SECONDS.toMillis(Math.max(waitSeconds, 1)),
+                () -> ResponseEntity.ok(generationJobService.get(jobId)));
+        if (waitSeconds == 0 || job.status().isFinished()) {
+            result.setResult(ResponseEntity.ok(job));
+        } else {
+            generationJobService.completion(jobId).thenAccept(done -> result.setResult(ResponseEntity.ok(done)));
+        }
+        return result;
     }
 }
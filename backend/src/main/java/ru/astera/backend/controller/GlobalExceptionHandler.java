@@ -55,6 +55,12 @@ public class GlobalExceptionHandler {
         return handleException(ex, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<ErrorResponse> handleServiceBusy(ServiceBusyException ex) {
+        log.warn("Service busy: {}", ex.getMessage());
+        return handleException(ex, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
     @ExceptionHandler(InvalidCredentialsException.class)
     public ResponseEntity<ErrorResponse> handleInvalidCredentials(InvalidCredentialsException ex) {
         log.warn("Invalid credentials", ex);
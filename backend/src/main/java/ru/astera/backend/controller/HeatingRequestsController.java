@@ -11,6 +11,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.astera.backend.dto.common.KeysetPageDto;
+import ru.astera.backend.dto.common.PageTotal;
 import ru.astera.backend.dto.selection.HeatingRequestCreateDto;
 import ru.astera.backend.dto.selection.HeatingRequestDto;
 import ru.astera.backend.dto.selection.HeatingRequestUpdateDto;
@@ -54,6 +56,22 @@ public class HeatingRequestsController {
         return ResponseEntity.ok(service.list(customerId, status, fuelType, pageable));
     }
 
+    /**
+     * Keyset-вариант {@link #list}: следующая страница — по {@code nextCursor}
+     * предыдущей, без OFFSET; общее число — только по {@code total}.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<KeysetPageDto<HeatingRequestDto>> scroll(
+            @RequestParam(required = false) UUID customerId,
+            @RequestParam(required = false) HeatingRequestStatus status,
+            @RequestParam(required = false) FuelType fuelType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) int size,
+            @RequestParam(defaultValue = "none") PageTotal total
+    ) {
+        return ResponseEntity.ok(service.listKeyset(customerId, status, fuelType, cursor, size, total));
+    }
+
     @PatchMapping("/{id}")
     public ResponseEntity<HeatingRequestDto> updateParams(
             @PathVariable UUID id,
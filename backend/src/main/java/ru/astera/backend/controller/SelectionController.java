@@ -3,13 +3,22 @@ package ru.astera.backend.controller;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.astera.backend.entity.HeatingRequestStatus;
+import ru.astera.backend.pdf.ProposalArtifact;
+import ru.astera.backend.service.ProposalService;
 import ru.astera.backend.service.SelectionService;
 import ru.astera.backend.service.impl.SelectionServiceImpl;
 
+import java.io.IOException;
 import java.util.UUID;
 
 @RestController
@@ -19,6 +28,7 @@ import java.util.UUID;
 public class SelectionController {
 
     private final SelectionService selectionService;
+    private final ProposalService proposalService;
 
     // ---- Получить выбор по запросу
     @GetMapping("/heating-requests/{requestId}/selection")
@@ -42,6 +52,22 @@ public class SelectionController {
         return ResponseEntity.ok(dto);
     }
 
+    // ---- Коммерческое предложение по выбору в PDF из хранилища документов.
+    // Ключ содержимого — сильный ETag (If-None-Match → 304), Range отдаётся частями (206).
+    @GetMapping(value = "/heating-requests/{requestId}/selection/proposal", produces = MediaType.APPLICATION_PDF_VALUE)
+    public ResponseEntity<Resource> proposal(@PathVariable UUID requestId) throws IOException {
+        ProposalArtifact pdf = proposalService.artifact(proposalService.model(requestId));
+        return ResponseEntity.ok()
+                .eTag(pdf.key())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("proposal-" + requestId + ".pdf")
+                        .build()
+                        .toString())
+                .contentType(MediaType.APPLICATION_PDF)
+                .body(new FileSystemResource(pdf.path()));
+    }
+
     // ---- Удалить выбор и вернуть статус запроса (опционально) к PROPOSED/CREATED
     @DeleteMapping("/heating-requests/{requestId}/selection")
     public ResponseEntity<Void> delete(
@@ -0,0 +1,27 @@
+package ru.astera.backend.dto.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Locale;
+
+/**
+ * Формат выгрузки каталога. Оба формата читаются импортом обратно.
+ */
+@Getter
+@AllArgsConstructor
+public enum EquipmentExportFormat {
+    ndjson("application/x-ndjson", "ndjson"),
+    csv("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    public static EquipmentExportFormat parse(String value) {
+        try {
+            return valueOf(value.strip().toLowerCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported export format: " + value);
+        }
+    }
+}
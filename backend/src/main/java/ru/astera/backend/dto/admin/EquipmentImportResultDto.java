@@ -0,0 +1,36 @@
+package ru.astera.backend.dto.admin;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class EquipmentImportResultDto {
+    @JsonProperty("totalRows")
+    private Integer totalRows;
+
+    @JsonProperty("inserted")
+    private Integer inserted;
+
+    @JsonProperty("updated")
+    private Integer updated;
+
+    /**
+     * Строки, перекрытые более поздней строкой с теми же brand и model.
+     */
+    @JsonProperty("duplicates")
+    private Integer duplicates;
+
+    @JsonProperty("rejected")
+    private Integer rejected;
+
+    @JsonProperty("errors")
+    private List<RowError> errors;
+
+    @JsonProperty("errorsTruncated")
+    private Boolean errorsTruncated;
+
+    public record RowError(int row, String message) {
+    }
+}
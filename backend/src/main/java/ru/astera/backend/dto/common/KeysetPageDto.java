@@ -0,0 +1,31 @@
+package ru.astera.backend.dto.common;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Страница keyset-пагинации: следующая страница запрашивается по {@code nextCursor},
+ * без OFFSET. Общее число строк — только по запросу, см. {@link PageTotal}.
+ */
+@Data
+public class KeysetPageDto<T> {
+    @JsonProperty("items")
+    private List<T> items;
+
+    /**
+     * Курсор следующей страницы; {@code null} — страница последняя.
+     */
+    @JsonProperty("nextCursor")
+    private String nextCursor;
+
+    @JsonProperty("pageSize")
+    private Integer pageSize;
+
+    @JsonProperty("total")
+    private Long total;
+
+    @JsonProperty("totalEstimated")
+    private Boolean totalEstimated;
+}
@@ -0,0 +1,19 @@
+package ru.astera.backend.dto.common;
+
+/**
+ * Нужно ли считать общее число строк для keyset-страницы.
+ */
+public enum PageTotal {
+    /**
+     * Не считать.
+     */
+    none,
+    /**
+     * Оценка по статистике планировщика ({@code pg_class.reltuples}) — без учёта фильтров.
+     */
+    estimate,
+    /**
+     * Точный {@code COUNT(*)} с фильтрами.
+     */
+    exact
+}
@@ -0,0 +1,22 @@
+package ru.astera.backend.dto.selection;
+
+import lombok.Builder;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Фоновая генерация кандидатов: кандидаты — при {@code done}, текст ошибки — при {@code failed}.
+ */
+@Builder
+public record GenerationJobDto(
+        UUID id,
+        UUID requestId,
+        GenerationJobStatus status,
+        List<ConfigurationCandidateDto> candidates,
+        String error,
+        OffsetDateTime createdAt,
+        OffsetDateTime finishedAt
+) {
+}
@@ -0,0 +1,9 @@
+package ru.astera.backend.dto.selection;
+
+public enum GenerationJobStatus {
+    pending, running, done, failed;
+
+    public boolean isFinished() {
+        return this == done || this == failed;
+    }
+}
@@ -4,6 +4,7 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
 import org.mapstruct.ReportingPolicy;
+import ru.astera.backend.catalog.CatalogItem;
 import ru.astera.backend.dto.selection.ConfigurationComponentDto;
 import ru.astera.backend.entity.Equipment;
 
@@ -27,6 +28,20 @@ public interface EquipmentMapper {
     })
     ConfigurationComponentDto toComponentDto(Equipment equipment);
 
+    @Mappings({
+            @Mapping(target = "equipmentId", source = "id"),
+            @Mapping(target = "category", source = "category"),
+            @Mapping(target = "brand", source = "brand"),
+            @Mapping(target = "model", source = "model"),
+            @Mapping(target = "dnSize", source = "dnSize"),
+            @Mapping(target = "connectionKey", source = "connectionKey"),
+            @Mapping(target = "deliveryDays", source = "deliveryDays"),
+            @Mapping(target = "qty", expression = "java(java.math.BigDecimal.ONE)"),
+            @Mapping(target = "unitPrice", source = "price"),
+            @Mapping(target = "subtotal", source = "price")
+    })
+    ConfigurationComponentDto toComponentDto(CatalogItem item);
+
     default ConfigurationComponentDto toComponentDto(Equipment equipment, BigDecimal qty) {
         ConfigurationComponentDto base = toComponentDto(equipment);
         return new ConfigurationComponentDto(
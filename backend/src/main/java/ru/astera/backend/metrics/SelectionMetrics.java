@@ -0,0 +1,103 @@
+package ru.astera.backend.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import ru.astera.backend.catalog.BundleSearch;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Метрики движка подбора по стадиям:
+ * <ul>
+ *     <li>{@code astera.selection.stage{engine, stage}} — время стадии: {@code accessories}, {@code pairing},
+ *     {@code search}, {@code sort}, {@code bands}, {@code query}, {@code mapping}, {@code total};</li>
+ *     <li>{@code astera.selection.pairs} / {@code .pairs.pruned} — допустимые пары котёл–горелка
+ *     и отсечённые без раскрытия;</li>
+ *     <li>{@code astera.selection.candidates{engine}} — комплектов в ответе.</li>
+ * </ul>
+ * Таймеры и распределения публикуют перцентили p50/p95/p99 и гистограмму для Prometheus.
+ */
+@Component
+public class SelectionMetrics {
+
+    public static final String MEMORY = "memory";
+    public static final String SQL = "sql";
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    /**
+     * Без реестра ({@code registry == null}) метрики выключены — см. {@link #disabled()}.
+     */
+    public SelectionMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Метрики выключены: замеры не ведутся (тесты, бенчмарки).
+     */
+    public static SelectionMetrics disabled() {
+        return new SelectionMetrics(null);
+    }
+
+    /**
+     * Отметка начала стадии для {@link #stage}.
+     */
+    public long start() {
+        return registry == null ? 0 : System.nanoTime();
+    }
+
+    public void stage(String engine, String stage, long start) {
+        if (registry != null) {
+            timer(engine, stage).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Трейс для {@link BundleSearch#topN}; {@code null}, если метрики выключены.
+     */
+    public BundleSearch.Trace trace() {
+        return registry == null ? null : new BundleSearch.Trace();
+    }
+
+    public void search(BundleSearch.Trace trace) {
+        if (registry == null || trace == null) {
+            return;
+        }
+        timer(MEMORY, "pairing").record(trace.pairingNanos(), TimeUnit.NANOSECONDS);
+        timer(MEMORY, "search").record(trace.searchNanos(), TimeUnit.NANOSECONDS);
+        timer(MEMORY, "sort").record(trace.sortNanos(), TimeUnit.NANOSECONDS);
+        summary("astera.selection.pairs", MEMORY).record(trace.pairs());
+        summary("astera.selection.pairs.pruned", MEMORY).record(trace.pruned());
+    }
+
+    public void candidates(String engine, int count) {
+        if (registry != null) {
+            summary("astera.selection.candidates", engine).record(count);
+        }
+    }
+
+    private Timer timer(String engine, String stage) {
+        return timers.computeIfAbsent(engine + '/' + stage, k -> Timer.builder("astera.selection.stage")
+                .description("Selection engine stage duration")
+                .tags("engine", engine, "stage", stage)
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    private DistributionSummary summary(String name, String engine) {
+        return summaries.computeIfAbsent(name + '/' + engine, k -> DistributionSummary.builder(name)
+                .tag("engine", engine)
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+}
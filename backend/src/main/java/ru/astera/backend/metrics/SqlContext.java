@@ -0,0 +1,61 @@
+package ru.astera.backend.metrics;
+
+/**
+ * Контекст потока для SQL-метрик: текущий HTTP-эндпоинт, внешний сервисный метод
+ * и монотонные счётчики выполненных операторов и прочитанных строк, по разнице
+ * которых считается число операторов на запрос или вызов.
+ */
+public final class SqlContext {
+
+    public static final String NONE = "none";
+
+    private static final ThreadLocal<SqlContext> CURRENT = ThreadLocal.withInitial(SqlContext::new);
+
+    private String endpoint = NONE;
+    private String method = NONE;
+    private long statements;
+    private long rows;
+
+    private SqlContext() {
+    }
+
+    public static SqlContext current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public String endpoint() {
+        return endpoint;
+    }
+
+    public String method() {
+        return method;
+    }
+
+    public long statements() {
+        return statements;
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    void endpoint(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    void method(String method) {
+        this.method = method;
+    }
+
+    void statementExecuted() {
+        statements++;
+    }
+
+    void rowsRead(long count) {
+        rows += count;
+    }
+}
@@ -0,0 +1,123 @@
+package ru.astera.backend.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * SQL-метрики в разрезе HTTP-эндпоинта и сервисного метода:
+ * <ul>
+ *     <li>{@code astera.sql.statements} — выполненные операторы;</li>
+ *     <li>{@code astera.sql.rows} — строки: прочитанные из ResultSet и изменённые;</li>
+ *     <li>{@code astera.sql.time} — время выполнения операторов;</li>
+ *     <li>{@code astera.sql.statements.per.request} / {@code .per.call} — операторов
+ *     на HTTP-запрос и на вызов сервиса (рост — признак N+1).</li>
+ * </ul>
+ * Операторы дольше {@code app.sql.slow-threshold} пишутся в лог без значений литералов.
+ */
+@Component
+@Slf4j
+public class SqlMetrics {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w$.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+
+    private final MeterRegistry registry;
+    private final long slowNanos;
+    private final Map<Tags, Meters> meters = new ConcurrentHashMap<>();
+
+    public SqlMetrics(MeterRegistry registry,
+                      @Value("${app.sql.slow-threshold:500ms}") Duration slowThreshold) {
+        this.registry = registry;
+        this.slowNanos = slowThreshold.toNanos();
+    }
+
+    /**
+     * Выполнен оператор; {@code sql} — текст с плейсхолдерами, значения параметров сюда не попадают.
+     */
+    void statement(String sql, long nanos, long affectedRows) {
+        SqlContext context = SqlContext.current();
+        context.statementExecuted();
+        Meters m = meters(context);
+        m.statements.increment();
+        m.time.record(nanos, TimeUnit.NANOSECONDS);
+        if (affectedRows > 0) {
+            rows(affectedRows);
+        }
+        if (nanos >= slowNanos) {
+            log.warn("Slow SQL {} ms [{} / {}]: {}", TimeUnit.NANOSECONDS.toMillis(nanos),
+                    context.endpoint(), context.method(), redact(sql));
+        }
+    }
+
+    void rows(long count) {
+        SqlContext context = SqlContext.current();
+        context.rowsRead(count);
+        meters(context).rows.increment(count);
+    }
+
+    void requestCompleted(String endpoint, long statements) {
+        DistributionSummary.builder("astera.sql.statements.per.request")
+                .description("SQL statements per HTTP request")
+                .tag("endpoint", endpoint)
+                .register(registry)
+                .record(statements);
+    }
+
+    void callCompleted(String method, long statements) {
+        DistributionSummary.builder("astera.sql.statements.per.call")
+                .description("SQL statements per service call")
+                .tag("method", method)
+                .register(registry)
+                .record(statements);
+    }
+
+    /**
+     * Текст оператора без строковых и числовых литералов: параметры подготовленных
+     * операторов и так не видны, а в обычных {@code Statement} значения бывают вписаны в SQL.
+     */
+    static String redact(String sql) {
+        if (sql == null) {
+            return "<batch>";
+        }
+        String masked = STRING_LITERAL.matcher(sql).replaceAll("'?'");
+        masked = NUMBER_LITERAL.matcher(masked).replaceAll("?");
+        return masked.replaceAll("\\s+", " ").strip();
+    }
+
+    private Meters meters(SqlContext context) {
+        return meters.computeIfAbsent(new Tags(context.endpoint(), context.method()), this::register);
+    }
+
+    private Meters register(Tags tags) {
+        return new Meters(
+                Counter.builder("astera.sql.statements")
+                        .description("Executed SQL statements")
+                        .tags("endpoint", tags.endpoint, "method", tags.method)
+                        .register(registry),
+                Counter.builder("astera.sql.rows")
+                        .description("Rows read from result sets or affected by updates")
+                        .tags("endpoint", tags.endpoint, "method", tags.method)
+                        .register(registry),
+                Timer.builder("astera.sql.time")
+                        .description("SQL statement execution time")
+                        .tags("endpoint", tags.endpoint, "method", tags.method)
+                        .register(registry));
+    }
+
+    private record Tags(String endpoint, String method) {
+    }
+
+    private record Meters(Counter statements, Counter rows, Timer time) {
+    }
+}
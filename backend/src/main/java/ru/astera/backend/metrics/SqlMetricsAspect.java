@@ -0,0 +1,38 @@
+package ru.astera.backend.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Помечает SQL внешним вызовом {@code @Service}-бина ({@code Class.method}); вложенные вызовы
+ * других сервисов метку не меняют. Порядок — снаружи транзакции, чтобы COMMIT попал в тот же вызов.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class SqlMetricsAspect {
+
+    private final SqlMetrics metrics;
+
+    @Around("@within(org.springframework.stereotype.Service)")
+    public Object track(ProceedingJoinPoint call) throws Throwable {
+        SqlContext context = SqlContext.current();
+        if (!SqlContext.NONE.equals(context.method())) {
+            return call.proceed();
+        }
+        String method = ClassUtils.getUserClass(call.getTarget()).getSimpleName() + "." + call.getSignature().getName();
+        long start = context.statements();
+        context.method(method);
+        try {
+            return call.proceed();
+        } finally {
+            context.method(SqlContext.NONE);
+            metrics.callCompleted(method, context.statements() - start);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package ru.astera.backend.metrics;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Подключение SQL-метрик: обёртка пула соединений, аспект сервисов и перехватчик MVC.
+ * Выключается {@code app.sql.metrics.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sql.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlMetricsConfig {
+
+    /**
+     * Статический метод и ленивый {@link ObjectProvider}: постпроцессор создаётся раньше
+     * остальных бинов и не должен тянуть за собой реестр метрик.
+     */
+    @Bean
+    static BeanPostProcessor sqlMetricsDataSourcePostProcessor(ObjectProvider<SqlMetrics> metrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? SqlMetricsDataSource.wrap(dataSource, metrics.getObject()) : bean;
+            }
+        };
+    }
+
+    @Bean
+    SqlMetricsAspect sqlMetricsAspect(SqlMetrics metrics) {
+        return new SqlMetricsAspect(metrics);
+    }
+
+    @Bean
+    WebMvcConfigurer sqlMetricsWebMvcConfigurer(SqlMetrics metrics) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new SqlMetricsInterceptor(metrics));
+            }
+        };
+    }
+}
@@ -0,0 +1,164 @@
+package ru.astera.backend.metrics;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Обёртка {@link DataSource} на динамических прокси JDBC: считает операторы, время
+ * их выполнения и строки для {@link SqlMetrics}. {@code unwrap}/{@code isWrapperFor}
+ * отдаются исходному объекту, поэтому {@code PGConnection} (COPY, LISTEN) и метрики
+ * пула Hikari продолжают работать.
+ */
+final class SqlMetricsDataSource {
+
+    private SqlMetricsDataSource() {
+    }
+
+    static DataSource wrap(DataSource dataSource, SqlMetrics metrics) {
+        return proxy(DataSource.class, new Handler(dataSource) {
+            @Override
+            Object handle(Method method, Object[] args) throws Throwable {
+                Object result = call(method, args);
+                return result instanceof Connection connection ? connection(connection, metrics) : result;
+            }
+        });
+    }
+
+    private static Connection connection(Connection connection, SqlMetrics metrics) {
+        return proxy(Connection.class, new Handler(connection) {
+            @Override
+            Object handle(Method method, Object[] args) throws Throwable {
+                Object result = call(method, args);
+                if (!(result instanceof Statement statement)) {
+                    return result;
+                }
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                Class<? extends Statement> type = statement instanceof CallableStatement ? CallableStatement.class
+                        : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                return statement(type, statement, sql, metrics);
+            }
+        });
+    }
+
+    private static <S extends Statement> S statement(Class<S> type, Statement statement, String preparedSql,
+                                                     SqlMetrics metrics) {
+        return proxy(type, new Handler(statement) {
+            @Override
+            Object handle(Method method, Object[] args) throws Throwable {
+                String name = method.getName();
+                if (!name.startsWith("execute")) {
+                    Object result = call(method, args);
+                    return result instanceof ResultSet rs && name.equals("getResultSet") ? resultSet(rs, metrics) : result;
+                }
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+                long start = System.nanoTime();
+                Object result;
+                try {
+                    result = call(method, args);
+                } finally {
+                    long elapsed = System.nanoTime() - start;
+                    metrics.statement(sql, elapsed, 0);
+                }
+                long affected = switch (result) {
+                    case Integer count -> Math.max(count, 0);
+                    case Long count -> Math.max(count, 0);
+                    case int[] counts -> sum(counts);
+                    case long[] counts -> sum(counts);
+                    case null, default -> 0;
+                };
+                if (affected > 0) {
+                    metrics.rows(affected);
+                }
+                return result instanceof ResultSet rs ? resultSet(rs, metrics) : result;
+            }
+        });
+    }
+
+    private static ResultSet resultSet(ResultSet resultSet, SqlMetrics metrics) {
+        return proxy(ResultSet.class, new Handler(resultSet) {
+            private long rows;
+
+            @Override
+            Object handle(Method method, Object[] args) throws Throwable {
+                String name = method.getName();
+                if (name.equals("close")) {
+                    flush();
+                }
+                Object result = call(method, args);
+                if (name.equals("next") && Boolean.TRUE.equals(result)) {
+                    rows++;
+                }
+                return result;
+            }
+
+            private void flush() {
+                if (rows > 0) {
+                    metrics.rows(rows);
+                    rows = 0;
+                }
+            }
+        });
+    }
+
+    private static long sum(int[] counts) {
+        long total = 0;
+        for (int count : counts) {
+            total += Math.max(count, 0);
+        }
+        return total;
+    }
+
+    private static long sum(long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += Math.max(count, 0);
+        }
+        return total;
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(SqlMetricsDataSource.class.getClassLoader(),
+                new Class<?>[]{type}, handler));
+    }
+
+    private abstract static class Handler implements InvocationHandler {
+
+        private final Object target;
+
+        Handler(Object target) {
+            this.target = target;
+        }
+
+        abstract Object handle(Method method, Object[] args) throws Throwable;
+
+        @Override
+        public final Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            return switch (method.getName()) {
+                case "unwrap" -> ((Class<?>) args[0]).isInstance(target) ? target
+                        : ((java.sql.Wrapper) target).unwrap((Class<?>) args[0]);
+                case "isWrapperFor" -> ((Class<?>) args[0]).isInstance(target)
+                        || ((java.sql.Wrapper) target).isWrapperFor((Class<?>) args[0]);
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> "SqlMetrics[" + target + "]";
+                default -> handle(method, args);
+            };
+        }
+
+        final Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package ru.astera.backend.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Помечает SQL эндпоинтом запроса ({@code GET /api/admin/equipment/{id}}) и пишет число
+ * операторов на запрос. Поток асинхронных ответов очищается в
+ * {@link #afterConcurrentHandlingStarted}: его SQL уже не относится к запросу.
+ */
+@RequiredArgsConstructor
+public class SqlMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = SqlMetricsInterceptor.class.getName() + ".start";
+
+    private final SqlMetrics metrics;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlContext context = SqlContext.current();
+        context.endpoint(endpoint(request));
+        request.setAttribute(START_ATTRIBUTE, context.statements());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        SqlContext context = SqlContext.current();
+        if (request.getAttribute(START_ATTRIBUTE) instanceof Long start) {
+            metrics.requestCompleted(context.endpoint(), context.statements() - start);
+        }
+        SqlContext.clear();
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        request.removeAttribute(START_ATTRIBUTE);
+        SqlContext.clear();
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : "unmapped");
+    }
+}
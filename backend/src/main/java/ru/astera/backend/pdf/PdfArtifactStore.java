@@ -0,0 +1,106 @@
+package ru.astera.backend.pdf;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Локальное хранилище PDF с адресацией по содержимому: имя файла — SHA-256 от версии
+ * шаблона и данных документа ({@link ProposalModel}), поэтому одинаковое предложение
+ * печатается один раз, а правка каталога или шаблона даёт новый файл. Файл пишется
+ * во временный в том же каталоге и появляется атомарным переименованием, так что
+ * читатель никогда не видит недописанный документ. Каталог создаётся при первой
+ * записи: недоступное хранилище ломает только выдачу PDF, а не старт приложения.
+ */
+@Component
+public class PdfArtifactStore {
+
+    private final Path root;
+
+    public PdfArtifactStore(@Value("${app.pdf.store.dir:${java.io.tmpdir}/astera-pdf}") Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    @FunctionalInterface
+    public interface Content {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Ключ документа: {@code templateVersion} — отпечаток шаблона от {@link ProposalPdfRenderer}.
+     */
+    public static String key(String templateVersion, ProposalModel model) {
+        return sha256(templateVersion.getBytes(StandardCharsets.UTF_8),
+                model.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Путь файла относительно корня хранилища (для {@code Selection.pdfPath}).
+     */
+    public String relativePath(String key) {
+        return key.substring(0, 2) + "/" + key + ".pdf";
+    }
+
+    public Optional<Path> find(String key) {
+        Path path = root.resolve(relativePath(key));
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * Готовый файл по ключу; если его нет — записывается {@code content}.
+     * Одновременная запись одного ключа безопасна: содержимое одинаковое, побеждает последний rename.
+     */
+    public Path store(String key, Content content) throws IOException {
+        Path target = root.resolve(relativePath(key));
+        if (Files.isRegularFile(target)) {
+            return target;
+        }
+        try {
+            Files.createDirectories(target.getParent());
+        } catch (IOException e) {
+            throw new IOException("PDF store " + root + " is not writable", e);
+        }
+        Path tmp = Files.createTempFile(target.getParent(), key, ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024);
+                content.writeTo(out);
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return target;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    static String sha256(byte[]... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (byte[] part : parts) {
+                // длина перед каждой частью: ("ab","c") и ("a","bc") дают разные ключи
+                digest.update(ByteBuffer.allocate(4).putInt(part.length).array());
+                digest.update(part);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package ru.astera.backend.pdf;
+
+import java.nio.file.Path;
+
+/**
+ * Напечатанное предложение в {@link PdfArtifactStore}: ключ (он же сильный ETag) и файл.
+ */
+public record ProposalArtifact(String key, Path path) {
+}
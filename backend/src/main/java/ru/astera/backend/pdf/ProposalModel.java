@@ -0,0 +1,40 @@
+package ru.astera.backend.pdf;
+
+import ru.astera.backend.entity.EquipmentCategory;
+import ru.astera.backend.entity.FuelType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Всё, что нужно для печати коммерческого предложения: собирается в транзакции,
+ * рендерится без неё и без обращений к ленивым связям. Содержит только то, что попадает
+ * в документ: от него считается ключ файла в {@link PdfArtifactStore}.
+ */
+public record ProposalModel(
+        UUID requestId,
+        UUID candidateId,
+        String customerName,
+        String organization,
+        String phone,
+        BigDecimal powerKw,
+        BigDecimal tIn,
+        BigDecimal tOut,
+        FuelType fuelType,
+        BigDecimal totalPrice,
+        String currency,
+        Integer maxDeliveryDays,
+        LocalDate selectedOn,
+        List<Line> lines
+) {
+
+    public record Line(EquipmentCategory category,
+                       String brand,
+                       String model,
+                       BigDecimal qty,
+                       BigDecimal unitPrice,
+                       BigDecimal subtotal) {
+    }
+}
@@ -0,0 +1,298 @@
+package ru.astera.backend.pdf;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.Image;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.Rectangle;
+import com.lowagie.text.pdf.BaseFont;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import ru.astera.backend.entity.FuelType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Печать коммерческого предложения в PDF (OpenPDF). Шрифт и логотип читаются один раз
+ * при старте и общие для всех рендеров; документ пишется в поток постранично, без сборки
+ * в памяти. Шрифт ({@code app.pdf.font}, по умолчанию DejaVu Sans из ресурсов) обязан
+ * содержать кириллицу: без него приложение не стартует, а не печатает пустые документы.
+ */
+@Component
+@Slf4j
+public class ProposalPdfRenderer {
+
+    private static final Locale RU = Locale.forLanguageTag("ru-RU");
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    /**
+     * Увеличивается при любой правке вёрстки: файлы старой версии в {@link PdfArtifactStore}
+     * перестают совпадать по ключу и печатаются заново.
+     */
+    private static final int LAYOUT_VERSION = 1;
+
+    private final String title;
+    private final String companyName;
+    private final String companyPhone;
+    private final String companyEmail;
+    private final Image logo;
+    private final String templateVersion;
+
+    private final Font titleFont;
+    private final Font textFont;
+    private final Font boldFont;
+    private final Font smallFont;
+
+    public ProposalPdfRenderer(ResourceLoader resourceLoader,
+                               @Value("${app.pdf.title:Коммерческое предложение}") String title,
+                               @Value("${app.pdf.font:classpath:fonts/DejaVuSans.ttf}") String fontLocation,
+                               @Value("${app.pdf.logoPath:}") String logoPath,
+                               @Value("${app.company.name:}") String companyName,
+                               @Value("${app.company.phone:}") String companyPhone,
+                               @Value("${app.company.email:}") String companyEmail) {
+        this.title = title;
+        this.companyName = companyName;
+        this.companyPhone = companyPhone;
+        this.companyEmail = companyEmail;
+        byte[] logoBytes = read(resourceLoader, logoPath);
+        byte[] fontBytes = read(resourceLoader, fontLocation);
+        this.logo = logo(logoBytes, logoPath);
+        this.templateVersion = LAYOUT_VERSION + ":" + PdfArtifactStore.sha256(
+                utf8(title), utf8(companyName), utf8(companyPhone), utf8(companyEmail),
+                logoBytes != null ? logoBytes : new byte[0],
+                fontBytes != null ? fontBytes : new byte[0]);
+
+        BaseFont base = baseFont(fontBytes, fontLocation);
+        this.titleFont = new Font(base, 16, Font.BOLD);
+        this.textFont = new Font(base, 10, Font.NORMAL);
+        this.boldFont = new Font(base, 10, Font.BOLD);
+        this.smallFont = new Font(base, 8, Font.NORMAL);
+    }
+
+    /**
+     * Отпечаток шаблона: версия вёрстки, реквизиты, логотип и шрифт.
+     */
+    public String templateVersion() {
+        return templateVersion;
+    }
+
+    /**
+     * Пишет PDF в {@code out}; поток не закрывается.
+     */
+    public void render(ProposalModel model, OutputStream out) throws IOException {
+        Document document = new Document(PageSize.A4, 40, 40, 36, 36);
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false);
+            document.addTitle(title);
+            document.addCreator(companyName);
+            document.open();
+
+            document.add(header());
+            Paragraph heading = new Paragraph(title, titleFont);
+            heading.setSpacingBefore(12);
+            heading.setSpacingAfter(8);
+            document.add(heading);
+            document.add(requestInfo(model));
+            document.add(lines(model));
+            document.add(footer(model));
+        } catch (DocumentException e) {
+            throw new IOException("PDF rendering failed: " + e.getMessage(), e);
+        } finally {
+            if (document.isOpen()) {
+                document.close();
+            }
+        }
+    }
+
+    private PdfPTable header() {
+        PdfPTable table = new PdfPTable(new float[]{1, 2});
+        table.setWidthPercentage(100);
+        PdfPCell logoCell = new PdfPCell();
+        logoCell.setBorder(Rectangle.NO_BORDER);
+        if (logo != null) {
+            // копия разделяет разобранные данные картинки, но не позицию в документе
+            logoCell.addElement(Image.getInstance(logo));
+        }
+        table.addCell(logoCell);
+
+        Paragraph company = new Paragraph();
+        company.add(new Phrase(companyName + "\n", boldFont));
+        company.add(new Phrase(join(companyPhone, companyEmail), smallFont));
+        PdfPCell companyCell = new PdfPCell(company);
+        companyCell.setBorder(Rectangle.NO_BORDER);
+        companyCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
+        table.addCell(companyCell);
+        return table;
+    }
+
+    private Paragraph requestInfo(ProposalModel model) {
+        Paragraph info = new Paragraph();
+        info.setSpacingAfter(10);
+        info.add(new Phrase("Заказчик: ", boldFont));
+        info.add(new Phrase(join(model.customerName(), model.organization(), model.phone()) + "\n", textFont));
+        info.add(new Phrase("Параметры: ", boldFont));
+        info.add(new Phrase("мощность " + number(model.powerKw(), "0.##") + " кВт, график "
+                + number(model.tIn(), "0.#") + "/" + number(model.tOut(), "0.#") + " °C, топливо — "
+                + fuel(model.fuelType()) + "\n", textFont));
+        if (model.selectedOn() != null) {
+            info.add(new Phrase("Дата: ", boldFont));
+            info.add(new Phrase(DATE.format(model.selectedOn()), textFont));
+        }
+        return info;
+    }
+
+    private PdfPTable lines(ProposalModel model) {
+        PdfPTable table = new PdfPTable(new float[]{2.2f, 4, 1, 2, 2});
+        table.setWidthPercentage(100);
+        table.setHeaderRows(1);
+        for (String column : new String[]{"Позиция", "Бренд, модель", "Кол-во", "Цена", "Сумма"}) {
+            PdfPCell cell = new PdfPCell(new Phrase(column, boldFont));
+            cell.setPadding(4);
+            table.addCell(cell);
+        }
+        for (ProposalModel.Line line : model.lines()) {
+            table.addCell(cell(line.category().getDisplayName(), Element.ALIGN_LEFT));
+            table.addCell(cell(join(line.brand(), line.model()), Element.ALIGN_LEFT));
+            table.addCell(cell(number(line.qty(), "0.###"), Element.ALIGN_RIGHT));
+            table.addCell(cell(money(line.unitPrice()), Element.ALIGN_RIGHT));
+            table.addCell(cell(money(line.subtotal()), Element.ALIGN_RIGHT));
+        }
+        PdfPCell totalLabel = new PdfPCell(new Phrase("Итого, " + currency(model.currency()), boldFont));
+        totalLabel.setColspan(4);
+        totalLabel.setPadding(4);
+        totalLabel.setHorizontalAlignment(Element.ALIGN_RIGHT);
+        table.addCell(totalLabel);
+        PdfPCell total = new PdfPCell(new Phrase(money(model.totalPrice()), boldFont));
+        total.setPadding(4);
+        total.setHorizontalAlignment(Element.ALIGN_RIGHT);
+        table.addCell(total);
+        return table;
+    }
+
+    private Paragraph footer(ProposalModel model) {
+        Paragraph footer = new Paragraph();
+        footer.setSpacingBefore(10);
+        if (model.maxDeliveryDays() != null && model.maxDeliveryDays() > 0) {
+            footer.add(new Phrase("Срок поставки: до " + model.maxDeliveryDays() + " дн.\n", textFont));
+        }
+        footer.add(new Phrase("Вариант " + model.candidateId() + " по заявке " + model.requestId(), smallFont));
+        return footer;
+    }
+
+    private PdfPCell cell(String text, int alignment) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, textFont));
+        cell.setPadding(4);
+        cell.setHorizontalAlignment(alignment);
+        return cell;
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String money(BigDecimal value) {
+        return number(value, "#,##0.00");
+    }
+
+    private static String number(BigDecimal value, String pattern) {
+        if (value == null) {
+            return "—";
+        }
+        // DecimalFormat не потокобезопасен: по экземпляру на вызов
+        return new DecimalFormat(pattern, DecimalFormatSymbols.getInstance(RU)).format(value);
+    }
+
+    private static String currency(String currency) {
+        return currency == null || "RUB".equals(currency) ? "руб." : currency;
+    }
+
+    private static String fuel(FuelType fuel) {
+        if (fuel == null) {
+            return "—";
+        }
+        return switch (fuel) {
+            case gas -> "газ";
+            case diesel -> "дизельное топливо";
+            case other -> "другое";
+        };
+    }
+
+    private static String join(String... parts) {
+        StringBuilder sb = new StringBuilder();
+        for (String part : parts) {
+            if (part != null && !part.isBlank()) {
+                if (!sb.isEmpty()) {
+                    sb.append(", ");
+                }
+                sb.append(part.strip());
+            }
+        }
+        return sb.toString();
+    }
+
+    private static byte[] read(ResourceLoader resourceLoader, String location) {
+        if (location == null || location.isBlank()) {
+            return null;
+        }
+        Resource resource = resourceLoader.getResource(location);
+        if (!resource.exists()) {
+            log.warn("PDF resource not found: {}", location);
+            return null;
+        }
+        try (InputStream in = resource.getInputStream()) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            log.warn("Cannot read PDF resource {}", location, e);
+            return null;
+        }
+    }
+
+    private static Image logo(byte[] bytes, String location) {
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            Image image = Image.getInstance(bytes);
+            image.scaleToFit(120, 48);
+            return image;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Cannot decode PDF logo {}", location, e);
+            return null;
+        }
+    }
+
+    private static BaseFont baseFont(byte[] ttf, String location) {
+        if (ttf == null) {
+            throw new IllegalStateException("PDF font is not configured or missing: '" + location + "'");
+        }
+        BaseFont font;
+        try {
+            font = BaseFont.createFont("proposal.ttf", BaseFont.IDENTITY_H, BaseFont.EMBEDDED, false, ttf, null);
+        } catch (DocumentException | IOException e) {
+            throw new IllegalStateException("Cannot load PDF font " + location, e);
+        }
+        if (!font.charExists('Ж')) {
+            throw new IllegalStateException("PDF font " + location + " has no Cyrillic glyphs");
+        }
+        return font;
+    }
+}
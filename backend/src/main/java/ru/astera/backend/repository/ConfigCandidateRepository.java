@@ -9,6 +9,7 @@ import org.springframework.stereotype.Repository;
 import ru.astera.backend.entity.ConfigCandidate;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -19,6 +20,14 @@ public interface ConfigCandidateRepository extends JpaRepository<ConfigCandidate
 
     List<ConfigCandidate> findByRequestId(UUID requestId);
 
+    @Query("""
+            select distinct c from ConfigCandidate c
+              left join fetch c.components cc
+              left join fetch cc.equipment
+             where c.id = :id
+            """)
+    Optional<ConfigCandidate> findWithComponentsById(@Param("id") UUID id);
+
     @Modifying
     @Query("delete from ConfigCandidate c where c.request.id = :requestId")
     void deleteByRequestId(@Param("requestId") UUID requestId);
@@ -4,9 +4,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.astera.backend.entity.CustomerProfile;
 
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -15,4 +19,68 @@ public interface CustomerProfileRepository extends JpaRepository<CustomerProfile
 
     @Query("SELECT cp FROM CustomerProfile cp JOIN FETCH cp.user u WHERE u.role = 'customer'")
     Page<CustomerProfile> findAllCustomersWithUsers(Pageable pageable);
+
+    @Query("SELECT count(cp) FROM CustomerProfile cp JOIN cp.user u WHERE u.role = 'customer'")
+    long countCustomers();
+
+    /**
+     * Список клиентов для админки: профиль и поля пользователя одним SELECT,
+     * LIMIT/OFFSET — в БД, сущности не загружаются.
+     */
+    @Query(value = """
+            SELECT cp.userId AS id, u.email AS email, u.fullName AS fullName, cp.phone AS phone,
+                   cp.organization AS organization, u.isActive AS isActive, cp.createdAt AS createdAt
+              FROM CustomerProfile cp JOIN cp.user u
+             WHERE u.role = 'customer'
+            """,
+            countQuery = "SELECT count(cp) FROM CustomerProfile cp JOIN cp.user u WHERE u.role = 'customer'")
+    Page<CustomerRow> findCustomerRows(Pageable pageable);
+
+    @Query("""
+            SELECT cp.userId AS id, u.email AS email, u.fullName AS fullName, cp.phone AS phone,
+                   cp.organization AS organization, u.isActive AS isActive, cp.createdAt AS createdAt
+              FROM CustomerProfile cp JOIN cp.user u
+             WHERE cp.userId = :id
+            """)
+    Optional<CustomerRow> findCustomerRowById(@Param("id") UUID id);
+
+    /**
+     * Keyset-страницы клиентов, новые первыми: (created_at, user_id) по убыванию.
+     */
+    @Query("""
+            SELECT cp.userId AS id, u.email AS email, u.fullName AS fullName, cp.phone AS phone,
+                   cp.organization AS organization, u.isActive AS isActive, cp.createdAt AS createdAt
+              FROM CustomerProfile cp JOIN cp.user u
+             WHERE u.role = 'customer'
+             ORDER BY cp.createdAt DESC, cp.userId DESC
+            """)
+    List<CustomerRow> findKeysetFirst(Pageable limit);
+
+    @Query("""
+            SELECT cp.userId AS id, u.email AS email, u.fullName AS fullName, cp.phone AS phone,
+                   cp.organization AS organization, u.isActive AS isActive, cp.createdAt AS createdAt
+              FROM CustomerProfile cp JOIN cp.user u
+             WHERE u.role = 'customer'
+               AND (cp.createdAt, cp.userId) < (:createdAt, :id)
+             ORDER BY cp.createdAt DESC, cp.userId DESC
+            """)
+    List<CustomerRow> findKeysetAfter(@Param("createdAt") OffsetDateTime createdAt,
+                                          @Param("id") UUID id,
+                                          Pageable limit);
+
+    interface CustomerRow {
+        UUID getId();
+
+        String getEmail();
+
+        String getFullName();
+
+        String getPhone();
+
+        String getOrganization();
+
+        Boolean getIsActive();
+
+        OffsetDateTime getCreatedAt();
+    }
 }
\ No newline at end of file
@@ -1,123 +1,183 @@
 package ru.astera.backend.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.astera.backend.entity.Equipment;
+import ru.astera.backend.entity.EquipmentCategory;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface EquipmentRepository extends JpaRepository<Equipment, UUID> {
 
     /**
-     * Находит совместимые пары "котёл+горелка" под требуемую мощность и топливо.
-     * Возвращаем проекцию с ценами, DN и ключом совместимости.
-     * Сортировка по суммарной цене пары по возрастанию.
+     * Активная часть каталога — источник для снимка каталога движка подбора.
      */
-    @Query(
-            value = """
-                    SELECT 
-                      b.id           AS boilerId,
-                      br.id          AS burnerId,
-                      b.price        AS boilerPrice,
-                      br.price       AS burnerPrice,
-                      b.dn_size      AS dnSize,
-                      b.connection_key AS connectionKey,
-                      (b.price + br.price) AS pairPrice
-                    FROM equipment b
-                    JOIN equipment br
-                      ON br.category = 'burner' 
-                     AND br.active
-                     AND br.fuel_type = :fuel
-                     AND br.connection_key = b.connection_key
-                    WHERE b.category = 'boiler'
-                      AND b.active
-                      AND :power BETWEEN COALESCE(b.power_min_kw, 0) AND COALESCE(b.power_max_kw, 999999999)
-                      AND :power BETWEEN COALESCE(br.power_min_kw, 0) AND COALESCE(br.power_max_kw, 999999999)
-                    ORDER BY (b.price + br.price) ASC
-                    """,
-            nativeQuery = true
-    )
-    List<BoilerBurnerPair> findBoilerBurnerPairs(@Param("power") BigDecimal power,
-                                                 @Param("fuel") String fuel,
-                                                 Pageable limit);
+    List<Equipment> findByActiveTrue();
 
     /**
-     * Насос: по требуемому расходу (м³/ч)
+     * Весь каталог серверным курсором, по 500 строк за выборку — для выгрузки.
+     * Поток читается и закрывается внутри транзакции; порядок идёт по индексу
+     * uq_equipment_brand_model.
      */
-    @Query(
-            value = """
-                    SELECT * FROM equipment
-                     WHERE category = 'pump' AND active
-                       AND :flow BETWEEN COALESCE(flow_min_m3h,0) AND COALESCE(flow_max_m3h, 999999999)
-                     ORDER BY price ASC
-                     LIMIT 1
-                    """,
-            nativeQuery = true
-    )
-    Optional<Equipment> findCheapestPump(@Param("flow") BigDecimal flow);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select e from Equipment e order by e.brand, e.model")
+    Stream<Equipment> streamAllByBrandAndModel();
 
     /**
-     * Арматура: по DN
+     * Первая keyset-страница каталога в порядке (category, brand, model);
+     * размер — {@code Pageable.ofSize(n)}.
      */
-    @Query(
-            value = """
-                    SELECT * FROM equipment
-                     WHERE category = 'valve' AND active
-                       AND dn_size = :dn
-                     ORDER BY price ASC
-                     LIMIT 1
-                    """,
-            nativeQuery = true
-    )
-    Optional<Equipment> findCheapestValve(@Param("dn") Integer dn);
+    @Query("select e from Equipment e order by e.category, e.brand, e.model")
+    List<Equipment> findKeysetFirst(Pageable limit);
 
     /**
-     * Расходомер: по DN
+     * Страница после строки курсора: сравнение строк-кортежей идёт по индексу
+     * equipment_category_brand_model_idx без OFFSET.
      */
-    @Query(
-            value = """
-                    SELECT * FROM equipment
-                     WHERE category = 'flowmeter' AND active
-                       AND dn_size = :dn
-                     ORDER BY price ASC
-                     LIMIT 1
-                    """,
-            nativeQuery = true
-    )
-    Optional<Equipment> findCheapestFlowmeter(@Param("dn") Integer dn);
+    @Query("""
+            select e from Equipment e
+             where (e.category, e.brand, e.model) > (:category, :brand, :model)
+             order by e.category, e.brand, e.model
+            """)
+    List<Equipment> findKeysetAfter(@Param("category") EquipmentCategory category,
+                                    @Param("brand") String brand,
+                                    @Param("model") String model,
+                                    Pageable limit);
 
     /**
-     * Автоматика: просто самый дешёвый элемент
+     * Топ-N комплектов целиком одним запросом: пары "котёл+горелка" через LATERAL
+     * дополняются самыми дешёвыми задвижкой и расходомером своего DN, насосом по
+     * расходу и (опционально) автоматикой. Итог и срок поставки считаются в БД.
+     * Каждая строка — один компонент комплекта; комплекты идут по bundleRank,
+     * компоненты внутри — по position (котёл, горелка, насос, задвижка, расходомер, автоматика).
      */
     @Query(
             value = """
-                    SELECT * FROM equipment
-                     WHERE category = 'automation' AND active
-                     ORDER BY price ASC
-                     LIMIT 1
+                    WITH pairs AS (
+                      SELECT b.id AS boiler_id,
+                             br.id AS burner_id,
+                             b.dn_size,
+                             b.connection_key,
+                             b.price + br.price AS pair_price,
+                             GREATEST(b.delivery_days, br.delivery_days) AS pair_days
+                        FROM equipment b
+                        JOIN equipment br
+                          ON br.category = 'burner'
+                         AND br.active
+                         AND br.fuel_type = :fuel
+                         AND br.connection_key = b.connection_key
+                       WHERE b.category = 'boiler'
+                         AND b.active
+                         AND b.dn_size IS NOT NULL
+                         AND (b.power_min_kw IS NULL OR b.power_min_kw <= :power)
+                         AND (b.power_max_kw IS NULL OR b.power_max_kw >= :power)
+                         AND (br.power_min_kw IS NULL OR br.power_min_kw <= :power)
+                         AND (br.power_max_kw IS NULL OR br.power_max_kw >= :power)
+                    ),
+                    bundles AS (
+                      SELECT p.boiler_id, p.burner_id, p.dn_size, p.connection_key,
+                             pu.id AS pump_id, v.id AS valve_id, fm.id AS flowmeter_id, a.id AS automation_id,
+                             p.pair_price + pu.price + v.price + fm.price + COALESCE(a.price, 0) AS total_price,
+                             COALESCE(GREATEST(p.pair_days, pu.delivery_days, v.delivery_days,
+                                               fm.delivery_days, a.delivery_days), 0) AS max_delivery_days
+                        FROM pairs p
+                        CROSS JOIN LATERAL (
+                          SELECT id, price, delivery_days FROM equipment
+                           WHERE category = 'pump' AND active
+                             AND (flow_min_m3h IS NULL OR flow_min_m3h <= :flow)
+                             AND (flow_max_m3h IS NULL OR flow_max_m3h >= :flow)
+                           ORDER BY price LIMIT 1
+                        ) pu
+                        CROSS JOIN LATERAL (
+                          SELECT id, price, delivery_days FROM equipment
+                           WHERE category = 'valve' AND active AND dn_size = p.dn_size
+                           ORDER BY price LIMIT 1
+                        ) v
+                        CROSS JOIN LATERAL (
+                          SELECT id, price, delivery_days FROM equipment
+                           WHERE category = 'flowmeter' AND active AND dn_size = p.dn_size
+                           ORDER BY price LIMIT 1
+                        ) fm
+                        LEFT JOIN LATERAL (
+                          SELECT id, price, delivery_days FROM equipment
+                           WHERE category = 'automation' AND active AND :includeAutomation
+                           ORDER BY price LIMIT 1
+                        ) a ON TRUE
+                    ),
+                    ranked AS (
+                      SELECT bundles.*,
+                             row_number() OVER (ORDER BY total_price, max_delivery_days, boiler_id, burner_id) AS bundle_rank
+                        FROM bundles
+                    )
+                    SELECT r.bundle_rank       AS bundleRank,
+                           c.position          AS position,
+                           r.total_price       AS totalPrice,
+                           r.max_delivery_days AS maxDeliveryDays,
+                           r.connection_key    AS connectionKey,
+                           r.dn_size           AS dnSize,
+                           e.id                AS equipmentId,
+                           CAST(e.category AS TEXT) AS category,
+                           e.brand             AS brand,
+                           e.model             AS model,
+                           e.dn_size           AS componentDnSize,
+                           e.connection_key    AS componentConnectionKey,
+                           e.delivery_days     AS deliveryDays,
+                           e.price             AS price
+                      FROM ranked r
+                      CROSS JOIN LATERAL (
+                        VALUES (1, r.boiler_id), (2, r.burner_id), (3, r.pump_id),
+                               (4, r.valve_id), (5, r.flowmeter_id), (6, r.automation_id)
+                      ) AS c(position, equipment_id)
+                      JOIN equipment e ON e.id = c.equipment_id
+                     WHERE r.bundle_rank <= :topN
+                     ORDER BY r.bundle_rank, c.position
                     """,
             nativeQuery = true
     )
-    Optional<Equipment> findCheapestAutomation();
+    List<BundleComponentRow> findTopBundles(@Param("power") BigDecimal power,
+                                            @Param("flow") BigDecimal flow,
+                                            @Param("fuel") String fuel,
+                                            @Param("includeAutomation") boolean includeAutomation,
+                                            @Param("topN") int topN);
+
+    interface BundleComponentRow {
+        Long getBundleRank();
 
-    interface BoilerBurnerPair {
-        UUID getBoilerId();
+        Integer getPosition();
 
-        UUID getBurnerId();
+        BigDecimal getTotalPrice();
 
-        BigDecimal getBoilerPrice();
+        Integer getMaxDeliveryDays();
 
-        BigDecimal getBurnerPrice();
+        String getConnectionKey();
 
         Integer getDnSize();
 
-        String getConnectionKey();
+        UUID getEquipmentId();
+
+        String getCategory();
+
+        String getBrand();
+
+        String getModel();
+
+        Integer getComponentDnSize();
+
+        String getComponentConnectionKey();
+
+        Integer getDeliveryDays();
 
-        BigDecimal getPairPrice();
+        BigDecimal getPrice();
     }
-}
\ No newline at end of file
+}
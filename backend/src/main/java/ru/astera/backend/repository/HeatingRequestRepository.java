@@ -4,13 +4,17 @@ package ru.astera.backend.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.astera.backend.entity.FuelType;
 import ru.astera.backend.entity.HeatingRequest;
 import ru.astera.backend.entity.HeatingRequestStatus;
 
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
@@ -30,4 +34,61 @@ public interface HeatingRequestRepository extends JpaRepository<HeatingRequest,
                                 @Param("status") HeatingRequestStatus status,
                                 @Param("fuelType") FuelType fuelType,
                                 Pageable pageable);
+
+    @Query("""
+            select count(r) from HeatingRequest r
+             where (:customerId is null or r.customerProfile.userId = :customerId)
+               and (:status is null or r.status = :status)
+               and (:fuelType is null or r.fuelType = :fuelType)
+            """)
+    long countSearch(@Param("customerId") UUID customerId,
+                     @Param("status") HeatingRequestStatus status,
+                     @Param("fuelType") FuelType fuelType);
+
+    /**
+     * Keyset-вариант {@link #search}: новые первыми, (created_at, id) по убыванию.
+     */
+    @Query("""
+            select r from HeatingRequest r
+             where (:customerId is null or r.customerProfile.userId = :customerId)
+               and (:status is null or r.status = :status)
+               and (:fuelType is null or r.fuelType = :fuelType)
+             order by r.createdAt desc, r.id desc
+            """)
+    List<HeatingRequest> searchKeysetFirst(@Param("customerId") UUID customerId,
+                                           @Param("status") HeatingRequestStatus status,
+                                           @Param("fuelType") FuelType fuelType,
+                                           Pageable limit);
+
+    @Query("""
+            select r from HeatingRequest r
+             where (:customerId is null or r.customerProfile.userId = :customerId)
+               and (:status is null or r.status = :status)
+               and (:fuelType is null or r.fuelType = :fuelType)
+               and (r.createdAt, r.id) < (:createdAt, :id)
+             order by r.createdAt desc, r.id desc
+            """)
+    List<HeatingRequest> searchKeysetAfter(@Param("customerId") UUID customerId,
+                                           @Param("status") HeatingRequestStatus status,
+                                           @Param("fuelType") FuelType fuelType,
+                                           @Param("createdAt") OffsetDateTime createdAt,
+                                           @Param("id") UUID id,
+                                           Pageable limit);
+
+    /**
+     * Транзакционная advisory-блокировка PostgreSQL: снимается сама при commit/rollback
+     * и видна всем репликам бэкенда, в отличие от монитора JVM.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(:key)", nativeQuery = true)
+    Integer advisoryXactLock(@Param("key") long key);
+
+    /**
+     * Переводит запрос в {@code to}, только если он сейчас в {@code from}; число изменённых строк.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("update HeatingRequest r set r.status = :to where r.id = :id and r.status = :from")
+    int advanceStatus(@Param("id") UUID id,
+                      @Param("from") HeatingRequestStatus from,
+                      @Param("to") HeatingRequestStatus to);
 }
\ No newline at end of file
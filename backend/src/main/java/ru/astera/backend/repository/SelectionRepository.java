@@ -1,6 +1,10 @@
 package ru.astera.backend.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import ru.astera.backend.entity.Selection;
 
 import java.util.Optional;
@@ -10,4 +14,28 @@ public interface SelectionRepository extends JpaRepository<Selection, UUID> {
     Optional<Selection> findByRequest_Id(UUID requestId);
     boolean existsByRequest_Id(UUID requestId);
     void deleteByRequest_Id(UUID requestId);
+
+    /**
+     * Выбор вместе с запросом и заказчиком — для печати предложения одним запросом.
+     */
+    @Query("""
+            select s from Selection s
+              join fetch s.request r
+              join fetch r.customerProfile cp
+              join fetch cp.user
+             where r.id = :requestId
+            """)
+    Optional<Selection> findForProposal(@Param("requestId") UUID requestId);
+
+    /**
+     * Ставит путь к PDF; строка не трогается, если путь уже тот же.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update Selection s set s.pdfPath = :pdfPath
+             where s.request.id = :requestId
+               and (s.pdfPath is null or s.pdfPath <> :pdfPath)
+            """)
+    int updatePdfPath(@Param("requestId") UUID requestId, @Param("pdfPath") String pdfPath);
 }
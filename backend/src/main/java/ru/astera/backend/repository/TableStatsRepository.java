@@ -0,0 +1,25 @@
+package ru.astera.backend.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Статистика планировщика PostgreSQL.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TableStatsRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Оценка числа строк таблицы по {@code pg_class.reltuples} — без сканирования;
+     * {@code null}, если таблица ещё не анализировалась.
+     */
+    public Long estimateRows(String table) {
+        Long rows = jdbcTemplate.queryForObject(
+                "SELECT (SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?))", Long.class, table);
+        return rows == null || rows < 0 ? null : rows;
+    }
+}
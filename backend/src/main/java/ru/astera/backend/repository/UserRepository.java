@@ -3,9 +3,16 @@ package ru.astera.backend.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.astera.backend.entity.User;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -18,4 +25,33 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     Page<User> findByRole(User.Role role, Pageable pageable);
 
     Page<User> findByRoleIn(java.util.List<User.Role> roles, Pageable pageable);
+
+    long countByRoleIn(Collection<User.Role> roles);
+
+    /**
+     * Keyset-страницы пользователей, новые первыми: (created_at, id) по убыванию.
+     */
+    @Query("select u from User u where u.role in :roles order by u.createdAt desc, u.id desc")
+    List<User> findKeysetFirst(@Param("roles") Collection<User.Role> roles, Pageable limit);
+
+    @Query("""
+            select u from User u
+             where u.role in :roles
+               and (u.createdAt, u.id) < (:createdAt, :id)
+             order by u.createdAt desc, u.id desc
+            """)
+    List<User> findKeysetAfter(@Param("roles") Collection<User.Role> roles,
+                               @Param("createdAt") OffsetDateTime createdAt,
+                               @Param("id") UUID id,
+                               Pageable limit);
+
+    /**
+     * Заменяет хэш пароля, только если он не менялся с момента проверки.
+     */
+    @Transactional
+    @Modifying
+    @Query("update User u set u.passwordHash = :newHash where u.id = :id and u.passwordHash = :oldHash")
+    int updatePasswordHash(@Param("id") UUID id,
+                           @Param("oldHash") String oldHash,
+                           @Param("newHash") String newHash);
 }
\ No newline at end of file
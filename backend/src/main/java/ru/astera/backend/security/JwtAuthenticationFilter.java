@@ -6,21 +6,24 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
-import ru.astera.backend.service.JwtService;
 
 import java.io.IOException;
-import java.util.List;
-import java.util.UUID;
 
+/**
+ * Аутентификация по {@code Authorization: Bearer}: токен проверяется один раз за время
+ * его жизни в {@link VerifiedTokenCache}, неверный или отозванный токен оставляет
+ * запрос анонимным.
+ */
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtService jwtService;
+    private static final String BEARER = "Bearer ";
+
+    private final VerifiedTokenCache tokenCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -28,30 +31,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String userEmail;
-
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (authHeader == null || !authHeader.startsWith(BEARER)
+                || SecurityContextHolder.getContext().getAuthentication() != null) {
             filterChain.doFilter(request, response);
             return;
         }
-        jwt = authHeader.substring(7);
-        try {
-            userEmail = jwtService.extractEmail(jwt);
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null
-                    && jwtService.validateToken(jwt, userEmail)) {
-
-                UUID userId = jwtService.extractUserId(jwt);
-                String role = jwtService.extractRole(jwt);
-
-                var authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role));
-                var principal = new UserDetails(userId, userEmail);
-
-                var auth = new UsernamePasswordAuthenticationToken(principal, null, authorities);
-                SecurityContextHolder.getContext().setAuthentication(auth);
-            }
-        } catch (Exception ignored) {
-        }
+
+        tokenCache.verify(authHeader.substring(BEARER.length())).ifPresent(token -> {
+            var auth = new UsernamePasswordAuthenticationToken(token.principal(), null, token.authorities());
+            SecurityContextHolder.getContext().setAuthentication(auth);
+        });
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,10 @@
+package ru.astera.backend.security;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Проверенный JWT: подпись и срок уже проверены, поля прочитаны за один разбор.
+ */
+public record JwtPrincipal(UUID userId, String email, String role, Instant issuedAt, Instant expiresAt) {
+}
@@ -0,0 +1,10 @@
+package ru.astera.backend.security;
+
+import java.util.UUID;
+
+/**
+ * Доступ пользователя отозван (деактивация или удаление). Публикуется внутри транзакции,
+ * выданные до коммита токены пользователя перестают приниматься.
+ */
+public record UserAccessRevokedEvent(UUID userId) {
+}
@@ -0,0 +1,58 @@
+package ru.astera.backend.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.astera.backend.support.PgNotificationListener;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Отзывы доступа с других узлов: триггер на {@code users} шлёт {@code NOTIFY user_access_revoked}
+ * при деактивации и удалении, здесь они применяются к {@link VerifiedTokenCache}. Свой узел
+ * отзывает сразу по {@link UserAccessRevokedEvent}, эхо по NOTIFY лишь повторяет отзыв.
+ * После обрыва соединения пропущенные отзывы неизвестны, поэтому кэш очищается целиком.
+ */
+@Component
+@Slf4j
+public class UserRevocationFeed {
+
+    static final String CHANNEL = "user_access_revoked";
+
+    private final VerifiedTokenCache tokenCache;
+    private final boolean listen;
+    private final PgNotificationListener listener;
+
+    public UserRevocationFeed(VerifiedTokenCache tokenCache,
+                              PgNotificationListener listener,
+                              @Value("${app.jwt.revocation.listen:true}") boolean listen) {
+        this.tokenCache = tokenCache;
+        this.listen = listen;
+        this.listener = listener;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (listen) {
+            listener.listen(CHANNEL, this::apply, this::resync);
+        }
+    }
+
+    void apply(List<String> payloads) {
+        for (String payload : payloads) {
+            try {
+                tokenCache.revoke(UUID.fromString(payload.strip()));
+            } catch (IllegalArgumentException e) {
+                log.warn("Skipping malformed revocation notification: {}", payload);
+            }
+        }
+    }
+
+    void resync() {
+        log.info("Revocation feed reconnected, dropping all cached tokens");
+        tokenCache.invalidateAll();
+    }
+}
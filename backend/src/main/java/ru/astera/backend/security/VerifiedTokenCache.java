@@ -0,0 +1,171 @@
+package ru.astera.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.astera.backend.service.JwtService;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Кэш проверенных JWT: SHA-256 токена → принципал и роли. Повторный запрос с тем же
+ * токеном обходится без проверки HMAC и разбора claims. Запись живёт не дольше
+ * {@code app.jwt.cache.ttl} и не дольше {@code exp} самого токена.
+ * <p>
+ * Отзыв ({@link UserAccessRevokedEvent}) удаляет записи пользователя и запоминает момент
+ * отзыва на время жизни токена: токены, выданные раньше, отклоняются и после повторной
+ * проверки подписи. Отзывы с других узлов приходят через {@link UserRevocationFeed}.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    static final String NAME = "jwt.verified";
+
+    private final JwtService jwtService;
+    private final Clock clock;
+    private final Cache<String, Verified> cache;
+    private final Cache<UUID, Instant> revoked;
+
+    @Autowired
+    public VerifiedTokenCache(JwtService jwtService,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.jwt.cache.max-size:10000}") long maxSize,
+                              @Value("${app.jwt.cache.ttl:10m}") Duration ttl,
+                              @Value("${app.jwt.expiration:86400000}") long tokenLifetimeMillis) {
+        this(jwtService, maxSize, ttl, Duration.ofMillis(tokenLifetimeMillis), Clock.systemUTC());
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+        }
+    }
+
+    VerifiedTokenCache(JwtService jwtService, long maxSize, Duration ttl, Duration tokenLifetime, Clock clock) {
+        this.jwtService = jwtService;
+        this.clock = clock;
+        this.cache = maxSize <= 0 ? null : Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry(ttl, clock))
+                .recordStats()
+                .build();
+        this.revoked = Caffeine.newBuilder()
+                .expireAfterWrite(tokenLifetime)
+                .build();
+    }
+
+    /**
+     * Проверенный токен из кэша или после {@link JwtService#authenticate}; пусто — токен
+     * неверен, истёк или отозван.
+     */
+    public Optional<Verified> verify(String token) {
+        if (cache == null) {
+            return verifyNow(token).filter(this::notRevoked);
+        }
+        String key = digest(token);
+        Verified verified = cache.getIfPresent(key);
+        if (verified == null) {
+            Optional<Verified> fresh = verifyNow(token);
+            if (fresh.isEmpty()) {
+                return fresh;
+            }
+            verified = fresh.get();
+            cache.put(key, verified);
+        }
+        return notRevoked(verified) ? Optional.of(verified) : Optional.empty();
+    }
+
+    /**
+     * Отзывает все выданные пользователю к этому моменту токены.
+     */
+    public void revoke(UUID userId) {
+        revoked.put(userId, clock.instant());
+        if (cache != null) {
+            cache.asMap().values().removeIf(v -> v.principal().userId().equals(userId));
+        }
+    }
+
+    /**
+     * Сбрасывает все проверенные токены: следующий запрос с каждым проверяется заново.
+     */
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAccessRevoked(UserAccessRevokedEvent event) {
+        revoke(event.userId());
+    }
+
+    long size() {
+        return cache == null ? 0 : cache.estimatedSize();
+    }
+
+    private Optional<Verified> verifyNow(String token) {
+        return jwtService.authenticate(token).map(jwt -> new Verified(
+                new UserDetails(jwt.userId(), jwt.email()),
+                List.of(new SimpleGrantedAuthority("ROLE_" + jwt.role())),
+                jwt.issuedAt(),
+                jwt.expiresAt()));
+    }
+
+    private boolean notRevoked(Verified verified) {
+        Instant revokedAt = revoked.getIfPresent(verified.principal().userId());
+        // iat в JWT с точностью до секунды: токен, выданный в ту же секунду до отзыва, тоже отклоняется
+        return revokedAt == null || verified.issuedAt().isAfter(revokedAt);
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Принципал и роли проверенного токена; список ролей неизменяем и общий для всех запросов.
+     */
+    public record Verified(UserDetails principal,
+                           List<GrantedAuthority> authorities,
+                           Instant issuedAt,
+                           Instant expiresAt) {
+    }
+
+    private record UntilTokenExpiry(Duration ttl, Clock clock) implements Expiry<String, Verified> {
+
+        @Override
+        public long expireAfterCreate(String key, Verified value, long currentTime) {
+            Duration left = Duration.between(clock.instant(), value.expiresAt());
+            return Math.max(0, (left.compareTo(ttl) < 0 ? left : ttl).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Verified value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Verified value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package ru.astera.backend.service;
+
+import ru.astera.backend.dto.selection.ConfigurationCandidateDto;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface CandidateGenerationService {
+    List<ConfigurationCandidateDto> generateIfAbsent(UUID requestId, int topN, boolean includeAutomation);
+}
@@ -0,0 +1,17 @@
+package ru.astera.backend.service;
+
+import ru.astera.backend.catalog.CatalogSnapshot;
+import ru.astera.backend.catalog.EquipmentChangedEvent;
+
+import java.util.Collection;
+
+public interface CatalogService {
+    CatalogSnapshot snapshot();
+
+    CatalogSnapshot rebuild();
+
+    /**
+     * Точечно применяет изменения каталога к текущему снимку.
+     */
+    CatalogSnapshot apply(Collection<EquipmentChangedEvent> changes);
+}
@@ -4,6 +4,8 @@ import ru.astera.backend.dto.admin.CustomerCreateDto;
 import ru.astera.backend.dto.admin.CustomerDto;
 import ru.astera.backend.dto.admin.CustomerPageDto;
 import ru.astera.backend.dto.admin.CustomerUpdateDto;
+import ru.astera.backend.dto.common.KeysetPageDto;
+import ru.astera.backend.dto.common.PageTotal;
 import ru.astera.backend.dto.registration.CustomerRegistrationDto;
 import ru.astera.backend.entity.CustomerProfile;
 
@@ -16,6 +18,13 @@ public interface CustomerService {
 
     CustomerPageDto getCustomersWithPagination(int page, int size);
 
+    /**
+     * Keyset-пагинация клиентов, новые первыми.
+     *
+     * @param cursor {@code nextCursor} предыдущей страницы или {@code null} для первой
+     */
+    KeysetPageDto<CustomerDto> getCustomersKeyset(String cursor, int size, PageTotal total);
+
     CustomerDto getCustomerById(UUID customerId);
 
     CustomerDto createCustomer(CustomerCreateDto dto);
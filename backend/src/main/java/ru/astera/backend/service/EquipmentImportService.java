@@ -0,0 +1,15 @@
+package ru.astera.backend.service;
+
+import org.springframework.http.MediaType;
+import ru.astera.backend.dto.admin.EquipmentImportResultDto;
+
+import java.io.InputStream;
+
+public interface EquipmentImportService {
+    /**
+     * Массовая загрузка каталога: CSV ({@code text/csv}), JSON-массив или NDJSON.
+     * Строки с ошибками пропускаются и попадают в отчёт, остальные добавляются
+     * или обновляются по (brand, model).
+     */
+    EquipmentImportResultDto importEquipment(InputStream body, MediaType contentType);
+}
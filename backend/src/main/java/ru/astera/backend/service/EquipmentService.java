@@ -2,14 +2,26 @@ package ru.astera.backend.service;
 
 import ru.astera.backend.dto.admin.EquipmentCreateDto;
 import ru.astera.backend.dto.admin.EquipmentDto;
+import ru.astera.backend.dto.admin.EquipmentExportFormat;
 import ru.astera.backend.dto.admin.EquipmentPageDto;
 import ru.astera.backend.dto.admin.EquipmentUpdateDto;
+import ru.astera.backend.dto.common.KeysetPageDto;
+import ru.astera.backend.dto.common.PageTotal;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.UUID;
 
 public interface EquipmentService {
     EquipmentPageDto getEquipmentWithPagination(int page, int size);
 
+    /**
+     * Keyset-пагинация каталога в порядке (category, brand, model).
+     *
+     * @param cursor {@code nextCursor} предыдущей страницы или {@code null} для первой
+     */
+    KeysetPageDto<EquipmentDto> getEquipmentKeyset(String cursor, int size, PageTotal total);
+
     EquipmentDto getEquipmentById(UUID id);
 
     EquipmentDto createEquipment(EquipmentCreateDto dto);
@@ -17,4 +29,9 @@ public interface EquipmentService {
     EquipmentDto updateEquipment(UUID id, EquipmentUpdateDto dto);
 
     void deleteEquipment(UUID id);
+
+    /**
+     * Выгрузка всего каталога в поток с постоянным расходом памяти.
+     */
+    void exportEquipment(EquipmentExportFormat format, OutputStream out) throws IOException;
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package ru.astera.backend.service;
+
+import ru.astera.backend.dto.selection.GenerationJobDto;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+public interface GenerationJobService {
+
+    /**
+     * Ставит генерацию кандидатов в очередь; пока по запросу идёт задача, возвращается она же.
+     * При переполненной очереди — {@link ru.astera.backend.exception.ServiceBusyException}.
+     */
+    GenerationJobDto submit(UUID requestId, int topN, boolean includeAutomation);
+
+    GenerationJobDto get(UUID jobId);
+
+    /**
+     * Завершается вместе с задачей (успешно или с ошибкой) — для long-polling.
+     */
+    CompletableFuture<GenerationJobDto> completion(UUID jobId);
+}
@@ -3,6 +3,8 @@ package ru.astera.backend.service;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import ru.astera.backend.dto.common.KeysetPageDto;
+import ru.astera.backend.dto.common.PageTotal;
 import ru.astera.backend.dto.selection.HeatingRequestCreateDto;
 import ru.astera.backend.dto.selection.HeatingRequestDto;
 import ru.astera.backend.dto.selection.HeatingRequestUpdateDto;
@@ -21,6 +23,18 @@ public interface HeatingRequestService {
                                  FuelType fuelType,
                                  Pageable pageable);
 
+    /**
+     * Keyset-вариант {@link #list}: новые первыми.
+     *
+     * @param cursor {@code nextCursor} предыдущей страницы или {@code null} для первой
+     */
+    KeysetPageDto<HeatingRequestDto> listKeyset(UUID customerId,
+                                                HeatingRequestStatus status,
+                                                FuelType fuelType,
+                                                String cursor,
+                                                int size,
+                                                PageTotal total);
+
     HeatingRequestDto updateParams(UUID id, HeatingRequestUpdateDto dto);
 
     HeatingRequestDto setStatus(UUID id, HeatingRequestStatus status);
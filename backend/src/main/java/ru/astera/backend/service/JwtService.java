@@ -1,14 +1,22 @@
 package ru.astera.backend.service;
 
 import io.jsonwebtoken.Claims;
+import ru.astera.backend.security.JwtPrincipal;
 
 import java.util.Date;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Function;
 
 public interface JwtService {
     String generateToken(UUID userId, String email, String role);
 
+    /**
+     * Проверяет подпись и срок и читает все поля за один разбор;
+     * пусто для неверного, просроченного или неполного токена.
+     */
+    Optional<JwtPrincipal> authenticate(String token);
+
     String extractEmail(String token);
 
     String extractRole(String token);
@@ -0,0 +1,28 @@
+package ru.astera.backend.service;
+
+import ru.astera.backend.pdf.ProposalArtifact;
+import ru.astera.backend.pdf.ProposalModel;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.UUID;
+
+public interface ProposalService {
+
+    /**
+     * Данные предложения по выбору запроса; {@link java.util.NoSuchElementException}, если выбора нет.
+     */
+    ProposalModel model(UUID requestId);
+
+    /**
+     * Печатает предложение в {@code out} на ограниченном пуле рендера. Поток не закрывается;
+     * при переполненной очереди — {@link ru.astera.backend.exception.ServiceBusyException}.
+     */
+    void render(ProposalModel model, OutputStream out) throws IOException;
+
+    /**
+     * Файл предложения в хранилище: готовый по ключу содержимого или напечатанный сейчас.
+     * {@code Selection.pdfPath} указывает на него.
+     */
+    ProposalArtifact artifact(ProposalModel model) throws IOException;
+}
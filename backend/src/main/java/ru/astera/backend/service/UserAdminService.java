@@ -4,6 +4,8 @@ import ru.astera.backend.dto.admin.UserCreateDto;
 import ru.astera.backend.dto.admin.UserDto;
 import ru.astera.backend.dto.admin.UserPageDto;
 import ru.astera.backend.dto.admin.UserUpdateDto;
+import ru.astera.backend.dto.common.KeysetPageDto;
+import ru.astera.backend.dto.common.PageTotal;
 import ru.astera.backend.entity.User;
 
 import java.util.List;
@@ -12,6 +14,13 @@ import java.util.UUID;
 public interface UserAdminService {
     UserPageDto getUsersWithPagination(int page, int size, List<User.Role> roles);
 
+    /**
+     * Keyset-пагинация пользователей, новые первыми.
+     *
+     * @param cursor {@code nextCursor} предыдущей страницы или {@code null} для первой
+     */
+    KeysetPageDto<UserDto> getUsersKeyset(String cursor, int size, List<User.Role> roles, PageTotal total);
+
     UserDto getUserById(UUID id);
 
     UserDto createUser(UserCreateDto dto);
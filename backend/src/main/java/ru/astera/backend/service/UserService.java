@@ -13,5 +13,9 @@ public interface UserService {
 
     User findByEmail(String email);
 
+    /**
+     * Проверка пароля; для {@code user == null} или пустого хэша — {@code false} за то же время,
+     * что и настоящая проверка.
+     */
     boolean checkPassword(User user, String rawPassword);
 }
\ No newline at end of file
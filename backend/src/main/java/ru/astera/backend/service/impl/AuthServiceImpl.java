@@ -58,10 +58,9 @@ public class AuthServiceImpl implements AuthService {
 
     private User loginUser(LoginDto dto) {
         User user = userService.findByEmail(dto.getEmail());
-        if (user == null || !user.getIsActive()) {
-            throw new InvalidCredentialsException("Неверные учетные данные");
-        }
-        if (user.getPasswordHash() == null || !userService.checkPassword(user, dto.getPassword())) {
+        // пароль проверяется и для неизвестного email: по времени ответа не видно, есть ли пользователь
+        boolean passwordMatches = userService.checkPassword(user, dto.getPassword());
+        if (user == null || !user.getIsActive() || !passwordMatches) {
             throw new InvalidCredentialsException("Неверные учетные данные");
         }
         return user;
@@ -0,0 +1,99 @@
+package ru.astera.backend.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.astera.backend.dto.selection.ConfigurationCandidateDto;
+import ru.astera.backend.dto.selection.HeatingRequestDto;
+import ru.astera.backend.repository.HeatingRequestRepository;
+import ru.astera.backend.service.CandidateGenerationService;
+import ru.astera.backend.service.ConfigCandidateService;
+import ru.astera.backend.service.ConfigurationSelectionService;
+import ru.astera.backend.service.HeatingRequestService;
+import ru.astera.backend.support.SingleFlight;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Генерация кандидатов с защитой от дублей на уровне конкретного запроса.
+ * <p>
+ * Одновременные вызовы по одному запросу с одинаковыми {@code topN} и {@code includeAutomation}
+ * внутри узла схлопываются в одно вычисление ({@link SingleFlight}) и получают общий результат;
+ * вызов с другими параметрами к чужому вычислению не присоединяется. Между узлами генерацию
+ * сериализует advisory-блокировка PostgreSQL ({@code app.generation.db-lock}):
+ * второй узел дождётся коммита первого и вернёт уже сохранённых кандидатов.
+ * Разные запросы друг другу не мешают. Статус запроса здесь не меняется.
+ */
+@Service
+public class CandidateGenerationServiceImpl implements CandidateGenerationService {
+
+    private final HeatingRequestRepository requestRepo;
+    private final HeatingRequestService heatingRequestService;
+    private final ConfigurationSelectionService configurationService;
+    private final ConfigCandidateService candidateService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean dbLock;
+    private final SingleFlight<FlightKey, List<ConfigurationCandidateDto>> singleFlight;
+
+    public CandidateGenerationServiceImpl(HeatingRequestRepository requestRepo,
+                                          HeatingRequestService heatingRequestService,
+                                          ConfigurationSelectionService configurationService,
+                                          ConfigCandidateService candidateService,
+                                          PlatformTransactionManager transactionManager,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${app.generation.db-lock:true}") boolean dbLock) {
+        this.requestRepo = requestRepo;
+        this.heatingRequestService = heatingRequestService;
+        this.configurationService = configurationService;
+        this.candidateService = candidateService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dbLock = dbLock;
+
+        Counter coalesced = Counter.builder("astera.generation.coalesced")
+                .description("Вызовы генерации, присоединившиеся к уже идущему вычислению")
+                .register(meterRegistry);
+        this.singleFlight = new SingleFlight<>(coalesced::increment);
+        Gauge.builder("astera.generation.in_flight", singleFlight, SingleFlight::inFlight)
+                .description("Генерации кандидатов, выполняющиеся сейчас")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<ConfigurationCandidateDto> generateIfAbsent(UUID requestId, int topN, boolean includeAutomation) {
+        return singleFlight.execute(new FlightKey(requestId, topN, includeAutomation),
+                () -> transactionTemplate.execute(status -> generateLocked(requestId, topN, includeAutomation)));
+    }
+
+    private List<ConfigurationCandidateDto> generateLocked(UUID requestId, int topN, boolean includeAutomation) {
+        if (dbLock) {
+            requestRepo.advisoryXactLock(lockKey(requestId));
+        }
+
+        // Сначала проверяем существующие кандидаты
+        List<ConfigurationCandidateDto> candidates = candidateService.findByRequest(requestId, true);
+        if (!candidates.isEmpty()) {
+            return candidates;
+        }
+
+        HeatingRequestDto req = heatingRequestService.get(requestId);
+        candidates = configurationService.selectTopConfigurations(req, topN, includeAutomation);
+        candidateService.replaceCandidates(requestId, candidates);
+        // Перечитываем из базы чтобы получить актуальные ID
+        return candidateService.findByRequest(requestId, true);
+    }
+
+    private record FlightKey(UUID requestId, int topN, boolean includeAutomation) {
+    }
+
+    /**
+     * 64-битный ключ advisory-блокировки из UUID запроса.
+     */
+    static long lockKey(UUID requestId) {
+        return requestId.getMostSignificantBits() ^ requestId.getLeastSignificantBits();
+    }
+}
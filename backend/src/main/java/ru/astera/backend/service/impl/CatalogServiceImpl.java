@@ -0,0 +1,124 @@
+package ru.astera.backend.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.astera.backend.catalog.CatalogItem;
+import ru.astera.backend.catalog.CatalogSnapshot;
+import ru.astera.backend.catalog.EquipmentChangedEvent;
+import ru.astera.backend.entity.Equipment;
+import ru.astera.backend.repository.EquipmentRepository;
+import ru.astera.backend.service.CatalogService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Держит текущий снимок каталога. Снимок собирается целиком из БД при старте,
+ * дальше изменения применяются точечно по событиям {@link EquipmentChangedEvent};
+ * новый снимок подменяется одной атомарной записью.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogServiceImpl implements CatalogService {
+
+    /**
+     * Больше изменений за раз (массовая загрузка, миграция) — дешевле пересобрать всё.
+     */
+    private static final int MAX_INCREMENTAL = 1000;
+
+    private final EquipmentRepository equipmentRepository;
+
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @Override
+    public CatalogSnapshot snapshot() {
+        CatalogSnapshot snapshot = current.get();
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (this) {
+            snapshot = current.get();
+            return snapshot != null ? snapshot : rebuild();
+        }
+    }
+
+    /**
+     * Собирает новый снимок в отдельной read-only транзакции: метод вызывается
+     * и после коммита изменений каталога, когда исходная транзакция уже завершена.
+     */
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.REQUIRES_NEW)
+    public synchronized CatalogSnapshot rebuild() {
+        List<CatalogItem> items = equipmentRepository.findByActiveTrue().stream()
+                .map(CatalogItem::of)
+                .toList();
+        CatalogSnapshot snapshot = CatalogSnapshot.of(versions.incrementAndGet(), items, current.get());
+        current.set(snapshot);
+        log.info("Catalog snapshot v{} built: {} active items", snapshot.version(), snapshot.size());
+        return snapshot;
+    }
+
+    /**
+     * Перечитывает изменённые строки по id: активные заменяют прежние версии,
+     * удалённые и выключенные уходят из снимка. Повторное применение того же
+     * изменения (своё событие и эхо NOTIFY) снимок не меняет. RELOAD — полная пересборка.
+     */
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.REQUIRES_NEW)
+    public synchronized CatalogSnapshot apply(Collection<EquipmentChangedEvent> changes) {
+        CatalogSnapshot snapshot = current.get();
+        if (snapshot == null) {
+            return rebuild();
+        }
+        Set<UUID> ids = new HashSet<>();
+        for (EquipmentChangedEvent change : changes) {
+            if (change.operation() == EquipmentChangedEvent.Operation.RELOAD) {
+                return rebuild();
+            }
+            if (!change.isNoop()) {
+                ids.add(change.id());
+            }
+        }
+        if (ids.isEmpty()) {
+            return snapshot;
+        }
+        if (ids.size() > MAX_INCREMENTAL) {
+            return rebuild();
+        }
+
+        List<CatalogItem> upserts = new ArrayList<>();
+        Set<UUID> removed = new HashSet<>(ids);
+        for (Equipment equipment : equipmentRepository.findAllById(ids)) {
+            if (equipment.isActive()) {
+                upserts.add(CatalogItem.of(equipment));
+                removed.remove(equipment.getId());
+            }
+        }
+        CatalogSnapshot next = snapshot.apply(versions.get() + 1, upserts, removed);
+        if (next == snapshot) {
+            return snapshot;
+        }
+        versions.incrementAndGet();
+        current.set(next);
+        log.info("Catalog snapshot v{} applied {} changed items", next.version(), ids.size());
+        return next;
+    }
+}
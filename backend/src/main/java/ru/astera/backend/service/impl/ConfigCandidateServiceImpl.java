@@ -7,6 +7,7 @@ import ru.astera.backend.dto.selection.ConfigurationCandidateDto;
 import ru.astera.backend.dto.selection.ConfigurationComponentDto;
 import ru.astera.backend.entity.ConfigCandidate;
 import ru.astera.backend.entity.ConfigComponent;
+import ru.astera.backend.entity.HeatingRequest;
 import ru.astera.backend.mapper.ConfigCandidateMapper;
 import ru.astera.backend.mapper.ConfigComponentMapper;
 import ru.astera.backend.repository.ConfigCandidateRepository;
@@ -63,6 +64,8 @@ public class ConfigCandidateServiceImpl implements ConfigCandidateService {
     /**
      * Заменяет кандидатов по запросу на переданный список (идемпотентный сценарий показа Формы №3).
      * Реализация "delete & insert" в одной транзакции — безопасно для повторных запусков.
+     * Кандидаты и их компоненты пишутся одним saveAll с каскадом: при включённом
+     * hibernate.jdbc.batch_size это пара пакетных INSERT вместо строки на каждый объект.
      */
     @Transactional
     @Override
@@ -72,27 +75,28 @@ public class ConfigCandidateServiceImpl implements ConfigCandidateService {
         candidateRepo.deleteByRequestId(requestId);
         candidateRepo.flush(); // синхронизируемся после bulk delete (рекомендуется)
 
+        // одна ссылка на запрос на всех кандидатов, без SELECT
+        HeatingRequest requestRef = requestRepo.getReferenceById(requestId);
+
+        List<ConfigCandidate> candidates = new ArrayList<>(dtos.size());
         for (ConfigurationCandidateDto dto : dtos) {
-            // маппим кандидата БЕЗ ручной установки id
+            // маппим кандидата БЕЗ ручной установки id: UUID выставит Hibernate при persist
             ConfigCandidate cand = candidateMapper.toEntity(dto);
+            cand.setRequest(requestRef);
 
-            // гарантированно привязываем запрос (ты уже проверил exists)
-            requestRepo.findById(requestId).ifPresent(cand::setRequest);
-
-            // INSERT (Hibernate сам сгенерит UUID благодаря @GeneratedValue)
-            cand = candidateRepo.save(cand);
-
-            // если есть компоненты — собираем их с корректным embedded id и ссылкой на кандидата
-            if (dto.components() != null && !dto.components().isEmpty()) {
-                List<ConfigComponent> comps = new ArrayList<>(dto.components().size());
+            // компоненты сохраняются каскадом; candidate_id в embedded id заполнит @MapsId
+            List<ConfigComponent> comps = new ArrayList<>();
+            if (dto.components() != null) {
                 for (ConfigurationComponentDto cDto : dto.components()) {
-                    ConfigComponent comp = componentMapper.toEntity(cDto, cand.getId()); // <-- candidateId в embedded id
-                    comp.setCandidate(cand); // ссылка на владельца (mappedBy="candidate")
+                    ConfigComponent comp = componentMapper.toEntity(cDto);
+                    comp.setCandidate(cand);
                     comps.add(comp);
                 }
-                componentRepo.saveAll(comps);
             }
+            cand.setComponents(comps);
+            candidates.add(cand);
         }
+        candidateRepo.saveAll(candidates);
     }
 
     @Transactional
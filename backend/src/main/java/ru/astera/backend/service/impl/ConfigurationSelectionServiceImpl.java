@@ -1,138 +1,112 @@
 package ru.astera.backend.service.impl;
 
-import org.springframework.data.domain.PageRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import ru.astera.backend.catalog.AccessoryLookup;
+import ru.astera.backend.catalog.BandTableMaterializer;
+import ru.astera.backend.catalog.BandTables;
+import ru.astera.backend.catalog.BundleSearch;
+import ru.astera.backend.catalog.CatalogSnapshot;
+import ru.astera.backend.catalog.Money;
+import ru.astera.backend.catalog.SelectionResultCache;
 import ru.astera.backend.dto.selection.ConfigurationCandidateDto;
 import ru.astera.backend.dto.selection.ConfigurationComponentDto;
 import ru.astera.backend.dto.selection.HeatingRequestDto;
-import ru.astera.backend.entity.Equipment;
 import ru.astera.backend.mapper.EquipmentMapper;
-import ru.astera.backend.repository.EquipmentRepository;
+import ru.astera.backend.metrics.SelectionMetrics;
+import ru.astera.backend.service.CatalogService;
 import ru.astera.backend.service.ConfigurationSelectionService;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
-
+import java.util.UUID;
+
+/**
+ * Движок подбора по снимку каталога в памяти (по умолчанию): точный топ-N
+ * комплектов через {@link BundleSearch}. Повторяющиеся параметры отдаются
+ * из {@link SelectionResultCache}, а при готовой таблице полос мощности ответ
+ * читается из {@link BandTables} без поиска. Время стадий — в {@link SelectionMetrics}.
+ */
 @Service
+@ConditionalOnProperty(name = "app.selection.engine", havingValue = "memory", matchIfMissing = true)
 public class ConfigurationSelectionServiceImpl implements ConfigurationSelectionService {
 
-    private final EquipmentRepository equipmentRepo;
+    private final CatalogService catalogService;
     private final EquipmentMapper equipmentMapper;
-
-    public ConfigurationSelectionServiceImpl(EquipmentRepository equipmentRepo,
-                                             EquipmentMapper equipmentMapper) {
-        this.equipmentRepo = equipmentRepo;
+    private final SelectionResultCache resultCache;
+    private final BandTableMaterializer bandTables;
+    private final SelectionMetrics metrics;
+
+    public ConfigurationSelectionServiceImpl(CatalogService catalogService,
+                                             EquipmentMapper equipmentMapper,
+                                             SelectionResultCache resultCache,
+                                             BandTableMaterializer bandTables,
+                                             SelectionMetrics metrics) {
+        this.catalogService = catalogService;
         this.equipmentMapper = equipmentMapper;
+        this.resultCache = resultCache;
+        this.bandTables = bandTables;
+        this.metrics = metrics;
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<ConfigurationCandidateDto> selectTopConfigurations(HeatingRequestDto req,
                                                                    int topN,
                                                                    boolean includeAutomation) {
-        validate(req);
-
-        BigDecimal deltaT = req.tIn().subtract(req.tOut());
-        BigDecimal flow = new BigDecimal("0.86")
-                .multiply(req.powerKw())
-                .divide(deltaT, 6, RoundingMode.HALF_UP);
-
-        List<EquipmentRepository.BoilerBurnerPair> pairs =
-                equipmentRepo.findBoilerBurnerPairs(req.powerKw(),
-                        req.fuelType().name().toLowerCase(),
-                        PageRequest.of(0, 20));
-
-        List<ConfigurationCandidateDto> candidates = new ArrayList<>();
-
-        for (EquipmentRepository.BoilerBurnerPair pair : pairs) {
-            Integer dn = pair.getDnSize();
-            if (dn == null) {
-                continue;
-            }
-
-            Optional<Equipment> optPump = equipmentRepo.findCheapestPump(flow);
-            Optional<Equipment> optValve = equipmentRepo.findCheapestValve(dn);
-            Optional<Equipment> optFlowmeter = equipmentRepo.findCheapestFlowmeter(dn);
-
-            if (optPump.isEmpty() || optValve.isEmpty() || optFlowmeter.isEmpty()) {
-                continue;
-            }
-
-            Equipment boiler = equipmentRepo.findById(pair.getBoilerId()).orElse(null);
-            Equipment burner = equipmentRepo.findById(pair.getBurnerId()).orElse(null);
-            if (boiler == null || burner == null) {
-                continue;
-            }
-
-            List<Equipment> bundle = new ArrayList<>(5);
-            bundle.add(boiler);
-            bundle.add(burner);
-            bundle.add(optPump.get());
-            bundle.add(optValve.get());
-            bundle.add(optFlowmeter.get());
-
-            if (includeAutomation) {
-                equipmentRepo.findCheapestAutomation().ifPresent(bundle::add);
-            }
-
-            BigDecimal total = bundle.stream()
-                    .map(e -> toPrice(e.getPrice()))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+        SelectionRequests.validate(req);
+        long flowMicro = SelectionRequests.flowMicro(req);
+
+        long start = metrics.start();
+        CatalogSnapshot catalog = catalogService.snapshot();
+        List<ConfigurationCandidateDto> result = resultCache.get(catalog, req.powerKw(), flowMicro, req.fuelType(),
+                includeAutomation, topN, req.id(), () -> select(catalog, req, flowMicro, topN, includeAutomation));
+        metrics.stage(SelectionMetrics.MEMORY, "total", start);
+        return result;
+    }
 
-            int maxDeliveryDays = bundle.stream()
-                    .map(e -> e.getDeliveryDays() == null ? 0 : e.getDeliveryDays())
-                    .max(Integer::compareTo)
-                    .orElse(0);
+    private List<ConfigurationCandidateDto> select(CatalogSnapshot catalog,
+                                                   HeatingRequestDto req,
+                                                   long flowMicro,
+                                                   int topN,
+                                                   boolean includeAutomation) {
+        long start = metrics.start();
+        Optional<List<BundleSearch.Bundle>> fromBands = bandTables.tablesFor(catalog)
+                .flatMap(t -> t.lookup(catalog, req.powerKw(), flowMicro, req.fuelType(), includeAutomation, topN));
+        List<BundleSearch.Bundle> bundles;
+        if (fromBands.isPresent()) {
+            metrics.stage(SelectionMetrics.MEMORY, "bands", start);
+            bundles = fromBands.get();
+        } else {
+            start = metrics.start();
+            AccessoryLookup accessories = AccessoryLookup.forRequest(catalog, flowMicro, includeAutomation);
+            metrics.stage(SelectionMetrics.MEMORY, "accessories", start);
+            BundleSearch.Trace trace = metrics.trace();
+            bundles = BundleSearch.topN(catalog, req.powerKw(), req.fuelType(), accessories, topN, trace);
+            metrics.search(trace);
+        }
 
-            List<ConfigurationComponentDto> components = bundle.stream()
-                    .map(equipmentMapper::toComponentDto)
-                    .collect(Collectors.toList());
+        start = metrics.start();
+        Map<UUID, ConfigurationComponentDto> componentDtos = new HashMap<>();
+        List<ConfigurationCandidateDto> candidates = new ArrayList<>(bundles.size());
+        for (BundleSearch.Bundle bundle : bundles) {
+            List<ConfigurationComponentDto> components = bundle.items().stream()
+                    .map(e -> componentDtos.computeIfAbsent(e.id(), id -> equipmentMapper.toComponentDto(e)))
+                    .toList();
 
-            ConfigurationCandidateDto candidate = ConfigurationCandidateDto.builder()
-                    .requestId(req.id())
-                    .totalPrice(total)
+            candidates.add(ConfigurationCandidateDto.builder()
+                    .totalPrice(Money.rubles(bundle.totalKopecks()))
                     .currency("RUB")
-                    .maxDeliveryDays(maxDeliveryDays)
-                    .connectionKey(pair.getConnectionKey())
-                    .dnSize(pair.getDnSize())
+                    .maxDeliveryDays(bundle.maxDeliveryDays())
+                    .connectionKey(bundle.boiler().connectionKey())
+                    .dnSize(bundle.boiler().dnSize())
                     .components(components)
-                    .build();
-
-            candidates.add(candidate);
-        }
-
-        candidates.sort(Comparator
-                .comparing(ConfigurationCandidateDto::totalPrice)
-                .thenComparing(ConfigurationCandidateDto::maxDeliveryDays));
-
-        if (candidates.size() > topN) {
-            return candidates.subList(0, topN);
+                    .build());
         }
+        metrics.stage(SelectionMetrics.MEMORY, "mapping", start);
+        metrics.candidates(SelectionMetrics.MEMORY, candidates.size());
         return candidates;
     }
-
-    private void validate(HeatingRequestDto req) {
-        if (req.powerKw() == null || req.powerKw().compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("power_kw должен быть > 0");
-        }
-        if (req.tIn() == null || req.tOut() == null) {
-            throw new IllegalArgumentException("t_in и t_out обязательны");
-        }
-        if (req.tIn().compareTo(req.tOut()) <= 0) {
-            throw new IllegalArgumentException("t_in должен быть больше t_out");
-        }
-        if (req.fuelType() == null) {
-            throw new IllegalArgumentException("fuel_type обязателен");
-        }
-    }
-
-    private BigDecimal toPrice(BigDecimal p) {
-        return p == null ? BigDecimal.ZERO : p;
-    }
-}
\ No newline at end of file
+}
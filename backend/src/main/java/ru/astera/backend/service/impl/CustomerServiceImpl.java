@@ -3,6 +3,7 @@ package ru.astera.backend.service.impl;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -12,6 +13,8 @@ import ru.astera.backend.dto.admin.CustomerCreateDto;
 import ru.astera.backend.dto.admin.CustomerDto;
 import ru.astera.backend.dto.admin.CustomerPageDto;
 import ru.astera.backend.dto.admin.CustomerUpdateDto;
+import ru.astera.backend.dto.common.KeysetPageDto;
+import ru.astera.backend.dto.common.PageTotal;
 import ru.astera.backend.dto.registration.CustomerRegistrationDto;
 import ru.astera.backend.entity.CustomerProfile;
 import ru.astera.backend.entity.User;
@@ -19,10 +22,14 @@ import ru.astera.backend.exception.CustomerAlreadyExistsException;
 import ru.astera.backend.exception.CustomerNotFoundException;
 import ru.astera.backend.exception.UserAlreadyExistsException;
 import ru.astera.backend.repository.CustomerProfileRepository;
+import ru.astera.backend.repository.TableStatsRepository;
 import ru.astera.backend.repository.UserRepository;
+import ru.astera.backend.security.UserAccessRevokedEvent;
 import ru.astera.backend.service.CustomerService;
 import ru.astera.backend.service.UserService;
+import ru.astera.backend.support.Keyset;
 
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -33,6 +40,8 @@ public class CustomerServiceImpl implements CustomerService {
     private final CustomerProfileRepository profileRepository;
     private final UserRepository userRepository;
     private final ObjectMapper objectMapper;
+    private final TableStatsRepository tableStats;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -59,7 +68,7 @@ public class CustomerServiceImpl implements CustomerService {
     @Override
     public CustomerPageDto getCustomersWithPagination(int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<CustomerProfile> customerPage = profileRepository.findAllCustomersWithUsers(pageable);
+        Page<CustomerProfileRepository.CustomerRow> customerPage = profileRepository.findCustomerRows(pageable);
 
         CustomerPageDto result = new CustomerPageDto();
         result.setCustomers(customerPage.getContent().stream()
@@ -73,11 +82,31 @@ public class CustomerServiceImpl implements CustomerService {
         return result;
     }
 
+    @Override
+    public KeysetPageDto<CustomerDto> getCustomersKeyset(String cursor, int size, PageTotal total) {
+        Keyset.checkPageSize(size);
+        Pageable limit = Pageable.ofSize(size + 1);
+        List<CustomerProfileRepository.CustomerRow> rows;
+        if (cursor == null) {
+            rows = profileRepository.findKeysetFirst(limit);
+        } else {
+            Keyset.CreatedAtId key = Keyset.CreatedAtId.parse(cursor);
+            rows = profileRepository.findKeysetAfter(key.createdAt(), key.id(), limit);
+        }
+
+        KeysetPageDto<CustomerDto> result = Keyset.page(rows, size,
+                row -> new Keyset.CreatedAtId(row.getCreatedAt(), row.getId()).cursor(),
+                this::mapToDto);
+        Keyset.total(result, total, profileRepository::countCustomers,
+                () -> tableStats.estimateRows("customer_profiles"));
+        return result;
+    }
+
     @Override
     public CustomerDto getCustomerById(UUID customerId) {
-        CustomerProfile profile = profileRepository.findById(customerId)
+        return profileRepository.findCustomerRowById(customerId)
+                .map(this::mapToDto)
                 .orElseThrow(() -> new CustomerNotFoundException("Клиент не найден"));
-        return mapToDto(profile);
     }
 
     @Override
@@ -99,6 +128,7 @@ public class CustomerServiceImpl implements CustomerService {
             throw new UserAlreadyExistsException("Пользователь с таким email уже существует");
         }
 
+        boolean deactivated = Boolean.TRUE.equals(user.getIsActive()) && !Boolean.TRUE.equals(dto.getIsActive());
         user.setEmail(dto.getEmail());
         user.setFullName(dto.getFullName());
         user.setIsActive(dto.getIsActive());
@@ -108,6 +138,9 @@ public class CustomerServiceImpl implements CustomerService {
 
         userRepository.save(user);
         profile = profileRepository.save(profile);
+        if (deactivated) {
+            eventPublisher.publishEvent(new UserAccessRevokedEvent(user.getId()));
+        }
 
         return mapToDto(profile);
     }
@@ -121,6 +154,19 @@ public class CustomerServiceImpl implements CustomerService {
         User user = profile.getUser();
         profileRepository.delete(profile);
         userRepository.delete(user);
+        eventPublisher.publishEvent(new UserAccessRevokedEvent(user.getId()));
+    }
+
+    private CustomerDto mapToDto(CustomerProfileRepository.CustomerRow row) {
+        CustomerDto dto = new CustomerDto();
+        dto.setId(row.getId());
+        dto.setEmail(row.getEmail());
+        dto.setFullName(row.getFullName());
+        dto.setPhone(row.getPhone());
+        dto.setOrganization(row.getOrganization());
+        dto.setIsActive(row.getIsActive());
+        dto.setCreatedAt(row.getCreatedAt());
+        return dto;
     }
 
     private CustomerDto mapToDto(CustomerProfile profile) {
@@ -0,0 +1,211 @@
+package ru.astera.backend.service.impl;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.astera.backend.dto.admin.EquipmentCreateDto;
+import ru.astera.backend.entity.EquipmentCategory;
+import ru.astera.backend.entity.FuelType;
+import ru.astera.backend.support.CsvReader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Потоковое чтение строк импорта каталога из CSV и JSON/NDJSON.
+ * Ошибка разбора строки не прерывает импорт: строка возвращается с текстом ошибки.
+ */
+final class EquipmentImportRows {
+
+    private static final Map<String, BiConsumer<EquipmentCreateDto, String>> CSV_COLUMNS = new LinkedHashMap<>();
+    private static final Set<String> REQUIRED_COLUMNS = Set.of("category", "brand", "model", "price");
+
+    static {
+        CSV_COLUMNS.put("category", (d, v) -> d.setCategory(parseEnum(EquipmentCategory.class, v)));
+        CSV_COLUMNS.put("brand", EquipmentCreateDto::setBrand);
+        CSV_COLUMNS.put("model", EquipmentCreateDto::setModel);
+        CSV_COLUMNS.put("active", (d, v) -> d.setActive(v == null ? Boolean.TRUE : parseBoolean(v)));
+        CSV_COLUMNS.put("powerminkw", (d, v) -> d.setPowerMinKw(parseDecimal(v)));
+        CSV_COLUMNS.put("powermaxkw", (d, v) -> d.setPowerMaxKw(parseDecimal(v)));
+        CSV_COLUMNS.put("flowminm3h", (d, v) -> d.setFlowMinM3h(parseDecimal(v)));
+        CSV_COLUMNS.put("flowmaxm3h", (d, v) -> d.setFlowMaxM3h(parseDecimal(v)));
+        CSV_COLUMNS.put("dnsize", (d, v) -> d.setDnSize(parseInt(v)));
+        CSV_COLUMNS.put("fueltype", (d, v) -> d.setFuelType(parseEnum(FuelType.class, v)));
+        CSV_COLUMNS.put("connectionkey", EquipmentCreateDto::setConnectionKey);
+        CSV_COLUMNS.put("price", (d, v) -> d.setPrice(parseDecimal(v)));
+        CSV_COLUMNS.put("deliverydays", (d, v) -> d.setDeliveryDays(parseInt(v)));
+    }
+
+    private EquipmentImportRows() {
+    }
+
+    /**
+     * Строка файла: номер (с 1, без заголовка CSV) и либо данные, либо ошибка разбора.
+     */
+    record Row(int number, EquipmentCreateDto dto, String error) {
+    }
+
+    interface Source extends Closeable {
+        /**
+         * Следующая строка или {@code null} в конце файла.
+         */
+        Row next() throws IOException;
+    }
+
+    /**
+     * CSV с заголовком; имена колонок — как в JSON ({@code powerMinKw}) или в таблице
+     * ({@code power_min_kw}). Пустое значение — {@code null}.
+     */
+    static Source csv(Reader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV is empty: header row expected");
+        }
+        List<BiConsumer<EquipmentCreateDto, String>> setters = new ArrayList<>(header.size());
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = normalize(header.get(i), i == 0);
+            BiConsumer<EquipmentCreateDto, String> setter = CSV_COLUMNS.get(name);
+            if (setter == null) {
+                throw new IllegalArgumentException("Unknown CSV column: " + header.get(i));
+            }
+            seen.add(name);
+            setters.add(setter);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!seen.contains(required)) {
+                throw new IllegalArgumentException("Required CSV column is missing: " + required);
+            }
+        }
+
+        return new Source() {
+            private int number;
+
+            @Override
+            public Row next() throws IOException {
+                List<String> fields = csv.next();
+                if (fields == null) {
+                    return null;
+                }
+                number++;
+                if (fields.size() != setters.size()) {
+                    return new Row(number, null,
+                            "expected " + setters.size() + " fields, got " + fields.size());
+                }
+                EquipmentCreateDto dto = new EquipmentCreateDto();
+                List<String> errors = new ArrayList<>();
+                for (int i = 0; i < fields.size(); i++) {
+                    try {
+                        setters.get(i).accept(dto, fields.get(i));
+                    } catch (IllegalArgumentException e) {
+                        errors.add(header.get(i).strip() + ": " + e.getMessage());
+                    }
+                }
+                return errors.isEmpty() ? new Row(number, dto, null) : new Row(number, null, String.join("; ", errors));
+            }
+
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+
+    /**
+     * JSON-массив объектов или NDJSON (по объекту в строке) в формате {@link EquipmentCreateDto}.
+     * После ошибки в значении разбор продолжается со следующего объекта; синтаксическая
+     * ошибка JSON завершает чтение.
+     */
+    static Source json(InputStream in, ObjectMapper objectMapper) throws IOException {
+        MappingIterator<EquipmentCreateDto> values =
+                objectMapper.readerFor(EquipmentCreateDto.class).readValues(in);
+
+        return new Source() {
+            private int number;
+            private boolean broken;
+
+            @Override
+            public Row next() throws IOException {
+                if (broken) {
+                    return null;
+                }
+                try {
+                    if (!values.hasNextValue()) {
+                        return null;
+                    }
+                    number++;
+                    return new Row(number, values.nextValue(), null);
+                } catch (JsonParseException e) {
+                    broken = true;
+                    return new Row(number + 1, null, "malformed JSON, import stopped: " + e.getOriginalMessage());
+                } catch (JsonMappingException e) {
+                    return new Row(number, null, e.getOriginalMessage());
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                values.close();
+            }
+        };
+    }
+
+    private static String normalize(String column, boolean first) {
+        String name = first && column.startsWith("\uFEFF") ? column.substring(1) : column;
+        return name.strip().replace("_", "").replace("-", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.strip().toLowerCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown value '" + value + "'");
+        }
+    }
+
+    private static Boolean parseBoolean(String value) {
+        return switch (value.strip().toLowerCase(Locale.ROOT)) {
+            case "true", "1", "yes" -> Boolean.TRUE;
+            case "false", "0", "no" -> Boolean.FALSE;
+            default -> throw new IllegalArgumentException("not a boolean: '" + value + "'");
+        };
+    }
+
+    private static BigDecimal parseDecimal(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.strip().replace(',', '.'));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("not a number: '" + value + "'");
+        }
+    }
+
+    private static Integer parseInt(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("not an integer: '" + value + "'");
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package ru.astera.backend.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.astera.backend.catalog.EquipmentChangedEvent;
+import ru.astera.backend.dto.admin.EquipmentCreateDto;
+import ru.astera.backend.dto.admin.EquipmentImportResultDto;
+import ru.astera.backend.service.EquipmentImportService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Импорт каталога без загрузки файла в память: строки читаются из тела запроса,
+ * проверяются и сразу уходят через {@code COPY} во временную таблицу, откуда одним
+ * {@code INSERT ... ON CONFLICT (brand, model)} попадают в {@code equipment}.
+ * Построчные NOTIFY триггера на время импорта выключены, вместо них — одно
+ * уведомление о полной перезагрузке каталога.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EquipmentImportServiceImpl implements EquipmentImportService {
+
+    static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int COPY_CHUNK_BYTES = 64 * 1024;
+    private static final String RELOAD_PAYLOAD = "{\"operation\":\"RELOAD\"}";
+
+    private static final String CREATE_STAGING = """
+            CREATE TEMP TABLE equipment_import
+            (
+                row_no         INT                NOT NULL,
+                category       equipment_category NOT NULL,
+                brand          TEXT               NOT NULL,
+                model          TEXT               NOT NULL,
+                active         BOOLEAN            NOT NULL,
+                power_min_kw   NUMERIC(10, 2),
+                power_max_kw   NUMERIC(10, 2),
+                flow_min_m3h   NUMERIC(10, 3),
+                flow_max_m3h   NUMERIC(10, 3),
+                dn_size        INT,
+                fuel_type      TEXT,
+                connection_key TEXT,
+                price          NUMERIC(14, 2)     NOT NULL,
+                delivery_days  INT
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_STAGING = """
+            COPY equipment_import (row_no, category, brand, model, active, power_min_kw, power_max_kw,
+                                   flow_min_m3h, flow_max_m3h, dn_size, fuel_type, connection_key,
+                                   price, delivery_days)
+                FROM STDIN WITH (FORMAT csv)
+            """;
+
+    /**
+     * Из повторов (brand, model) в файле побеждает последняя строка: ON CONFLICT
+     * не может обновить одну строку дважды за команду.
+     */
+    private static final String UPSERT = """
+            WITH latest AS (SELECT DISTINCT ON (brand, model) *
+                            FROM equipment_import
+                            ORDER BY brand, model, row_no DESC),
+                 upserted AS (
+                     INSERT INTO equipment (id, category, brand, model, active, power_min_kw, power_max_kw,
+                                            flow_min_m3h, flow_max_m3h, dn_size, fuel_type, connection_key,
+                                            price, delivery_days)
+                         SELECT gen_random_uuid(), category, brand, model, active, power_min_kw, power_max_kw,
+                                flow_min_m3h, flow_max_m3h, dn_size, fuel_type, connection_key,
+                                price, delivery_days
+                         FROM latest
+                         ON CONFLICT (brand, model) DO UPDATE
+                             SET category = EXCLUDED.category,
+                                 active = EXCLUDED.active,
+                                 power_min_kw = EXCLUDED.power_min_kw,
+                                 power_max_kw = EXCLUDED.power_max_kw,
+                                 flow_min_m3h = EXCLUDED.flow_min_m3h,
+                                 flow_max_m3h = EXCLUDED.flow_max_m3h,
+                                 dn_size = EXCLUDED.dn_size,
+                                 fuel_type = EXCLUDED.fuel_type,
+                                 connection_key = EXCLUDED.connection_key,
+                                 price = EXCLUDED.price,
+                                 delivery_days = EXCLUDED.delivery_days
+                         RETURNING (xmax = 0) AS inserted)
+            SELECT count(*) FILTER (WHERE inserted)     AS inserted,
+                   count(*) FILTER (WHERE NOT inserted) AS updated
+            FROM upserted
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public EquipmentImportResultDto importEquipment(InputStream body, MediaType contentType) {
+        jdbcTemplate.execute(CREATE_STAGING);
+        jdbcTemplate.execute("SET LOCAL astera.suppress_notify = 'on'");
+
+        Report report = new Report();
+        long staged = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            CopyIn copy = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING);
+            try (EquipmentImportRows.Source rows = open(body, contentType)) {
+                return copy(rows, copy, report);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                if (copy.isActive()) {
+                    copy.cancelCopy();
+                }
+            }
+        });
+
+        Map<String, Object> counts = jdbcTemplate.queryForMap(UPSERT);
+        int inserted = ((Number) counts.get("inserted")).intValue();
+        int updated = ((Number) counts.get("updated")).intValue();
+        if (inserted + updated > 0) {
+            jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", "equipment_changes", RELOAD_PAYLOAD);
+            eventPublisher.publishEvent(EquipmentChangedEvent.reload());
+        }
+        log.info("Equipment import: {} rows, {} inserted, {} updated, {} rejected",
+                report.total, inserted, updated, report.rejected);
+
+        EquipmentImportResultDto result = new EquipmentImportResultDto();
+        result.setTotalRows(report.total);
+        result.setInserted(inserted);
+        result.setUpdated(updated);
+        result.setDuplicates((int) staged - inserted - updated);
+        result.setRejected(report.rejected);
+        result.setErrors(report.errors);
+        result.setErrorsTruncated(report.rejected > report.errors.size());
+        return result;
+    }
+
+    private EquipmentImportRows.Source open(InputStream body, MediaType contentType) throws IOException {
+        if (TEXT_CSV.isCompatibleWith(contentType)) {
+            Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+            return EquipmentImportRows.csv(new InputStreamReader(body, charset));
+        }
+        if (MediaType.APPLICATION_JSON.isCompatibleWith(contentType) || APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            return EquipmentImportRows.json(body, objectMapper);
+        }
+        throw new IllegalArgumentException("Unsupported import format: " + contentType);
+    }
+
+    /**
+     * Прокачивает строки в COPY порциями; возвращает число записанных строк.
+     */
+    private long copy(EquipmentImportRows.Source rows, CopyIn copy, Report report)
+            throws IOException, SQLException {
+        ByteArrayOutputStream chunk = new ByteArrayOutputStream(COPY_CHUNK_BYTES + 1024);
+        StringBuilder line = new StringBuilder(256);
+        EquipmentImportRows.Row row;
+        while ((row = rows.next()) != null) {
+            report.total++;
+            String error = row.error() != null ? row.error()
+                    : row.dto() == null ? "empty row" : validate(row.dto());
+            if (error != null) {
+                report.reject(row.number(), error);
+                continue;
+            }
+            line.setLength(0);
+            appendCsv(line, row.number(), row.dto());
+            chunk.writeBytes(line.toString().getBytes(StandardCharsets.UTF_8));
+            if (chunk.size() >= COPY_CHUNK_BYTES) {
+                copy.writeToCopy(chunk.toByteArray(), 0, chunk.size());
+                chunk.reset();
+            }
+        }
+        if (chunk.size() > 0) {
+            copy.writeToCopy(chunk.toByteArray(), 0, chunk.size());
+        }
+        return copy.endCopy();
+    }
+
+    /**
+     * Аннотации {@link EquipmentCreateDto} плюс ограничения таблицы: chk_power_range,
+     * chk_flow_range и разрядность NUMERIC, чтобы ни одна строка не уронила COPY.
+     */
+    String validate(EquipmentCreateDto dto) {
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<EquipmentCreateDto> v : validator.validate(dto)) {
+            errors.add(v.getPropertyPath() + ": " + v.getMessage());
+        }
+        checkRange(errors, "power", dto.getPowerMinKw(), dto.getPowerMaxKw());
+        checkRange(errors, "flow", dto.getFlowMinM3h(), dto.getFlowMaxM3h());
+        checkDigits(errors, "powerMinKw", dto.getPowerMinKw(), 8);
+        checkDigits(errors, "powerMaxKw", dto.getPowerMaxKw(), 8);
+        checkDigits(errors, "flowMinM3h", dto.getFlowMinM3h(), 7);
+        checkDigits(errors, "flowMaxM3h", dto.getFlowMaxM3h(), 7);
+        checkDigits(errors, "price", dto.getPrice(), 12);
+        if (dto.getActive() == null) {
+            dto.setActive(true);
+        }
+        if (errors.isEmpty()) {
+            return null;
+        }
+        errors.sort(null);
+        return String.join("; ", errors);
+    }
+
+    private static void checkRange(List<String> errors, String name, BigDecimal min, BigDecimal max) {
+        if ((min == null) != (max == null)) {
+            errors.add(name + ": min and max must be both set or both empty");
+        } else if (min != null && min.compareTo(max) > 0) {
+            errors.add(name + ": min must not exceed max");
+        }
+    }
+
+    private static void checkDigits(List<String> errors, String name, BigDecimal value, int integerDigits) {
+        if (value != null && value.precision() - value.scale() > integerDigits) {
+            errors.add(name + ": too large");
+        }
+    }
+
+    private static void appendCsv(StringBuilder line, int rowNo, EquipmentCreateDto dto) {
+        line.append(rowNo).append(',');
+        line.append(dto.getCategory().name()).append(',');
+        appendText(line, dto.getBrand());
+        line.append(',');
+        appendText(line, dto.getModel());
+        line.append(',').append(dto.getActive()).append(',');
+        appendNumber(line, dto.getPowerMinKw());
+        line.append(',');
+        appendNumber(line, dto.getPowerMaxKw());
+        line.append(',');
+        appendNumber(line, dto.getFlowMinM3h());
+        line.append(',');
+        appendNumber(line, dto.getFlowMaxM3h());
+        line.append(',');
+        if (dto.getDnSize() != null) {
+            line.append(dto.getDnSize());
+        }
+        line.append(',');
+        if (dto.getFuelType() != null) {
+            line.append(dto.getFuelType().name());
+        }
+        line.append(',');
+        appendText(line, dto.getConnectionKey());
+        line.append(',');
+        appendNumber(line, dto.getPrice());
+        line.append(',');
+        if (dto.getDeliveryDays() != null) {
+            line.append(dto.getDeliveryDays());
+        }
+        line.append('\n');
+    }
+
+    /**
+     * В COPY csv пустое поле без кавычек — NULL, поэтому строки всегда в кавычках.
+     */
+    private static void appendText(StringBuilder line, String value) {
+        if (value == null) {
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    private static void appendNumber(StringBuilder line, BigDecimal value) {
+        if (value != null) {
+            line.append(value.toPlainString());
+        }
+    }
+
+    private static final class Report {
+        private final List<EquipmentImportResultDto.RowError> errors = new ArrayList<>();
+        private int total;
+        private int rejected;
+
+        void reject(int row, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new EquipmentImportResultDto.RowError(row, message));
+            }
+        }
+    }
+}
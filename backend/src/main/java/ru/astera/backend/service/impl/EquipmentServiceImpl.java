@@ -1,24 +1,45 @@
 package ru.astera.backend.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.astera.backend.catalog.EquipmentChangedEvent;
 import ru.astera.backend.dto.admin.EquipmentCreateDto;
 import ru.astera.backend.dto.admin.EquipmentDto;
+import ru.astera.backend.dto.admin.EquipmentExportFormat;
 import ru.astera.backend.dto.admin.EquipmentPageDto;
 import ru.astera.backend.dto.admin.EquipmentUpdateDto;
+import ru.astera.backend.dto.common.KeysetPageDto;
+import ru.astera.backend.dto.common.PageTotal;
 import ru.astera.backend.entity.Equipment;
+import ru.astera.backend.entity.EquipmentCategory;
 import ru.astera.backend.exception.EquipmentNotFoundException;
 import ru.astera.backend.repository.EquipmentRepository;
+import ru.astera.backend.repository.TableStatsRepository;
 import ru.astera.backend.service.EquipmentService;
-
+import ru.astera.backend.support.CsvWriter;
+import ru.astera.backend.support.Keyset;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -26,6 +47,10 @@ import java.util.UUID;
 public class EquipmentServiceImpl implements EquipmentService {
 
     private final EquipmentRepository equipmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TableStatsRepository tableStats;
 
     @Override
     @Transactional(readOnly = true)
@@ -47,6 +72,26 @@ public class EquipmentServiceImpl implements EquipmentService {
         return result;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPageDto<EquipmentDto> getEquipmentKeyset(String cursor, int size, PageTotal total) {
+        Keyset.checkPageSize(size);
+        Pageable limit = Pageable.ofSize(size + 1);
+        List<Equipment> rows;
+        if (cursor == null) {
+            rows = equipmentRepository.findKeysetFirst(limit);
+        } else {
+            List<String> key = Keyset.decode(cursor, 3);
+            rows = equipmentRepository.findKeysetAfter(EquipmentCategory.valueOf(key.get(0)), key.get(1), key.get(2), limit);
+        }
+
+        KeysetPageDto<EquipmentDto> result = Keyset.page(rows, size,
+                e -> Keyset.encode(e.getCategory().name(), e.getBrand(), e.getModel()),
+                this::convertToDto);
+        Keyset.total(result, total, equipmentRepository::count, () -> tableStats.estimateRows("equipment"));
+        return result;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public EquipmentDto getEquipmentById(UUID id) {
@@ -61,6 +106,7 @@ public class EquipmentServiceImpl implements EquipmentService {
         Equipment equipment = convertFromCreateDto(dto);
         Equipment savedEquipment = equipmentRepository.save(equipment);
         log.info("Created equipment: {} {} with id: {}", savedEquipment.getBrand(), savedEquipment.getModel(), savedEquipment.getId());
+        eventPublisher.publishEvent(EquipmentChangedEvent.inserted(savedEquipment));
         return convertToDto(savedEquipment);
     }
 
@@ -70,9 +116,11 @@ public class EquipmentServiceImpl implements EquipmentService {
         Equipment equipment = equipmentRepository.findById(id)
                 .orElseThrow(() -> new EquipmentNotFoundException("Equipment not found with id: " + id));
 
+        Map<String, Object> before = EquipmentChangedEvent.columns(equipment);
         updateEquipmentFromDto(equipment, dto);
         Equipment updatedEquipment = equipmentRepository.save(equipment);
         log.info("Updated equipment: {} {} with id: {}", updatedEquipment.getBrand(), updatedEquipment.getModel(), updatedEquipment.getId());
+        eventPublisher.publishEvent(EquipmentChangedEvent.updated(before, updatedEquipment));
         return convertToDto(updatedEquipment);
     }
 
@@ -84,6 +132,42 @@ public class EquipmentServiceImpl implements EquipmentService {
 
         equipmentRepository.delete(equipment);
         log.info("Deleted equipment: {} {} with id: {}", equipment.getBrand(), equipment.getModel(), equipment.getId());
+        eventPublisher.publishEvent(EquipmentChangedEvent.deleted(equipment));
+    }
+
+    /**
+     * Строки идут курсором и сразу отсоединяются от контекста после записи, поэтому
+     * память не растёт с размером каталога. CSV — в колонках импорта, без id.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportEquipment(EquipmentExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        ObjectWriter json = objectMapper.writerFor(EquipmentDto.class);
+        CsvWriter csv = new CsvWriter(writer);
+        if (format == EquipmentExportFormat.csv) {
+            csv.writeRecord("category", "brand", "model", "active", "powerMinKw", "powerMaxKw",
+                    "flowMinM3h", "flowMaxM3h", "dnSize", "fuelType", "connectionKey", "price", "deliveryDays");
+        }
+
+        long rows = 0;
+        try (Stream<Equipment> equipment = equipmentRepository.streamAllByBrandAndModel()) {
+            for (Iterator<Equipment> it = equipment.iterator(); it.hasNext(); ) {
+                Equipment e = it.next();
+                if (format == EquipmentExportFormat.csv) {
+                    csv.writeRecord(e.getCategory(), e.getBrand(), e.getModel(), e.isActive(),
+                            e.getPowerMinKw(), e.getPowerMaxKw(), e.getFlowMinM3h(), e.getFlowMaxM3h(),
+                            e.getDnSize(), e.getFuelType(), e.getConnectionKey(), e.getPrice(), e.getDeliveryDays());
+                } else {
+                    writer.write(json.writeValueAsString(convertToDto(e)));
+                    writer.write('\n');
+                }
+                entityManager.detach(e);
+                rows++;
+            }
+        }
+        writer.flush();
+        log.info("Exported {} equipment rows as {}", rows, format);
     }
 
     private EquipmentDto convertToDto(Equipment equipment) {
@@ -0,0 +1,206 @@
+package ru.astera.backend.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.astera.backend.dto.selection.ConfigurationCandidateDto;
+import ru.astera.backend.dto.selection.GenerationJobDto;
+import ru.astera.backend.dto.selection.GenerationJobStatus;
+import ru.astera.backend.entity.HeatingRequestStatus;
+import ru.astera.backend.exception.ServiceBusyException;
+import ru.astera.backend.repository.HeatingRequestRepository;
+import ru.astera.backend.service.CandidateGenerationService;
+import ru.astera.backend.service.GenerationJobService;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Фоновая генерация кандидатов на ограниченном пуле: поток Tomcat только ставит задачу.
+ * Очередь ограничена ({@code app.generation.async.queue-capacity}), сверх неё — отказ
+ * с 429. Повторная постановка с теми же {@code topN} и {@code includeAutomation}, пока задача
+ * идёт, возвращает её же. Успешная задача переводит запрос из {@code created} в {@code proposed}.
+ * Задачи живут в памяти узла; завершённые удаляются через {@code retention} по таймеру,
+ * даже если новых задач не ставят. Клиент видит текст ошибки только для неверного запроса,
+ * отсутствующих данных и перегрузки, прочие сбои — как {@value #GENERATION_FAILED}.
+ */
+@Service
+@Slf4j
+public class GenerationJobServiceImpl implements GenerationJobService {
+
+    static final String GENERATION_FAILED = "generation failed";
+
+    private final CandidateGenerationService generationService;
+    private final HeatingRequestRepository requestRepo;
+    private final ThreadPoolExecutor executor;
+
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+    private final Cache<UUID, Job> finished;
+    private final Map<JobKey, Job> active = new ConcurrentHashMap<>();
+
+    public GenerationJobServiceImpl(CandidateGenerationService generationService,
+                                    HeatingRequestRepository requestRepo,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.generation.async.threads:4}") int threads,
+                                    @Value("${app.generation.async.queue-capacity:100}") int queueCapacity,
+                                    @Value("${app.generation.async.retention:15m}") Duration retention) {
+        this.generationService = generationService;
+        this.requestRepo = requestRepo;
+        this.finished = Caffeine.newBuilder()
+                .expireAfterWrite(retention)
+                .scheduler(Scheduler.systemScheduler())
+                .build();
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "generation-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        Gauge.builder("astera.generation.queue", executor, e -> e.getQueue().size())
+                .description("Задачи генерации, ожидающие свободного потока")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public GenerationJobDto submit(UUID requestId, int topN, boolean includeAutomation) {
+        if (!requestRepo.existsById(requestId)) {
+            throw new NoSuchElementException("HeatingRequest not found: " + requestId);
+        }
+        Job created = new Job(new JobKey(requestId, topN, includeAutomation));
+        Job job = active.putIfAbsent(created.key, created);
+        if (job != null) {
+            return job.toDto();
+        }
+        jobs.put(created.id, created);
+        try {
+            executor.execute(() -> run(created));
+        } catch (RejectedExecutionException e) {
+            active.remove(created.key, created);
+            jobs.remove(created.id);
+            throw new ServiceBusyException("Candidate generation queue is full, retry later");
+        }
+        return created.toDto();
+    }
+
+    @Override
+    public GenerationJobDto get(UUID jobId) {
+        return job(jobId).toDto();
+    }
+
+    @Override
+    public CompletableFuture<GenerationJobDto> completion(UUID jobId) {
+        return job(jobId).completion;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(Job job) {
+        job.status = GenerationJobStatus.running;
+        JobKey key = job.key;
+        try {
+            List<ConfigurationCandidateDto> candidates =
+                    generationService.generateIfAbsent(key.requestId(), key.topN(), key.includeAutomation());
+            // выбранный ранее (selected) запрос свой статус не меняет
+            requestRepo.advanceStatus(key.requestId(), HeatingRequestStatus.created, HeatingRequestStatus.proposed);
+            complete(job, candidates, null);
+        } catch (Exception e) {
+            log.warn("Candidate generation failed for request {}", key.requestId(), e);
+            complete(job, null, publicError(e));
+        } finally {
+            active.remove(key, job);
+        }
+    }
+
+    /**
+     * Текст ошибки для клиента: сообщения исключений доступа к данным и прочих сбоев
+     * (SQL, имена ограничений) наружу не отдаются — они есть в логе.
+     */
+    private static String publicError(Exception e) {
+        boolean clientError = e instanceof IllegalArgumentException
+                || e instanceof NoSuchElementException
+                || e instanceof ServiceBusyException;
+        return clientError && e.getMessage() != null ? e.getMessage() : GENERATION_FAILED;
+    }
+
+    private void complete(Job job, List<ConfigurationCandidateDto> candidates, String error) {
+        job.finish(candidates, error);
+        // сначала в кэш завершённых, потом из активных: get() видит задачу в одном из них
+        finished.put(job.id, job);
+        jobs.remove(job.id);
+    }
+
+    private Job job(UUID jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            job = finished.getIfPresent(jobId);
+        }
+        if (job == null) {
+            throw new NoSuchElementException("Generation job not found: " + jobId);
+        }
+        return job;
+    }
+
+    private record JobKey(UUID requestId, int topN, boolean includeAutomation) {
+    }
+
+    private static final class Job {
+
+        private final UUID id = UUID.randomUUID();
+        private final JobKey key;
+        private final UUID requestId;
+        private final OffsetDateTime createdAt = OffsetDateTime.now();
+        private final CompletableFuture<GenerationJobDto> completion = new CompletableFuture<>();
+
+        private volatile GenerationJobStatus status = GenerationJobStatus.pending;
+        private volatile List<ConfigurationCandidateDto> candidates;
+        private volatile String error;
+        private volatile OffsetDateTime finishedAt;
+
+        Job(JobKey key) {
+            this.key = key;
+            this.requestId = key.requestId();
+        }
+
+        void finish(List<ConfigurationCandidateDto> candidates, String error) {
+            this.candidates = candidates;
+            this.error = error;
+            this.finishedAt = OffsetDateTime.now();
+            this.status = error == null ? GenerationJobStatus.done : GenerationJobStatus.failed;
+            completion.complete(toDto());
+        }
+
+        GenerationJobDto toDto() {
+            return GenerationJobDto.builder()
+                    .id(id)
+                    .requestId(requestId)
+                    .status(status)
+                    .candidates(candidates)
+                    .error(error)
+                    .createdAt(createdAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+}
@@ -5,6 +5,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.astera.backend.dto.common.KeysetPageDto;
+import ru.astera.backend.dto.common.PageTotal;
 import ru.astera.backend.dto.selection.HeatingRequestCreateDto;
 import ru.astera.backend.dto.selection.HeatingRequestDto;
 import ru.astera.backend.dto.selection.HeatingRequestUpdateDto;
@@ -13,9 +15,12 @@ import ru.astera.backend.entity.HeatingRequest;
 import ru.astera.backend.entity.HeatingRequestStatus;
 import ru.astera.backend.mapper.HeatingRequestMapper;
 import ru.astera.backend.repository.HeatingRequestRepository;
+import ru.astera.backend.repository.TableStatsRepository;
 import ru.astera.backend.service.HeatingRequestService;
+import ru.astera.backend.support.Keyset;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.UUID;
 
@@ -26,6 +31,7 @@ public class HeatingRequestServiceImpl implements HeatingRequestService {
     private final HeatingRequestRepository repo;
     private final HeatingRequestMapper mapper;
     private final CustomerServiceImpl customerService;
+    private final TableStatsRepository tableStats;
 
     @Transactional
     @Override
@@ -53,6 +59,32 @@ public class HeatingRequestServiceImpl implements HeatingRequestService {
         return repo.search(customerId, status, fuelType, pageable).map(mapper::toDto);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public KeysetPageDto<HeatingRequestDto> listKeyset(UUID customerId,
+                                                       HeatingRequestStatus status,
+                                                       FuelType fuelType,
+                                                       String cursor,
+                                                       int size,
+                                                       PageTotal total) {
+        Keyset.checkPageSize(size);
+        Pageable limit = Pageable.ofSize(size + 1);
+        List<HeatingRequest> rows;
+        if (cursor == null) {
+            rows = repo.searchKeysetFirst(customerId, status, fuelType, limit);
+        } else {
+            Keyset.CreatedAtId key = Keyset.CreatedAtId.parse(cursor);
+            rows = repo.searchKeysetAfter(customerId, status, fuelType, key.createdAt(), key.id(), limit);
+        }
+
+        KeysetPageDto<HeatingRequestDto> result = Keyset.page(rows, size,
+                r -> new Keyset.CreatedAtId(r.getCreatedAt(), r.getId()).cursor(),
+                mapper::toDto);
+        Keyset.total(result, total, () -> repo.countSearch(customerId, status, fuelType),
+                () -> tableStats.estimateRows("heating_requests"));
+        return result;
+    }
+
     @Transactional
     @Override
     public HeatingRequestDto updateParams(UUID id, HeatingRequestUpdateDto dto) {
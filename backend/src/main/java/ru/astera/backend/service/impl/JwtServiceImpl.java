@@ -1,11 +1,14 @@
 package ru.astera.backend.service.impl;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import ru.astera.backend.security.JwtPrincipal;
 import ru.astera.backend.service.JwtService;
 
 import java.nio.charset.StandardCharsets;
@@ -13,24 +16,30 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Function;
 
+/**
+ * Выпуск и проверка JWT (HS256). Ключ и {@link JwtParser} неизменяемы и строятся
+ * один раз при старте: на каждом запросе остаётся только разбор и проверка подписи.
+ */
 @Service
 public class JwtServiceImpl implements JwtService {
 
-    @Value("${app.jwt.secret:change-this-to-32B-or-more}")
-    private String secret;
+    private final long expiration;
+    private final Key signingKey;
+    private final JwtParser parser;
 
-    @Value("${app.jwt.expiration:86400000}")
-    private Long expiration;
-
-    private Key getSigningKey() {
+    public JwtServiceImpl(@Value("${app.jwt.secret:change-this-to-32B-or-more}") String secret,
+                          @Value("${app.jwt.expiration:86400000}") long expiration) {
+        this.expiration = expiration;
         // ВАЖНО: для HS256 нужен ключ >= 256 бит (32 байта).
-        // Если secret храните в base64, раскомментируйте следующее:
-        // byte[] keyBytes = Decoders.BASE64.decode(secret);
-        // return Keys.hmacShaKeyFor(keyBytes);
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        // Если secret храните в base64, используйте Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)).
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
     @Override
@@ -48,10 +57,29 @@ public class JwtServiceImpl implements JwtService {
                 .setSubject(subject)
                 .setIssuedAt(new Date(now))
                 .setExpiration(new Date(now + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    @Override
+    public Optional<JwtPrincipal> authenticate(String token) {
+        try {
+            // parseClaimsJws проверяет и подпись, и срок (ExpiredJwtException)
+            Claims claims = extractAllClaims(token);
+            String email = claims.getSubject();
+            String role = claims.get("role", String.class);
+            String uid = claims.get("uid", String.class);
+            if (email == null || role == null || uid == null
+                    || claims.getIssuedAt() == null || claims.getExpiration() == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new JwtPrincipal(UUID.fromString(uid), email, role,
+                    claims.getIssuedAt().toInstant(), claims.getExpiration().toInstant()));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
     @Override
     public String extractEmail(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -79,11 +107,7 @@ public class JwtServiceImpl implements JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     @Override
@@ -93,7 +117,8 @@ public class JwtServiceImpl implements JwtService {
 
     @Override
     public Boolean validateToken(String token, String email) {
-        String extractedEmail = extractEmail(token);
-        return extractedEmail != null && extractedEmail.equals(email) && !isTokenExpired(token);
+        Claims claims = extractAllClaims(token);
+        String extractedEmail = claims.getSubject();
+        return extractedEmail != null && extractedEmail.equals(email) && !claims.getExpiration().before(new Date());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,187 @@
+package ru.astera.backend.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.astera.backend.entity.ConfigCandidate;
+import ru.astera.backend.entity.ConfigComponent;
+import ru.astera.backend.entity.CustomerProfile;
+import ru.astera.backend.entity.HeatingRequest;
+import ru.astera.backend.entity.Selection;
+import ru.astera.backend.exception.ServiceBusyException;
+import ru.astera.backend.pdf.PdfArtifactStore;
+import ru.astera.backend.pdf.ProposalArtifact;
+import ru.astera.backend.pdf.ProposalModel;
+import ru.astera.backend.pdf.ProposalPdfRenderer;
+import ru.astera.backend.repository.ConfigCandidateRepository;
+import ru.astera.backend.repository.SelectionRepository;
+import ru.astera.backend.service.ProposalService;
+import ru.astera.backend.support.SingleFlight;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Коммерческое предложение по выбранному кандидату. Данные читаются в короткой
+ * read-only транзакции, печать идёт вне её на пуле из {@code app.pdf.render.threads}
+ * потоков с очередью {@code app.pdf.render.queue-capacity}: всплеск выборов не
+ * держит соединения с БД и не раздувает кучу параллельными документами.
+ * Готовые документы лежат в {@link PdfArtifactStore}; одновременные запросы одного
+ * документа на узле печатают его один раз.
+ */
+@Service
+public class ProposalServiceImpl implements ProposalService {
+
+    private final SelectionRepository selectionRepository;
+    private final ConfigCandidateRepository candidateRepository;
+    private final ProposalPdfRenderer renderer;
+    private final PdfArtifactStore store;
+    private final SingleFlight<String, Path> singleFlight = new SingleFlight<>(() -> { });
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+
+    public ProposalServiceImpl(SelectionRepository selectionRepository,
+                               ConfigCandidateRepository candidateRepository,
+                               ProposalPdfRenderer renderer,
+                               PdfArtifactStore store,
+                               @Value("${app.pdf.render.threads:2}") int threads,
+                               @Value("${app.pdf.render.queue-capacity:16}") int queueCapacity,
+                               @Value("${app.pdf.render.timeout:60s}") Duration timeout) {
+        this.selectionRepository = selectionRepository;
+        this.candidateRepository = candidateRepository;
+        this.renderer = renderer;
+        this.store = store;
+        this.timeout = timeout;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "pdf-render-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProposalModel model(UUID requestId) {
+        Selection selection = selectionRepository.findForProposal(requestId)
+                .orElseThrow(() -> new NoSuchElementException("Selection not found for request: " + requestId));
+        UUID candidateId = selection.getCandidate().getId();
+        ConfigCandidate candidate = candidateRepository.findWithComponentsById(candidateId)
+                .orElseThrow(() -> new NoSuchElementException("ConfigCandidate not found: " + candidateId));
+
+        HeatingRequest request = selection.getRequest();
+        CustomerProfile customer = request.getCustomerProfile();
+        List<ConfigComponent> components = candidate.getComponents().stream()
+                .sorted(Comparator.comparing(ConfigComponent::getCategory))
+                .toList();
+        Integer maxDeliveryDays = components.stream()
+                .map(c -> c.getEquipment().getDeliveryDays())
+                .filter(Objects::nonNull)
+                .max(Integer::compare)
+                .orElse(null);
+
+        return new ProposalModel(
+                request.getId(),
+                candidate.getId(),
+                customer.getUser().getFullName(),
+                customer.getOrganization(),
+                customer.getPhone(),
+                request.getPowerKw(),
+                request.getTIn(),
+                request.getTOut(),
+                request.getFuelType(),
+                candidate.getTotalPrice(),
+                candidate.getCurrency(),
+                maxDeliveryDays,
+                selection.getSelectedAt() != null ? selection.getSelectedAt().toLocalDate() : null,
+                components.stream()
+                        .map(c -> new ProposalModel.Line(
+                                c.getCategory(),
+                                c.getEquipment().getBrand(),
+                                c.getEquipment().getModel(),
+                                c.getQty(),
+                                c.getUnitPrice(),
+                                c.getSubtotal()))
+                        .toList());
+    }
+
+    @Override
+    public void render(ProposalModel model, OutputStream out) throws IOException {
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                try {
+                    renderer.render(model, out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new ServiceBusyException("PDF rendering queue is full, retry later");
+        }
+        try {
+            task.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IOException("PDF rendering failed", cause);
+        } catch (TimeoutException e) {
+            task.cancel(true);
+            throw new IOException("PDF rendering timed out after " + timeout);
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("PDF rendering interrupted", e);
+        }
+    }
+
+    @Override
+    public ProposalArtifact artifact(ProposalModel model) throws IOException {
+        String key = PdfArtifactStore.key(renderer.templateVersion(), model);
+        Path path = store.find(key).orElse(null);
+        if (path == null) {
+            try {
+                path = singleFlight.execute(key, () -> {
+                    try {
+                        return store.store(key, out -> render(model, out));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        selectionRepository.updatePdfPath(model.requestId(), store.relativePath(key));
+        return new ProposalArtifact(key, path);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,64 @@
+package ru.astera.backend.service.impl;
+
+import ru.astera.backend.dto.selection.HeatingRequestDto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Общие для движков подбора проверка входных данных и расчёт расхода.
+ */
+final class SelectionRequests {
+
+    /**
+     * 0.86 м³·°C/(кВт·ч), приведённый к миллионным долям м³/ч.
+     */
+    private static final long FLOW_FACTOR_MICRO = 860_000L;
+    private static final BigDecimal FLOW_FACTOR = new BigDecimal("0.86");
+
+    private SelectionRequests() {
+    }
+
+    static void validate(HeatingRequestDto req) {
+        if (req.powerKw() == null || req.powerKw().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("power_kw должен быть > 0");
+        }
+        if (req.tIn() == null || req.tOut() == null) {
+            throw new IllegalArgumentException("t_in и t_out обязательны");
+        }
+        if (req.tIn().compareTo(req.tOut()) <= 0) {
+            throw new IllegalArgumentException("t_in должен быть больше t_out");
+        }
+        if (req.fuelType() == null) {
+            throw new IllegalArgumentException("fuel_type обязателен");
+        }
+    }
+
+    /**
+     * Расход теплоносителя, м³/ч: 0.86 * P / ΔT с округлением до 6 знаков HALF_UP.
+     */
+    static BigDecimal flow(HeatingRequestDto req) {
+        return BigDecimal.valueOf(flowMicro(req), 6);
+    }
+
+    /**
+     * Тот же расход в миллионных долях м³/ч. Мощность и температуры в БД хранятся
+     * с двумя знаками, поэтому обычно хватает целочисленной арифметики в сотых;
+     * более точный ввод считается через {@link BigDecimal} с тем же округлением.
+     */
+    static long flowMicro(HeatingRequestDto req) {
+        BigDecimal deltaT = req.tIn().subtract(req.tOut());
+        if (req.powerKw().scale() <= 2 && deltaT.scale() <= 2
+                && req.powerKw().precision() - req.powerKw().scale() <= 10) {
+            long power = req.powerKw().movePointRight(2).longValueExact();
+            long delta = deltaT.movePointRight(2).longValueExact();
+            long numerator = FLOW_FACTOR_MICRO * power;
+            return (2 * numerator + delta) / (2 * delta);
+        }
+        return FLOW_FACTOR
+                .multiply(req.powerKw())
+                .divide(deltaT, 6, RoundingMode.HALF_UP)
+                .movePointRight(6)
+                .longValueExact();
+    }
+}
@@ -0,0 +1,92 @@
+package ru.astera.backend.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.astera.backend.dto.selection.ConfigurationCandidateDto;
+import ru.astera.backend.dto.selection.ConfigurationComponentDto;
+import ru.astera.backend.dto.selection.HeatingRequestDto;
+import ru.astera.backend.entity.EquipmentCategory;
+import ru.astera.backend.metrics.SelectionMetrics;
+import ru.astera.backend.repository.EquipmentRepository;
+import ru.astera.backend.repository.EquipmentRepository.BundleComponentRow;
+import ru.astera.backend.service.ConfigurationSelectionService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Движок подбора, который собирает топ-N комплектов в PostgreSQL одним запросом.
+ * Включается свойством {@code app.selection.engine=sql}; выгоден, когда БД далеко
+ * и держать каталог в памяти каждого узла нежелательно.
+ */
+@Service
+@ConditionalOnProperty(name = "app.selection.engine", havingValue = "sql")
+@RequiredArgsConstructor
+public class SqlConfigurationSelectionServiceImpl implements ConfigurationSelectionService {
+
+    private final EquipmentRepository equipmentRepository;
+    private final SelectionMetrics metrics;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ConfigurationCandidateDto> selectTopConfigurations(HeatingRequestDto req,
+                                                                   int topN,
+                                                                   boolean includeAutomation) {
+        SelectionRequests.validate(req);
+        if (topN <= 0) {
+            return List.of();
+        }
+
+        long start = metrics.start();
+        List<BundleComponentRow> rows = equipmentRepository.findTopBundles(
+                req.powerKw(),
+                SelectionRequests.flow(req),
+                req.fuelType().name().toLowerCase(),
+                includeAutomation,
+                topN);
+        metrics.stage(SelectionMetrics.SQL, "query", start);
+
+        start = metrics.start();
+        Map<Long, List<BundleComponentRow>> bundles = new LinkedHashMap<>();
+        for (BundleComponentRow row : rows) {
+            bundles.computeIfAbsent(row.getBundleRank(), r -> new ArrayList<>(6)).add(row);
+        }
+
+        List<ConfigurationCandidateDto> candidates = new ArrayList<>(bundles.size());
+        for (List<BundleComponentRow> bundle : bundles.values()) {
+            BundleComponentRow head = bundle.get(0);
+            candidates.add(ConfigurationCandidateDto.builder()
+                    .requestId(req.id())
+                    .totalPrice(head.getTotalPrice())
+                    .currency("RUB")
+                    .maxDeliveryDays(head.getMaxDeliveryDays())
+                    .connectionKey(head.getConnectionKey())
+                    .dnSize(head.getDnSize())
+                    .components(bundle.stream().map(this::toComponentDto).toList())
+                    .build());
+        }
+        metrics.stage(SelectionMetrics.SQL, "mapping", start);
+        metrics.candidates(SelectionMetrics.SQL, candidates.size());
+        return candidates;
+    }
+
+    private ConfigurationComponentDto toComponentDto(BundleComponentRow row) {
+        return ConfigurationComponentDto.builder()
+                .equipmentId(row.getEquipmentId())
+                .category(EquipmentCategory.valueOf(row.getCategory()))
+                .brand(row.getBrand())
+                .model(row.getModel())
+                .dnSize(row.getComponentDnSize())
+                .connectionKey(row.getComponentConnectionKey())
+                .deliveryDays(row.getDeliveryDays())
+                .qty(BigDecimal.ONE)
+                .unitPrice(row.getPrice())
+                .subtotal(row.getPrice())
+                .build();
+    }
+}
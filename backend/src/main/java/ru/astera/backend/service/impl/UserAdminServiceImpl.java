@@ -2,6 +2,7 @@ package ru.astera.backend.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -13,13 +14,20 @@ import ru.astera.backend.dto.admin.UserCreateDto;
 import ru.astera.backend.dto.admin.UserDto;
 import ru.astera.backend.dto.admin.UserPageDto;
 import ru.astera.backend.dto.admin.UserUpdateDto;
+import ru.astera.backend.dto.common.KeysetPageDto;
+import ru.astera.backend.dto.common.PageTotal;
 import ru.astera.backend.entity.User;
 import ru.astera.backend.exception.UserAlreadyExistsException;
 import ru.astera.backend.exception.UserNotFoundException;
+import ru.astera.backend.repository.TableStatsRepository;
 import ru.astera.backend.repository.UserRepository;
+import ru.astera.backend.security.UserAccessRevokedEvent;
 import ru.astera.backend.service.UserAdminService;
+import ru.astera.backend.support.Keyset;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -29,6 +37,8 @@ public class UserAdminServiceImpl implements UserAdminService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TableStatsRepository tableStats;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -56,6 +66,27 @@ public class UserAdminServiceImpl implements UserAdminService {
         return result;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPageDto<UserDto> getUsersKeyset(String cursor, int size, List<User.Role> roles, PageTotal total) {
+        Keyset.checkPageSize(size);
+        Set<User.Role> filter = roles == null || roles.isEmpty() ? EnumSet.allOf(User.Role.class) : EnumSet.copyOf(roles);
+        Pageable limit = Pageable.ofSize(size + 1);
+        List<User> rows;
+        if (cursor == null) {
+            rows = userRepository.findKeysetFirst(filter, limit);
+        } else {
+            Keyset.CreatedAtId key = Keyset.CreatedAtId.parse(cursor);
+            rows = userRepository.findKeysetAfter(filter, key.createdAt(), key.id(), limit);
+        }
+
+        KeysetPageDto<UserDto> result = Keyset.page(rows, size,
+                u -> new Keyset.CreatedAtId(u.getCreatedAt(), u.getId()).cursor(),
+                this::convertToDto);
+        Keyset.total(result, total, () -> userRepository.countByRoleIn(filter), () -> tableStats.estimateRows("users"));
+        return result;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public UserDto getUserById(UUID id) {
@@ -89,8 +120,12 @@ public class UserAdminServiceImpl implements UserAdminService {
             throw new UserAlreadyExistsException("User with email " + dto.getEmail() + " already exists");
         }
 
+        boolean deactivated = Boolean.TRUE.equals(user.getIsActive()) && !Boolean.TRUE.equals(dto.getIsActive());
         updateUserFromDto(user, dto);
         User updatedUser = userRepository.save(user);
+        if (deactivated) {
+            eventPublisher.publishEvent(new UserAccessRevokedEvent(id));
+        }
         log.info("Updated user: {} with role {} and id: {}", updatedUser.getEmail(), updatedUser.getRole(), updatedUser.getId());
         return convertToDto(updatedUser);
     }
@@ -102,6 +137,7 @@ public class UserAdminServiceImpl implements UserAdminService {
                 .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
 
         userRepository.delete(user);
+        eventPublisher.publishEvent(new UserAccessRevokedEvent(id));
         log.info("Deleted user: {} with id: {}", user.getEmail(), user.getId());
     }
 
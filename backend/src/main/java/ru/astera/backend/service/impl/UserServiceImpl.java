@@ -1,21 +1,73 @@
 package ru.astera.backend.service.impl;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import ru.astera.backend.dto.registration.CustomerRegistrationDto;
 import ru.astera.backend.dto.registration.ManagerRegistrationDto;
 import ru.astera.backend.entity.User;
+import ru.astera.backend.exception.ServiceBusyException;
 import ru.astera.backend.exception.UserAlreadyExistsException;
 import ru.astera.backend.repository.UserRepository;
 import ru.astera.backend.service.UserService;
 
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Пользователи и пароли. Проверка пароля (bcrypt — сотни миллисекунд CPU) идёт на пуле
+ * из {@code app.security.password.threads} потоков с очередью
+ * {@code app.security.password.queue-capacity}: всплеск входов не занимает все ядра
+ * и не копит ожидающие потоки Tomcat, сверх очереди — 429.
+ */
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final boolean rehashOnLogin;
+    private final String dummyHash;
+
+    public UserServiceImpl(UserRepository userRepository,
+                           PasswordEncoder passwordEncoder,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.security.password.threads:2}") int threads,
+                           @Value("${app.security.password.queue-capacity:32}") int queueCapacity,
+                           @Value("${app.security.password.timeout:10s}") Duration timeout,
+                           @Value("${app.security.password.rehash-on-login:true}") boolean rehashOnLogin) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.timeout = timeout;
+        this.rehashOnLogin = rehashOnLogin;
+        // хэш той же стоимости, что и настоящие: вход с неизвестным email занимает столько же времени
+        this.dummyHash = passwordEncoder.encode(UUID.randomUUID().toString());
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "password-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        Gauge.builder("astera.password.queue", executor, e -> e.getQueue().size())
+                .description("Проверки паролей, ожидающие свободного потока")
+                .register(meterRegistry);
+    }
 
     @Override
     public User createManager(ManagerRegistrationDto dto) {
@@ -56,6 +108,55 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public boolean checkPassword(User user, String rawPassword) {
-        return passwordEncoder.matches(rawPassword, user.getPasswordHash());
+        String hash = user != null && user.getPasswordHash() != null ? user.getPasswordHash() : null;
+        Future<Boolean> task;
+        try {
+            task = executor.submit(() -> {
+                if (hash == null) {
+                    passwordEncoder.matches(rawPassword, dummyHash);
+                    return false;
+                }
+                boolean matches = passwordEncoder.matches(rawPassword, hash);
+                if (matches && rehashOnLogin && passwordEncoder.upgradeEncoding(hash)) {
+                    rehash(user.getId(), hash, rawPassword);
+                }
+                return matches;
+            });
+        } catch (RejectedExecutionException e) {
+            throw new ServiceBusyException("Password verification queue is full, retry later");
+        }
+        try {
+            return task.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException("Password verification failed", e.getCause());
+        } catch (TimeoutException e) {
+            task.cancel(true);
+            throw new ServiceBusyException("Password verification timed out after " + timeout);
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Password verification interrupted", e);
+        }
+    }
+
+    /**
+     * Пересчёт хэша с текущими параметрами кодировщика; вход не зависит от успеха записи.
+     */
+    private void rehash(UUID userId, String oldHash, String rawPassword) {
+        try {
+            if (userRepository.updatePasswordHash(userId, oldHash, passwordEncoder.encode(rawPassword)) > 0) {
+                log.info("Rehashed password of user {}", userId);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to rehash password of user {}", userId, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
     }
-}
\ No newline at end of file
+}
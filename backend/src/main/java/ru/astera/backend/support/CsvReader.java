@@ -0,0 +1,110 @@
+package ru.astera.backend.support;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Потоковое чтение CSV (RFC 4180): запись за записью, без загрузки файла в память.
+ * Поддерживает поля в кавычках с переводами строк и удвоенными кавычками,
+ * разделитель — запятая или точка с запятой (определяется по первой строке).
+ */
+public final class CsvReader {
+
+    private final Reader in;
+    private char separator;
+    private int pending = -2;
+
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Следующая запись или {@code null} в конце файла. Пустые строки пропускаются.
+     */
+    public List<String> next() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            if (c == '\n' || c == '\r') {
+                continue;
+            }
+            unread(c);
+            return record();
+        }
+    }
+
+    private List<String> record() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        while (true) {
+            int c = read();
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Unterminated quoted field in CSV");
+                }
+                if (c == '"') {
+                    int n = read();
+                    if (n == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(n);
+                    }
+                } else {
+                    field.append((char) c);
+                }
+                continue;
+            }
+            if (c == '"' && field.isEmpty() && !wasQuoted) {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == -1 || c == '\n' || c == '\r') {
+                fields.add(finish(field, wasQuoted));
+                if (c == '\r') {
+                    int n = read();
+                    if (n != '\n') {
+                        unread(n);
+                    }
+                }
+                return fields;
+            } else if (isSeparator(c)) {
+                fields.add(finish(field, wasQuoted));
+                field.setLength(0);
+                wasQuoted = false;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    private boolean isSeparator(int c) {
+        if (separator == 0 && (c == ',' || c == ';')) {
+            separator = (char) c;
+        }
+        return c == separator;
+    }
+
+    private static String finish(StringBuilder field, boolean quoted) {
+        String value = quoted ? field.toString() : field.toString().trim();
+        return value.isEmpty() && !quoted ? null : value;
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        return in.read();
+    }
+
+    private void unread(int c) {
+        pending = c;
+    }
+}
@@ -0,0 +1,79 @@
+package ru.astera.backend.support;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+
+/**
+ * Запись CSV (RFC 4180) построчно в поток; парный к {@link CsvReader}.
+ * {@code null} пишется пустым полем, строки с разделителем, кавычками, переводами
+ * строк или краевыми пробелами — в кавычках, пустая строка — как {@code ""}.
+ */
+public final class CsvWriter implements Flushable {
+
+    private final Writer out;
+    private final char separator;
+
+    public CsvWriter(Writer out) {
+        this(out, ',');
+    }
+
+    public CsvWriter(Writer out, char separator) {
+        this.out = out;
+        this.separator = separator;
+    }
+
+    public void writeRecord(Object... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                out.write(separator);
+            }
+            writeField(fields[i]);
+        }
+        out.write("\r\n");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void writeField(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = switch (value) {
+            case BigDecimal decimal -> decimal.toPlainString();
+            case Enum<?> constant -> constant.name();
+            default -> value.toString();
+        };
+        if (!needsQuotes(text)) {
+            out.write(text);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    private boolean needsQuotes(String text) {
+        if (text.isEmpty() || Character.isWhitespace(text.charAt(0))
+                || Character.isWhitespace(text.charAt(text.length() - 1))) {
+            return true;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == separator || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
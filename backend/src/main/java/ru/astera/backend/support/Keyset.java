@@ -0,0 +1,124 @@
+package ru.astera.backend.support;
+
+import ru.astera.backend.dto.common.KeysetPageDto;
+import ru.astera.backend.dto.common.PageTotal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.DateTimeException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Keyset-пагинация: непрозрачный курсор из значений ключа сортировки последней
+ * строки страницы и сборка {@link KeysetPageDto} из выборки на одну строку больше страницы.
+ */
+public final class Keyset {
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private Keyset() {
+    }
+
+    public static void checkPageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    public static String encode(String... values) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (String value : values) {
+                out.writeUTF(value);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * @param arity число значений в курсоре
+     * @throws IllegalArgumentException курсор повреждён или от другого списка
+     */
+    public static List<String> decode(String cursor, int arity) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)));
+            List<String> values = new ArrayList<>(arity);
+            for (int i = 0; i < arity; i++) {
+                values.add(in.readUTF());
+            }
+            if (in.available() > 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return values;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Ключ списков "новые первыми": (created_at, id) по убыванию.
+     */
+    public record CreatedAtId(OffsetDateTime createdAt, UUID id) {
+
+        public String cursor() {
+            return encode(createdAt.toString(), id.toString());
+        }
+
+        public static CreatedAtId parse(String cursor) {
+            List<String> key = decode(cursor, 2);
+            try {
+                return new CreatedAtId(OffsetDateTime.parse(key.get(0)), UUID.fromString(key.get(1)));
+            } catch (DateTimeException | IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+    }
+
+    /**
+     * @param rows     выборка размером до {@code size + 1}; лишняя строка означает, что есть следующая страница
+     * @param cursorOf курсор по строке
+     */
+    public static <E, T> KeysetPageDto<T> page(List<E> rows, int size,
+                                               Function<E, String> cursorOf,
+                                               Function<E, T> toDto) {
+        boolean hasNext = rows.size() > size;
+        List<E> content = hasNext ? rows.subList(0, size) : rows;
+
+        KeysetPageDto<T> page = new KeysetPageDto<>();
+        page.setItems(content.stream().map(toDto).toList());
+        page.setNextCursor(hasNext ? cursorOf.apply(content.get(size - 1)) : null);
+        page.setPageSize(size);
+        return page;
+    }
+
+    /**
+     * Заполняет общее число строк, если его просили: точно или по статистике.
+     */
+    public static void total(KeysetPageDto<?> page, PageTotal mode, LongSupplier exact, Supplier<Long> estimate) {
+        switch (mode) {
+            case exact -> {
+                page.setTotal(exact.getAsLong());
+                page.setTotalEstimated(false);
+            }
+            case estimate -> {
+                page.setTotal(estimate.get());
+                page.setTotalEstimated(true);
+            }
+            case none -> {
+            }
+        }
+    }
+}
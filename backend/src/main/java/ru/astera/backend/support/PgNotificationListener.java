@@ -0,0 +1,166 @@
+package ru.astera.backend.support;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * {@code LISTEN} всех каналов приложения на одном соединении в фоновом потоке.
+ * <p>
+ * Соединение открывается напрямую через {@link DriverManager} по тем же
+ * {@code spring.datasource.*}, что и пул: оно держится всё время работы, и место в пуле
+ * под него не занимается. Уведомления, пришедшие за один опрос, раскладываются по каналам
+ * ({@link PGNotification#getName()}) и передаются пачкой. После обрыва соединения
+ * пропущенные уведомления не восстановить, поэтому при повторном подключении у каждого
+ * канала вызывается его {@code onReconnect}.
+ */
+@Component
+@Slf4j
+public class PgNotificationListener {
+
+    private static final int POLL_MILLIS = 1_000;
+    private static final long RETRY_MILLIS = 5_000;
+
+    private final DataSourceProperties properties;
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public PgNotificationListener(DataSourceProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Подписка на канал; фоновый поток запускается при первой подписке,
+     * новый канал подхватывается им в течение одного опроса.
+     */
+    public void listen(String channel, Consumer<List<String>> onPayloads, Runnable onReconnect) {
+        subscriptions.put(channel, new Subscription(onPayloads, onReconnect));
+        start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private synchronized void start() {
+        if (listener != null) {
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listenLoop, "pg-listen");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    private void listenLoop() {
+        Set<String> heard = new HashSet<>();
+        while (running) {
+            try (Connection connection = connect()) {
+                PGConnection pg;
+                try {
+                    pg = connection.unwrap(PGConnection.class);
+                } catch (SQLException e) {
+                    log.warn("LISTEN disabled: datasource is not PostgreSQL");
+                    return;
+                }
+                connection.setAutoCommit(true);
+                Set<String> listening = new HashSet<>();
+                while (running) {
+                    for (String channel : subscriptions.keySet()) {
+                        if (listening.add(channel)) {
+                            subscribe(connection, channel, !heard.add(channel));
+                        }
+                    }
+                    PGNotification[] notifications = pg.getNotifications(POLL_MILLIS);
+                    if (notifications != null && notifications.length > 0) {
+                        dispatch(notifications);
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("LISTEN connection lost, retrying in {} ms: {}", RETRY_MILLIS, e.getMessage());
+                try {
+                    Thread.sleep(RETRY_MILLIS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Properties info = new Properties();
+        String username = properties.determineUsername();
+        String password = properties.determinePassword();
+        if (username != null) {
+            info.setProperty("user", username);
+        }
+        if (password != null) {
+            info.setProperty("password", password);
+        }
+        info.setProperty("ApplicationName", "astera-listen");
+        return DriverManager.getConnection(properties.determineUrl(), info);
+    }
+
+    private void subscribe(Connection connection, String channel, boolean reconnected) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + channel);
+        }
+        log.info("Listening for notifications on '{}'", channel);
+        if (reconnected) {
+            try {
+                subscriptions.get(channel).onReconnect().run();
+            } catch (RuntimeException e) {
+                log.error("Resync of '{}' after reconnect failed", channel, e);
+            }
+        }
+    }
+
+    void dispatch(PGNotification[] notifications) {
+        Map<String, List<String>> byChannel = new LinkedHashMap<>();
+        for (PGNotification notification : notifications) {
+            byChannel.computeIfAbsent(notification.getName(), c -> new ArrayList<>())
+                    .add(notification.getParameter());
+        }
+        byChannel.forEach((channel, payloads) -> {
+            Subscription subscription = subscriptions.get(channel);
+            if (subscription == null) {
+                return;
+            }
+            try {
+                subscription.onPayloads().accept(payloads);
+            } catch (RuntimeException e) {
+                log.error("Failed to apply {} notifications from '{}'", payloads.size(), channel, e);
+            }
+        });
+    }
+
+    private record Subscription(Consumer<List<String>> onPayloads, Runnable onReconnect) {
+    }
+}
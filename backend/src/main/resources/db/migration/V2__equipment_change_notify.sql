@@ -0,0 +1,41 @@
+-- V2__equipment_change_notify.sql
+-- Уведомления об изменениях каталога: каждый узел приложения слушает канал
+-- equipment_changes и точечно обновляет снимок каталога в памяти.
+-- Полезная нагрузка совпадает с ru.astera.backend.catalog.EquipmentChangedEvent.
+
+CREATE OR REPLACE FUNCTION notify_equipment_change() RETURNS trigger
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    changed TEXT[] := ARRAY []::TEXT[];
+BEGIN
+    IF TG_OP = 'UPDATE' THEN
+        SELECT COALESCE(array_agg(n.key ORDER BY n.key), ARRAY []::TEXT[])
+        INTO changed
+        FROM jsonb_each(to_jsonb(NEW)) n
+        WHERE n.value IS DISTINCT FROM to_jsonb(OLD) -> n.key;
+        -- UPDATE без фактических изменений (например, ON CONFLICT DO UPDATE теми же значениями)
+        IF cardinality(changed) = 0 THEN
+            RETURN NULL;
+        END IF;
+    END IF;
+
+    PERFORM pg_notify('equipment_changes', json_build_object(
+            'id', COALESCE(NEW.id, OLD.id),
+            'operation', TG_OP,
+            'category', COALESCE(NEW.category, OLD.category),
+            'previousCategory', CASE WHEN TG_OP = 'UPDATE' THEN OLD.category END,
+            'changedFields', changed
+                                            )::text);
+    RETURN NULL;
+END
+$$;
+COMMENT ON FUNCTION notify_equipment_change() IS 'NOTIFY equipment_changes: id, операция, категория и изменённые колонки строки каталога';
+
+DROP TRIGGER IF EXISTS trg_equipment_change_notify ON equipment;
+CREATE TRIGGER trg_equipment_change_notify
+    AFTER INSERT OR UPDATE OR DELETE
+    ON equipment
+    FOR EACH ROW
+EXECUTE FUNCTION notify_equipment_change();
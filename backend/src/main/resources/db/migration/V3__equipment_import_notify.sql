@@ -0,0 +1,37 @@
+-- V3__equipment_import_notify.sql
+-- Массовый импорт каталога: построчные уведомления можно выключить на время
+-- транзакции (SET LOCAL astera.suppress_notify = 'on'); импорт сам отправляет
+-- одно уведомление {"operation":"RELOAD"}, по которому узлы пересобирают снимок.
+
+CREATE OR REPLACE FUNCTION notify_equipment_change() RETURNS trigger
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    changed TEXT[] := ARRAY []::TEXT[];
+BEGIN
+    IF current_setting('astera.suppress_notify', true) = 'on' THEN
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP = 'UPDATE' THEN
+        SELECT COALESCE(array_agg(n.key ORDER BY n.key), ARRAY []::TEXT[])
+        INTO changed
+        FROM jsonb_each(to_jsonb(NEW)) n
+        WHERE n.value IS DISTINCT FROM to_jsonb(OLD) -> n.key;
+        -- UPDATE без фактических изменений (например, ON CONFLICT DO UPDATE теми же значениями)
+        IF cardinality(changed) = 0 THEN
+            RETURN NULL;
+        END IF;
+    END IF;
+
+    PERFORM pg_notify('equipment_changes', json_build_object(
+            'id', COALESCE(NEW.id, OLD.id),
+            'operation', TG_OP,
+            'category', COALESCE(NEW.category, OLD.category),
+            'previousCategory', CASE WHEN TG_OP = 'UPDATE' THEN OLD.category END,
+            'changedFields', changed
+                                            )::text);
+    RETURN NULL;
+END
+$$;
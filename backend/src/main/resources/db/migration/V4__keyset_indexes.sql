@@ -0,0 +1,18 @@
+-- V4__keyset_indexes.sql
+-- Составные индексы под keyset-пагинацию списков: каждый совпадает с ORDER BY
+-- своего списка, так что страница — это короткий проход по индексу от курсора.
+-- CONCURRENTLY не блокирует запись в больших таблицах истории; Flyway выполняет
+-- такую миграцию вне транзакции (поэтому здесь нет COMMENT ON).
+
+-- каталог: (category, brand, model); заменяет индекс по одной категории
+CREATE INDEX CONCURRENTLY IF NOT EXISTS equipment_category_brand_model_idx ON equipment (category, brand, model);
+DROP INDEX CONCURRENTLY IF EXISTS equipment_category_idx;
+
+-- пользователи и клиенты: (created_at DESC, id DESC) — обратный проход индекса
+CREATE INDEX CONCURRENTLY IF NOT EXISTS users_created_id_idx ON users (created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS customer_profiles_created_id_idx ON customer_profiles (created_at, user_id);
+
+-- запросы на подбор: общий список и список клиента; второй заменяет индекс по customer_id
+CREATE INDEX CONCURRENTLY IF NOT EXISTS heating_requests_created_id_idx ON heating_requests (created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS heating_requests_customer_created_id_idx ON heating_requests (customer_id, created_at, id);
+DROP INDEX CONCURRENTLY IF EXISTS heating_requests_customer_idx;
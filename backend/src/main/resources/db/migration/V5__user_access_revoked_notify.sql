@@ -0,0 +1,26 @@
+-- V5__user_access_revoked_notify.sql
+-- Отзыв доступа пользователя (деактивация или удаление) рассылается всем узлам
+-- приложения через канал user_access_revoked: каждый узел сбрасывает кэш проверенных
+-- JWT этого пользователя. Полезная нагрузка — id пользователя.
+
+CREATE OR REPLACE FUNCTION notify_user_access_revoked() RETURNS trigger
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM pg_notify('user_access_revoked', OLD.id::text);
+    ELSIF OLD.is_active AND NOT NEW.is_active THEN
+        PERFORM pg_notify('user_access_revoked', NEW.id::text);
+    END IF;
+    RETURN NULL;
+END
+$$;
+COMMENT ON FUNCTION notify_user_access_revoked() IS 'NOTIFY user_access_revoked: id деактивированного или удалённого пользователя';
+
+DROP TRIGGER IF EXISTS trg_user_access_revoked_notify ON users;
+CREATE TRIGGER trg_user_access_revoked_notify
+    AFTER UPDATE OF is_active OR DELETE
+    ON users
+    FOR EACH ROW
+EXECUTE FUNCTION notify_user_access_revoked();
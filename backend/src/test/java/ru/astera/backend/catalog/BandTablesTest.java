@@ -0,0 +1,194 @@
+package ru.astera.backend.catalog;
+
+import org.junit.jupiter.api.Test;
+import ru.astera.backend.entity.EquipmentCategory;
+import ru.astera.backend.entity.FuelType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BandTablesTest {
+
+    private static final int DEPTH = 6;
+    private static final int[] DNS = {65, 80, 100};
+    private static final String[] KEYS = {"DN65_STD", "DN80_STD", "DN100_STD"};
+
+    @Test
+    void lookup_matchesLiveSearch() {
+        CatalogSnapshot catalog = CatalogSnapshot.of(1, randomCatalog(new Random(42)));
+        BandTables tables = BandTables.build(catalog, null, DEPTH, 10_000);
+
+        int compared = 0;
+        for (int tenths = 500; tenths <= 16_000; tenths += 75) {
+            BigDecimal power = BigDecimal.valueOf(tenths, 1);
+            for (long flowMicro : new long[]{5_000_000L, 17_200_000L, 40_000_000L, 90_000_000L}) {
+                for (FuelType fuel : FuelType.values()) {
+                    for (int topN = 1; topN <= DEPTH; topN += 2) {
+                        for (boolean automation : new boolean[]{false, true}) {
+                            List<BundleSearch.Bundle> live = BundleSearch.topN(catalog, power, fuel,
+                                    AccessoryLookup.forRequest(catalog, flowMicro, automation), topN);
+                            assertThat(tables.lookup(catalog, power, flowMicro, fuel, automation, topN))
+                                    .as("power %s, flow %d, %s, top %d", power, flowMicro, fuel, topN)
+                                    .contains(live);
+                            compared += live.size();
+                        }
+                    }
+                }
+            }
+        }
+        assertThat(compared).isPositive();
+    }
+
+    @Test
+    void lookup_fallsBackWhenTableCannotAnswer() {
+        CatalogSnapshot catalog = CatalogSnapshot.of(1, randomCatalog(new Random(7)));
+        BandTables tables = BandTables.build(catalog, null, DEPTH, 10_000);
+
+        assertThat(tables.lookup(catalog, new BigDecimal("500.005"), 17_200_000L, FuelType.gas, true, 3))
+                .isEmpty();
+        assertThat(tables.lookup(catalog, new BigDecimal("500"), 17_200_000L, FuelType.gas, true, DEPTH + 1))
+                .isEmpty();
+        assertThat(BandTables.build(catalog, null, DEPTH, 2)
+                .lookup(catalog, new BigDecimal("500"), 17_200_000L, FuelType.gas, true, 3))
+                .isEmpty();
+    }
+
+    @Test
+    void build_rebuildsOnlyAffectedParts() {
+        List<CatalogItem> items = randomCatalog(new Random(3));
+        CatalogSnapshot first = CatalogSnapshot.of(1, items);
+        BandTables tables = BandTables.build(first, null, DEPTH, 10_000);
+
+        List<CatalogItem> withPump = new ArrayList<>(items);
+        withPump.add(pump(0, 200, 1));
+        CatalogSnapshot second = CatalogSnapshot.of(2, withPump, first);
+        assertThat(tables.matches(second)).isFalse();
+
+        BandTables next = BandTables.build(second, tables, DEPTH, 10_000);
+        assertThat(next.matches(second)).isTrue();
+        assertThat(next.sharesPowerBands(tables)).isTrue();
+
+        List<CatalogItem> withBoiler = new ArrayList<>(withPump);
+        withBoiler.add(boiler(1, 300, 900, 0));
+        CatalogSnapshot third = CatalogSnapshot.of(3, withBoiler, second);
+        BandTables afterBoiler = BandTables.build(third, next, DEPTH, 10_000);
+        assertThat(afterBoiler.sharesPowerBands(next)).isFalse();
+        assertThat(afterBoiler.rebuiltPowerBands()).isPositive().isLessThan(afterBoiler.powerBands());
+    }
+
+    @Test
+    void build_recomputesOnlyBandsAroundChangedItem() {
+        List<CatalogItem> items = new ArrayList<>();
+        items.add(boiler(0, 100, 200, 0));
+        items.add(boiler(1, 300, 400, 1));
+        items.add(boiler(2, 500, 600, 2));
+        CatalogSnapshot first = CatalogSnapshot.of(1, items);
+        BandTables tables = BandTables.build(first, null, DEPTH, 10_000);
+        assertThat(tables.rebuiltPowerBands()).isEqualTo(tables.powerBands());
+
+        CatalogItem moved = items.get(1);
+        CatalogSnapshot second = first.apply(2, List.of(new CatalogItem(moved.id(), moved.category(),
+                moved.brand(), moved.model(), BigDecimal.valueOf(350), BigDecimal.valueOf(450),
+                null, null, moved.dnSize(), null, moved.connectionKey(), moved.price(), moved.deliveryDays())),
+                List.of());
+        BandTables next = BandTables.build(second, tables, DEPTH, 10_000);
+
+        // границы 300 и 400 исчезли: заново считаются слитая (200, 350) и новая [350, 450]
+        assertThat(next.rebuiltPowerBands()).isEqualTo(2);
+        assertThat(next.powerBands()).isEqualTo(7);
+    }
+
+    @Test
+    void build_incrementalMatchesLiveSearch() {
+        Random random = new Random(11);
+        List<CatalogItem> items = randomCatalog(random);
+        CatalogSnapshot catalog = CatalogSnapshot.of(1, items);
+        BandTables tables = BandTables.build(catalog, null, DEPTH, 10_000);
+
+        for (int step = 2; step < 30; step++) {
+            List<CatalogItem> powered = catalog.category(EquipmentCategory.boiler);
+            CatalogItem victim = powered.get(random.nextInt(powered.size()));
+            List<CatalogItem> upserts = new ArrayList<>();
+            List<UUID> removed = new ArrayList<>();
+            switch (step % 3) {
+                case 0 -> removed.add(victim.id());
+                case 1 -> {
+                    int min = 50 + random.nextInt(100) * 10;
+                    upserts.add(boiler(random.nextInt(DNS.length), min, min + 100 + random.nextInt(60) * 10,
+                            random.nextInt(4)));
+                }
+                default -> upserts.add(new CatalogItem(victim.id(), victim.category(), victim.brand(),
+                        victim.model(), victim.powerMinKw().add(BigDecimal.TEN), victim.powerMaxKw(),
+                        null, null, victim.dnSize(), null, victim.connectionKey(), victim.price(),
+                        victim.deliveryDays()));
+            }
+            catalog = catalog.apply(step, upserts, removed);
+            tables = BandTables.build(catalog, tables, DEPTH, 10_000);
+            assertThat(tables.matches(catalog)).isTrue();
+
+            for (int tenths = 500; tenths <= 16_000; tenths += 150) {
+                BigDecimal power = BigDecimal.valueOf(tenths, 1);
+                for (FuelType fuel : FuelType.values()) {
+                    List<BundleSearch.Bundle> live = BundleSearch.topN(catalog, power, fuel,
+                            AccessoryLookup.forRequest(catalog, 17_200_000L, false), DEPTH);
+                    assertThat(tables.lookup(catalog, power, 17_200_000L, fuel, false, DEPTH))
+                            .as("step %d, power %s, %s", step, power, fuel)
+                            .contains(live);
+                }
+            }
+        }
+    }
+
+    /**
+     * Небольшой каталог с пересекающимися диапазонами, открытыми границами,
+     * дробными границами мощности и частыми совпадениями цен.
+     */
+    private static List<CatalogItem> randomCatalog(Random random) {
+        List<CatalogItem> items = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            int min = 50 + random.nextInt(100) * 10;
+            items.add(boiler(random.nextInt(DNS.length), min, min + 100 + random.nextInt(60) * 10,
+                    random.nextInt(4)));
+        }
+        for (int i = 0; i < 30; i++) {
+            int min = 50 + random.nextInt(100) * 10;
+            FuelType fuel = FuelType.values()[random.nextInt(2)];
+            BigDecimal max = i % 9 == 0 ? null : BigDecimal.valueOf(min * 10 + 1000 + random.nextInt(600) * 10 + 5, 1);
+            items.add(new CatalogItem(UUID.randomUUID(), EquipmentCategory.burner, "ANY", "B" + i,
+                    BigDecimal.valueOf(min), max, null, null, null, fuel, KEYS[random.nextInt(KEYS.length)],
+                    BigDecimal.valueOf(40_000 + random.nextInt(6) * 5_000), 5 + random.nextInt(30)));
+        }
+        for (int i = 0; i < 6; i++) {
+            int min = random.nextInt(60);
+            items.add(pump(min, min + 10 + random.nextInt(40), i));
+        }
+        for (int dn : DNS) {
+            items.add(accessory(EquipmentCategory.valve, dn, 10_000 + random.nextInt(3) * 1_000, random.nextInt(20)));
+            items.add(accessory(EquipmentCategory.flowmeter, dn, 20_000, random.nextInt(20)));
+        }
+        items.add(accessory(EquipmentCategory.automation, null, 45_000, 25));
+        return items;
+    }
+
+    private static CatalogItem boiler(int dnIndex, int min, int max, int priceStep) {
+        return new CatalogItem(UUID.randomUUID(), EquipmentCategory.boiler, "ANY", "K" + min,
+                BigDecimal.valueOf(min), BigDecimal.valueOf(max), null, null, DNS[dnIndex], null, KEYS[dnIndex],
+                BigDecimal.valueOf(200_000 + priceStep * 10_000), 10 + priceStep * 7);
+    }
+
+    private static CatalogItem pump(int min, int max, int priceStep) {
+        return new CatalogItem(UUID.randomUUID(), EquipmentCategory.pump, "ANY", "P" + min,
+                null, null, BigDecimal.valueOf(min), BigDecimal.valueOf(max), null, null, null,
+                BigDecimal.valueOf(15_000 + priceStep * 2_000), 3 + priceStep * 5);
+    }
+
+    private static CatalogItem accessory(EquipmentCategory category, Integer dn, int price, int days) {
+        return new CatalogItem(UUID.randomUUID(), category, "ANY", category.name() + dn,
+                null, null, null, null, dn, null, null, BigDecimal.valueOf(price), days);
+    }
+}
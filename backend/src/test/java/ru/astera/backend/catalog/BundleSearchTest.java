@@ -0,0 +1,133 @@
+package ru.astera.backend.catalog;
+
+import org.junit.jupiter.api.Test;
+import ru.astera.backend.entity.EquipmentCategory;
+import ru.astera.backend.entity.FuelType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class BundleSearchTest {
+
+    private static final BigDecimal POWER = new BigDecimal("500");
+
+    @Test
+    void topN_findsCheapestBundleBeyondCheapestPairs() {
+        List<CatalogItem> items = new ArrayList<>(accessories());
+        // 25 дешёвых пар на DN65, но арматура DN65 очень дорогая.
+        for (int i = 0; i < 5; i++) {
+            items.add(item(EquipmentCategory.boiler, "KB65-" + i, 65, "DN65", null, 100_000 + i, 10));
+            items.add(item(EquipmentCategory.burner, "G65-" + i, null, "DN65", FuelType.gas, 50_000 + i, 10));
+        }
+        CatalogItem boiler80 = item(EquipmentCategory.boiler, "KB80", 80, "DN80", null, 300_000, 10);
+        CatalogItem burner80 = item(EquipmentCategory.burner, "G80", null, "DN80", FuelType.gas, 100_000, 10);
+        items.add(boiler80);
+        items.add(burner80);
+
+        List<BundleSearch.Bundle> result = search(items, 3);
+
+        assertThat(result).hasSize(3);
+        assertThat(result.get(0).boiler()).isEqualTo(boiler80);
+        assertThat(result.get(0).burner()).isEqualTo(burner80);
+        assertThat(result.get(0).totalKopecks()).isEqualTo(43_000_000L);
+        assertThat(result.get(1).totalKopecks()).isEqualTo(117_000_000L);
+        assertThat(result.get(2).totalKopecks()).isEqualTo(117_000_100L);
+    }
+
+    @Test
+    void topN_breaksPriceTiesByDeliveryDays() {
+        List<CatalogItem> items = new ArrayList<>(accessories());
+        items.add(item(EquipmentCategory.boiler, "SLOW", 80, "DN80", null, 300_000, 60));
+        items.add(item(EquipmentCategory.boiler, "FAST", 80, "DN80", null, 300_000, 5));
+        items.add(item(EquipmentCategory.burner, "G80", null, "DN80", FuelType.gas, 100_000, 10));
+
+        List<BundleSearch.Bundle> result = search(items, 1);
+
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).boiler().model()).isEqualTo("FAST");
+        assertThat(result.get(0).maxDeliveryDays()).isEqualTo(10);
+    }
+
+    @Test
+    void topN_looksUpBurnersOncePerConnectionKey() {
+        List<CatalogItem> items = new ArrayList<>(accessories());
+        for (int i = 0; i < 5; i++) {
+            items.add(item(EquipmentCategory.boiler, "KB80-" + i, 80, "DN80", null, 300_000 + i, 10));
+        }
+        // котёл без ключа подключения горелку не подберёт: он пропускается до поиска горелок
+        items.add(item(EquipmentCategory.boiler, "KB80-NOKEY", 80, null, null, 200_000, 10));
+        items.add(item(EquipmentCategory.burner, "G80", null, "DN80", FuelType.gas, 100_000, 10));
+        CatalogSnapshot catalog = spy(CatalogSnapshot.of(1, items));
+
+        List<BundleSearch.Bundle> result = BundleSearch.topN(catalog, POWER, FuelType.gas,
+                AccessoryLookup.forRequest(catalog, 10_000_000L, false), 10);
+
+        assertThat(result).hasSize(5);
+        assertThat(result).extracting(b -> b.boiler().model()).doesNotContain("KB80-NOKEY");
+        verify(catalog, times(1)).burnersFor(eq("DN80"), eq(FuelType.gas), any());
+        verify(catalog, never()).burnersFor(isNull(), any(), any());
+    }
+
+    @Test
+    void topN_returnsEmptyWithoutCompatibleBurners() {
+        List<CatalogItem> items = new ArrayList<>(accessories());
+        items.add(item(EquipmentCategory.boiler, "KB80", 80, "DN80", null, 300_000, 10));
+        items.add(item(EquipmentCategory.burner, "D80", null, "DN80", FuelType.diesel, 100_000, 10));
+
+        assertThat(search(items, 5)).isEmpty();
+    }
+
+    @Test
+    void topN_traceCountsPrunedPairs() {
+        List<CatalogItem> items = new ArrayList<>(accessories());
+        for (int i = 0; i < 4; i++) {
+            items.add(item(EquipmentCategory.boiler, "KB80-" + i, 80, "DN80", null, 300_000 + i * 1_000, 10));
+            items.add(item(EquipmentCategory.burner, "G80-" + i, null, "DN80", FuelType.gas, 100_000 + i * 1_000, 10));
+        }
+        CatalogSnapshot catalog = CatalogSnapshot.of(1, items);
+        BundleSearch.Trace trace = new BundleSearch.Trace();
+
+        List<BundleSearch.Bundle> result = BundleSearch.topN(catalog, POWER, FuelType.gas,
+                AccessoryLookup.forRequest(catalog, 10_000_000L, false), 2, trace);
+
+        assertThat(result).hasSize(2);
+        assertThat(trace.pairs()).isEqualTo(16L);
+        assertThat(trace.found()).isLessThan(16);
+        assertThat(trace.pruned()).isEqualTo(16L - trace.found());
+    }
+
+    private static List<BundleSearch.Bundle> search(List<CatalogItem> items, int topN) {
+        CatalogSnapshot catalog = CatalogSnapshot.of(1, items);
+        AccessoryLookup accessories = AccessoryLookup.forRequest(catalog, 10_000_000L, false);
+        return BundleSearch.topN(catalog, POWER, FuelType.gas, accessories, topN);
+    }
+
+    private static List<CatalogItem> accessories() {
+        return List.of(
+                new CatalogItem(UUID.randomUUID(), EquipmentCategory.pump, "ANY", "CR-10",
+                        null, null, null, null, null, null, null, new BigDecimal("10000"), 5),
+                item(EquipmentCategory.valve, "V65", 65, null, null, 1_000_000, 5),
+                item(EquipmentCategory.flowmeter, "F65", 65, null, null, 10_000, 5),
+                item(EquipmentCategory.valve, "V80", 80, null, null, 10_000, 5),
+                item(EquipmentCategory.flowmeter, "F80", 80, null, null, 10_000, 5));
+    }
+
+    private static CatalogItem item(EquipmentCategory category, String model, Integer dn, String key,
+                                    FuelType fuel, int price, int days) {
+        boolean ranged = category == EquipmentCategory.boiler || category == EquipmentCategory.burner;
+        return new CatalogItem(UUID.randomUUID(), category, "ANY", model,
+                ranged ? new BigDecimal("100") : null, ranged ? new BigDecimal("1000") : null,
+                null, null, dn, fuel, key, BigDecimal.valueOf(price), days);
+    }
+}
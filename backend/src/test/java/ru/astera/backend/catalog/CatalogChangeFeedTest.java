@@ -0,0 +1,58 @@
+package ru.astera.backend.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import ru.astera.backend.entity.EquipmentCategory;
+import ru.astera.backend.service.CatalogService;
+import ru.astera.backend.support.PgNotificationListener;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class CatalogChangeFeedTest {
+
+    private final CatalogService catalogService = mock(CatalogService.class);
+    private final CatalogChangeFeed feed =
+            new CatalogChangeFeed(catalogService, mock(PgNotificationListener.class), new ObjectMapper(), false);
+
+    @Test
+    void parse_readsTriggerPayload() throws Exception {
+        UUID id = UUID.randomUUID();
+        String payload = "{\"id\": \"" + id + "\", \"operation\": \"UPDATE\", \"category\": \"pump\","
+                + " \"previousCategory\": \"valve\", \"changedFields\": [\"category\", \"price\"]}";
+
+        EquipmentChangedEvent event = feed.parse(payload);
+
+        assertThat(event).isEqualTo(new EquipmentChangedEvent(id, EquipmentChangedEvent.Operation.UPDATE,
+                EquipmentCategory.pump, EquipmentCategory.valve, Set.of("category", "price")));
+        assertThat(event.isNoop()).isFalse();
+    }
+
+    @Test
+    void parse_treatsMissingFieldsOfDeleteAsEmpty() throws Exception {
+        UUID id = UUID.randomUUID();
+        String payload = "{\"id\": \"" + id + "\", \"operation\": \"DELETE\", \"category\": \"boiler\","
+                + " \"previousCategory\": null, \"changedFields\": []}";
+
+        EquipmentChangedEvent event = feed.parse(payload);
+
+        assertThat(event.operation()).isEqualTo(EquipmentChangedEvent.Operation.DELETE);
+        assertThat(event.changedFields()).isEmpty();
+        assertThat(event.isNoop()).isFalse();
+    }
+
+    @Test
+    void onLocalChange_appliesEventToCatalog() {
+        EquipmentChangedEvent event = new EquipmentChangedEvent(UUID.randomUUID(),
+                EquipmentChangedEvent.Operation.INSERT, EquipmentCategory.boiler, null, Set.of());
+
+        feed.onLocalChange(event);
+
+        verify(catalogService).apply(List.of(event));
+    }
+}
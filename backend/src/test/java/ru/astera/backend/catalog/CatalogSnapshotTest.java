@@ -0,0 +1,107 @@
+package ru.astera.backend.catalog;
+
+import org.junit.jupiter.api.Test;
+import ru.astera.backend.entity.EquipmentCategory;
+import ru.astera.backend.entity.FuelType;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogSnapshotTest {
+
+    @Test
+    void boilersFor_treatsMissingBoundsAsOpen() {
+        CatalogItem ranged = boiler("KB-500", 400, 600, "900000");
+        CatalogItem openEnded = boiler("KB-ANY", null, null, "950000");
+        CatalogSnapshot snapshot = CatalogSnapshot.of(1, List.of(ranged, openEnded));
+
+        assertThat(snapshot.boilersFor(new BigDecimal("500"))).containsExactly(ranged, openEnded);
+        assertThat(snapshot.boilersFor(new BigDecimal("700"))).containsExactly(openEnded);
+    }
+
+    @Test
+    void burnersFor_filtersByConnectionKeyFuelAndPower() {
+        CatalogItem gas = burner("BTG-650", FuelType.gas, "DN80_GAS_STD", 400, 700, "330000");
+        CatalogItem diesel = burner("D-700", FuelType.diesel, "DN80_GAS_STD", 400, 700, "310000");
+        CatalogItem otherKey = burner("GPN-400", FuelType.gas, "DN65_GAS_STD", 250, 700, "240000");
+        CatalogSnapshot snapshot = CatalogSnapshot.of(1, List.of(gas, diesel, otherKey));
+
+        assertThat(snapshot.burnersFor("DN80_GAS_STD", FuelType.gas, new BigDecimal("500"))).containsExactly(gas);
+        assertThat(snapshot.burnersFor("DN80_GAS_STD", FuelType.gas, new BigDecimal("800"))).isEmpty();
+        assertThat(snapshot.burnersFor(null, FuelType.gas, new BigDecimal("500"))).isEmpty();
+    }
+
+    @Test
+    void cheapestLookups_pickLowestPrice() {
+        CatalogItem cheapValve = accessory(EquipmentCategory.valve, "LD-DN80", 80, "24000");
+        CatalogItem dearValve = accessory(EquipmentCategory.valve, "FAF-DN80", 80, "31000");
+        CatalogItem flowmeter = accessory(EquipmentCategory.flowmeter, "PF-DN80", 80, "47000");
+        CatalogItem automation = accessory(EquipmentCategory.automation, "TRM-210", null, "45000");
+        CatalogSnapshot snapshot = CatalogSnapshot.of(3, List.of(dearValve, cheapValve, flowmeter, automation));
+
+        assertThat(snapshot.version()).isEqualTo(3);
+        assertThat(snapshot.cheapestValve(80)).contains(cheapValve);
+        assertThat(snapshot.cheapestValve(65)).isEmpty();
+        assertThat(snapshot.cheapestFlowmeter(80)).contains(flowmeter);
+        assertThat(snapshot.cheapestAutomation()).contains(automation);
+        assertThat(snapshot.category(EquipmentCategory.valve)).containsExactly(cheapValve, dearValve);
+    }
+
+    @Test
+    void categoryVersion_changesOnlyForMutatedCategories() {
+        CatalogItem boiler = boiler("KB-500", 400, 600, "900000");
+        CatalogItem valve = accessory(EquipmentCategory.valve, "LD-DN80", 80, "24000");
+        CatalogSnapshot first = CatalogSnapshot.of(1, List.of(boiler, valve));
+
+        CatalogItem cheaperValve = accessory(EquipmentCategory.valve, "LD-DN80", 80, "22000");
+        CatalogSnapshot second = CatalogSnapshot.of(2, List.of(boiler, cheaperValve), first);
+
+        assertThat(second.categoryVersion(EquipmentCategory.boiler)).isEqualTo(1);
+        assertThat(second.categoryVersion(EquipmentCategory.pump)).isEqualTo(1);
+        assertThat(second.categoryVersion(EquipmentCategory.valve)).isEqualTo(2);
+    }
+
+    @Test
+    void apply_rebuildsOnlyTouchedCategories() {
+        CatalogItem boiler = boiler("KB-500", 400, 600, "900000");
+        CatalogItem valve = accessory(EquipmentCategory.valve, "LD-DN80", 80, "24000");
+        CatalogItem flowmeter = accessory(EquipmentCategory.flowmeter, "PF-DN80", 80, "47000");
+        CatalogSnapshot first = CatalogSnapshot.of(1, List.of(boiler, valve, flowmeter));
+
+        CatalogItem movedToFlowmeters = new CatalogItem(valve.id(), EquipmentCategory.flowmeter, "ANY", "LD-DN80",
+                null, null, null, null, 80, null, null, new BigDecimal("20000"), 7);
+        CatalogSnapshot second = first.apply(2, List.of(movedToFlowmeters), List.of(boiler.id()));
+
+        assertThat(second.version()).isEqualTo(2);
+        assertThat(second.boilersFor(new BigDecimal("500"))).isEmpty();
+        assertThat(second.cheapestValve(80)).isEmpty();
+        assertThat(second.cheapestFlowmeter(80)).contains(movedToFlowmeters);
+        assertThat(second.findById(valve.id())).contains(movedToFlowmeters);
+        assertThat(second.categoryVersion(EquipmentCategory.boiler)).isEqualTo(2);
+        assertThat(second.categoryVersion(EquipmentCategory.valve)).isEqualTo(2);
+        assertThat(second.categoryVersion(EquipmentCategory.flowmeter)).isEqualTo(2);
+        assertThat(second.categoryVersion(EquipmentCategory.pump)).isEqualTo(1);
+
+        assertThat(second.apply(3, List.of(movedToFlowmeters), List.of(boiler.id()))).isSameAs(second);
+    }
+
+    private static CatalogItem boiler(String model, Integer min, Integer max, String price) {
+        return new CatalogItem(UUID.randomUUID(), EquipmentCategory.boiler, "ARCUS", model,
+                min == null ? null : BigDecimal.valueOf(min), max == null ? null : BigDecimal.valueOf(max),
+                null, null, 80, null, "DN80_GAS_STD", new BigDecimal(price), 14);
+    }
+
+    private static CatalogItem burner(String model, FuelType fuel, String key, int min, int max, String price) {
+        return new CatalogItem(UUID.randomUUID(), EquipmentCategory.burner, "BALTUR", model,
+                BigDecimal.valueOf(min), BigDecimal.valueOf(max), null, null, null, fuel, key,
+                new BigDecimal(price), 10);
+    }
+
+    private static CatalogItem accessory(EquipmentCategory category, String model, Integer dn, String price) {
+        return new CatalogItem(UUID.randomUUID(), category, "ANY", model,
+                null, null, null, null, dn, null, null, new BigDecimal(price), 5);
+    }
+}
@@ -0,0 +1,53 @@
+package ru.astera.backend.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntervalIndexTest {
+
+    private record Range(String name, BigDecimal min, BigDecimal max) {
+    }
+
+    private static final Range SMALL = new Range("small", new BigDecimal("100"), new BigDecimal("300"));
+    private static final Range MEDIUM = new Range("medium", new BigDecimal("250.50"), new BigDecimal("600"));
+    private static final Range OPEN = new Range("open", null, null);
+    private static final Range POINT = new Range("point", new BigDecimal("500.00"), new BigDecimal("500.00"));
+
+    private final IntervalIndex<Range> index = IntervalIndex.of(
+            List.of(MEDIUM, OPEN, SMALL, POINT),
+            r -> RangeKeys.range(r.min(), r.max(), RangeKeys.POWER_SCALE));
+
+    @Test
+    void covering_returnsMatchesInSourceOrder() {
+        assertThat(query("260")).containsExactly(MEDIUM, OPEN, SMALL);
+        assertThat(query("500")).containsExactly(MEDIUM, OPEN, POINT);
+    }
+
+    @Test
+    void covering_boundsAreInclusiveAndOpenRangesMatchEverything() {
+        assertThat(query("250.50")).containsExactly(MEDIUM, OPEN, SMALL);
+        assertThat(query("600")).containsExactly(MEDIUM, OPEN);
+        assertThat(query("0.01")).containsExactly(OPEN);
+        assertThat(query("999999999")).containsExactly(OPEN);
+    }
+
+    @Test
+    void covering_valueFinerThanKeyMatchesExactComparison() {
+        assertThat(query("250.499")).containsExactly(OPEN, SMALL);
+        assertThat(query("500.001")).containsExactly(MEDIUM, OPEN);
+    }
+
+    @Test
+    void empty_returnsNothing() {
+        assertThat(IntervalIndex.<Range>empty().covering(0, 0)).isEmpty();
+    }
+
+    private List<Range> query(String value) {
+        BigDecimal v = new BigDecimal(value);
+        return index.covering(RangeKeys.floor(v, RangeKeys.POWER_SCALE), RangeKeys.ceil(v, RangeKeys.POWER_SCALE));
+    }
+}
@@ -0,0 +1,118 @@
+package ru.astera.backend.catalog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import ru.astera.backend.dto.selection.ConfigurationCandidateDto;
+import ru.astera.backend.entity.EquipmentCategory;
+import ru.astera.backend.entity.FuelType;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SelectionResultCacheTest {
+
+    private static final long FLOW = 21_500_000L;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SelectionResultCache cache = new SelectionResultCache(registry, 100);
+    private final AtomicInteger computations = new AtomicInteger();
+
+    private final CatalogItem boiler = item(EquipmentCategory.boiler, "KB-500", "900000");
+    private final CatalogItem automation = item(EquipmentCategory.automation, "TRM-210", "45000");
+    private final CatalogSnapshot catalog = CatalogSnapshot.of(1, List.of(boiler, automation));
+
+    @Test
+    void get_reusesResultForNormalizedParametersAndStampsRequestId() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        List<ConfigurationCandidateDto> a = select(catalog, "500", true, first);
+        List<ConfigurationCandidateDto> b = select(catalog, "500.00", true, second);
+
+        assertThat(computations).hasValue(1);
+        assertThat(a.get(0).requestId()).isEqualTo(first);
+        assertThat(b.get(0).requestId()).isEqualTo(second);
+        assertThat(b.get(0).totalPrice()).isEqualByComparingTo("1000");
+        assertThat(registry.get("cache.gets").tag("cache", "selection.candidates").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void get_missesWhenRelevantCategoryChanged() {
+        select(catalog, "500", true, UUID.randomUUID());
+
+        CatalogItem cheaperBoiler = item(EquipmentCategory.boiler, "KB-500", "850000");
+        CatalogSnapshot next = CatalogSnapshot.of(2, List.of(cheaperBoiler, automation), catalog);
+        select(next, "500", true, UUID.randomUUID());
+
+        assertThat(computations).hasValue(2);
+    }
+
+    @Test
+    void get_ignoresAutomationChangesWhenAutomationNotRequested() {
+        select(catalog, "500", false, UUID.randomUUID());
+
+        CatalogItem otherAutomation = item(EquipmentCategory.automation, "TRM-210", "47000");
+        CatalogSnapshot next = CatalogSnapshot.of(2, List.of(boiler, otherAutomation), catalog);
+        select(next, "500", false, UUID.randomUUID());
+        select(next, "500", true, UUID.randomUUID());
+        select(next, "500", true, UUID.randomUUID());
+
+        assertThat(computations).hasValue(2);
+    }
+
+    @Test
+    void disabled_computesEveryTime() {
+        SelectionResultCache disabled = SelectionResultCache.disabled();
+        for (int i = 0; i < 3; i++) {
+            disabled.get(catalog, new BigDecimal("500"), FLOW, FuelType.gas, true, 3, UUID.randomUUID(), this::compute);
+        }
+
+        assertThat(computations).hasValue(3);
+        assertThat(disabled.size()).isZero();
+    }
+
+    @Test
+    void springBean_cachesWithConfiguredSize() {
+        new ApplicationContextRunner()
+                .withBean(SimpleMeterRegistry.class)
+                .withUserConfiguration(SelectionResultCache.class)
+                .run(context -> {
+                    SelectionResultCache bean = context.getBean(SelectionResultCache.class);
+                    for (int i = 0; i < 3; i++) {
+                        bean.get(catalog, new BigDecimal("500"), FLOW, FuelType.gas, true, 3,
+                                UUID.randomUUID(), this::compute);
+                    }
+
+                    assertThat(computations).hasValue(1);
+                    assertThat(bean.size()).isEqualTo(1);
+                    assertThat(context.getBean(SimpleMeterRegistry.class).find("cache.size")
+                            .tag("cache", "selection.candidates").gauge()).isNotNull();
+                });
+    }
+
+    private List<ConfigurationCandidateDto> select(CatalogSnapshot snapshot, String power,
+                                                   boolean includeAutomation, UUID requestId) {
+        return cache.get(snapshot, new BigDecimal(power), FLOW, FuelType.gas, includeAutomation, 3,
+                requestId, this::compute);
+    }
+
+    private List<ConfigurationCandidateDto> compute() {
+        computations.incrementAndGet();
+        return List.of(ConfigurationCandidateDto.builder()
+                .totalPrice(new BigDecimal("1000"))
+                .currency("RUB")
+                .components(List.of())
+                .build());
+    }
+
+    private static CatalogItem item(EquipmentCategory category, String model, String price) {
+        return new CatalogItem(UUID.nameUUIDFromBytes(model.getBytes()), category, "ARCUS", model,
+                null, null, null, null, 80, null, "DN80_GAS_STD", new BigDecimal(price), 14);
+    }
+}
@@ -8,30 +8,46 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.astera.backend.config.SecurityConfig;
 import ru.astera.backend.dto.admin.EquipmentCreateDto;
 import ru.astera.backend.dto.admin.EquipmentDto;
+import ru.astera.backend.dto.admin.EquipmentExportFormat;
+import ru.astera.backend.dto.admin.EquipmentImportResultDto;
 import ru.astera.backend.dto.admin.EquipmentPageDto;
 import ru.astera.backend.dto.admin.EquipmentUpdateDto;
 import ru.astera.backend.entity.EquipmentCategory;
 import ru.astera.backend.exception.EquipmentNotFoundException;
 import ru.astera.backend.security.JwtAuthenticationFilter;
+import ru.astera.backend.security.VerifiedTokenCache;
+import ru.astera.backend.service.EquipmentImportService;
 import ru.astera.backend.service.EquipmentService;
 import ru.astera.backend.service.JwtService;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AdminEquipmentController.class)
@@ -50,10 +66,20 @@ class AdminEquipmentControllerTest {
             return Mockito.mock(EquipmentService.class);
         }
 
+        @Bean
+        EquipmentImportService equipmentImportService() {
+            return Mockito.mock(EquipmentImportService.class);
+        }
+
         @Bean
         JwtService jwtService() {
             return Mockito.mock(JwtService.class);
         }
+
+        @Bean
+        VerifiedTokenCache verifiedTokenCache() {
+            return Mockito.mock(VerifiedTokenCache.class);
+        }
     }
 
     @Autowired
@@ -62,6 +88,9 @@ class AdminEquipmentControllerTest {
     @Autowired
     private EquipmentService equipmentService;
 
+    @Autowired
+    private EquipmentImportService equipmentImportService;
+
     @Autowired
     private JwtService jwtService;
 
@@ -169,6 +198,47 @@ class AdminEquipmentControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void importEquipment_ShouldReturnReport() throws Exception {
+        EquipmentImportResultDto report = new EquipmentImportResultDto();
+        report.setTotalRows(2);
+        report.setInserted(1);
+        report.setUpdated(0);
+        report.setDuplicates(0);
+        report.setRejected(1);
+        report.setErrors(List.of(new EquipmentImportResultDto.RowError(2, "price: Price is required")));
+        report.setErrorsTruncated(false);
+
+        when(equipmentImportService.importEquipment(any(InputStream.class), any(MediaType.class))).thenReturn(report);
+
+        String csv = "category,brand,model,price\nboiler,Bosch,GC7000,150000\nboiler,Bosch,GC8000,\n";
+        mockMvc.perform(post("/api/admin/equipment/import")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(2));
+    }
+
+    @Test
+    void exportEquipment_ShouldStreamWithItsOwnAsyncTimeout() throws Exception {
+        doAnswer(inv -> {
+            inv.getArgument(1, OutputStream.class).write("{\"brand\":\"Bosch\"}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(equipmentService).exportEquipment(eq(EquipmentExportFormat.ndjson), any(OutputStream.class));
+
+        MvcResult started = mockMvc.perform(get("/api/admin/equipment/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertThat(started.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofMinutes(10).toMillis());
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"equipment.ndjson\""))
+                .andExpect(content().string("{\"brand\":\"Bosch\"}\n"));
+    }
+
     private EquipmentDto createTestEquipmentDto(UUID id, String brand, String model) {
         EquipmentDto dto = new EquipmentDto();
         dto.setId(id);
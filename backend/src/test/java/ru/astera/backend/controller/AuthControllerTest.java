@@ -17,6 +17,7 @@ import ru.astera.backend.dto.registration.*;
 import ru.astera.backend.entity.User;
 import ru.astera.backend.exception.InvalidCredentialsException;
 import ru.astera.backend.security.JwtAuthenticationFilter;
+import ru.astera.backend.security.VerifiedTokenCache;
 import ru.astera.backend.service.AuthService;
 import ru.astera.backend.service.JwtService;
 
@@ -47,6 +48,11 @@ class AuthControllerTest {
         JwtService jwtService() {
             return Mockito.mock(JwtService.class);
         }
+
+        @Bean
+        VerifiedTokenCache verifiedTokenCache() {
+            return Mockito.mock(VerifiedTokenCache.class);
+        }
     }
 
     @Autowired
@@ -0,0 +1,10 @@
+package ru.astera.backend.controller;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Те же сценарии подбора, что и в {@link ConfigurationSelectionControllerIT}, но на SQL-движке.
+ */
+@TestPropertySource(properties = "app.selection.engine=sql")
+class SqlConfigurationSelectionControllerIT extends ConfigurationSelectionControllerIT {
+}
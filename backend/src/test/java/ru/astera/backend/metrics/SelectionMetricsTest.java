@@ -0,0 +1,46 @@
+package ru.astera.backend.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import ru.astera.backend.catalog.BundleSearch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SelectionMetricsTest {
+
+    @Test
+    void springBean_ShouldRegisterStageTimersAndSummaries() {
+        new ApplicationContextRunner()
+                .withBean(SimpleMeterRegistry.class)
+                .withUserConfiguration(SelectionMetrics.class)
+                .run(context -> {
+                    SelectionMetrics metrics = context.getBean(SelectionMetrics.class);
+                    SimpleMeterRegistry registry = context.getBean(SimpleMeterRegistry.class);
+
+                    BundleSearch.Trace trace = metrics.trace();
+                    assertNotNull(trace);
+                    metrics.search(trace);
+                    metrics.stage(SelectionMetrics.MEMORY, "total", metrics.start());
+                    metrics.candidates(SelectionMetrics.MEMORY, 3);
+
+                    assertEquals(1, registry.get("astera.selection.stage")
+                            .tags("engine", "memory", "stage", "total").timer().count());
+                    assertEquals(1, registry.get("astera.selection.stage")
+                            .tags("engine", "memory", "stage", "search").timer().count());
+                    assertEquals(1, registry.get("astera.selection.pairs").summary().count());
+                    assertEquals(1, registry.get("astera.selection.pairs.pruned").summary().count());
+                    assertEquals(3.0, registry.get("astera.selection.candidates").summary().totalAmount());
+                });
+    }
+
+    @Test
+    void disabled_ShouldSkipMeasurements() {
+        SelectionMetrics metrics = SelectionMetrics.disabled();
+
+        assertEquals(0, metrics.start());
+        assertNull(metrics.trace());
+        metrics.stage(SelectionMetrics.MEMORY, "total", 0);
+        metrics.candidates(SelectionMetrics.MEMORY, 3);
+    }
+}
@@ -0,0 +1,102 @@
+package ru.astera.backend.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SqlMetrics metrics = new SqlMetrics(registry, Duration.ofMillis(500));
+
+    @AfterEach
+    void tearDown() {
+        SqlContext.clear();
+    }
+
+    @Test
+    void redact_ShouldMaskLiteralsAndKeepIdentifiers() {
+        String sql = "select * from users u2_0\n where u2_0.email = 'o''brien@x.ru' and u2_0.age > 42 limit ?";
+
+        assertEquals("select * from users u2_0 where u2_0.email = '?' and u2_0.age > ? limit ?",
+                SqlMetrics.redact(sql));
+    }
+
+    @Test
+    void statement_ShouldBeTaggedWithEndpointAndMethod() {
+        SqlContext context = SqlContext.current();
+        context.endpoint("GET /api/admin/customers");
+        context.method("CustomerServiceImpl.getCustomersWithPagination");
+
+        metrics.statement("select 1", TimeUnit.MILLISECONDS.toNanos(3), 0);
+        metrics.statement("update users set is_active = false", TimeUnit.MILLISECONDS.toNanos(2), 4);
+
+        assertEquals(2.0, registry.get("astera.sql.statements")
+                .tag("endpoint", "GET /api/admin/customers")
+                .tag("method", "CustomerServiceImpl.getCustomersWithPagination")
+                .counter().count());
+        assertEquals(4.0, registry.get("astera.sql.rows").counter().count());
+        assertEquals(2, registry.get("astera.sql.time").timer().count());
+        assertEquals(2, context.statements());
+    }
+
+    @Test
+    void wrappedDataSource_ShouldCountRowsAndUnwrapToTarget() throws Exception {
+        ResultSet rs = fake(ResultSet.class, new int[]{3});
+        PreparedStatement ps = fake(PreparedStatement.class, rs);
+        Connection connection = fake(Connection.class, ps);
+        DataSource target = fake(DataSource.class, connection);
+
+        DataSource wrapped = SqlMetricsDataSource.wrap(target, metrics);
+        try (Connection c = wrapped.getConnection();
+             PreparedStatement statement = c.prepareStatement("select id from equipment where brand = ?");
+             ResultSet result = statement.executeQuery()) {
+            while (result.next()) {
+                // читаем все строки
+            }
+            assertSame(connection, c.unwrap(Connection.class));
+        }
+
+        assertEquals(1.0, registry.get("astera.sql.statements").tag("endpoint", SqlContext.NONE).counter().count());
+        assertEquals(3.0, registry.get("astera.sql.rows").counter().count());
+        assertSame(target, wrapped.unwrap(DataSource.class));
+    }
+
+    /**
+     * Минимальная реализация JDBC-интерфейса: методы, возвращающие объект нужного типа,
+     * отдают {@code next}; {@code ResultSet.next()} возвращает true заданное число раз.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T fake(Class<T> type, Object next) {
+        return (T) Proxy.newProxyInstance(SqlMetricsTest.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("next") && next instanceof int[] left) {
+                        return left[0]-- > 0;
+                    }
+                    if (method.getReturnType().isInstance(next)) {
+                        return next;
+                    }
+                    if (method.getName().equals("unwrap")) {
+                        return proxy;
+                    }
+                    Class<?> r = method.getReturnType();
+                    if (r == boolean.class) {
+                        return false;
+                    }
+                    if (r == int.class) {
+                        return 0;
+                    }
+                    return r == long.class ? (Object) 0L : null;
+                });
+    }
+}
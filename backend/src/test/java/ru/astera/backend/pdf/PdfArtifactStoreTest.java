@@ -0,0 +1,97 @@
+package ru.astera.backend.pdf;
+
+import org.junit.jupiter.api.Test;
+import ru.astera.backend.entity.EquipmentCategory;
+import ru.astera.backend.entity.FuelType;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PdfArtifactStoreTest {
+
+    private static final UUID REQUEST = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID CANDIDATE = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+    @Test
+    void key_ShouldDependOnContentAndTemplateOnly() {
+        String key = PdfArtifactStore.key("1:abc", model("900000.00"));
+
+        assertThat(PdfArtifactStore.key("1:abc", model("900000.00"))).isEqualTo(key);
+        assertThat(PdfArtifactStore.key("1:abc", model("910000.00")).equals(key)).isFalse();
+        assertThat(PdfArtifactStore.key("2:abc", model("900000.00")).equals(key)).isFalse();
+        assertThat(key.length()).isEqualTo(64);
+    }
+
+    @Test
+    void store_ShouldWriteOnceAndReuseExistingFile() throws Exception {
+        PdfArtifactStore store = new PdfArtifactStore(Files.createTempDirectory("pdf-store"));
+        String key = PdfArtifactStore.key("1", model("900000.00"));
+        AtomicInteger writes = new AtomicInteger();
+
+        Path first = store.store(key, out -> {
+            writes.incrementAndGet();
+            out.write("%PDF-1.4".getBytes(StandardCharsets.US_ASCII));
+        });
+        Path second = store.store(key, out -> writes.incrementAndGet());
+
+        assertThat(second).isEqualTo(first);
+        assertThat(writes.get()).isEqualTo(1);
+        assertThat(Files.readString(first)).isEqualTo("%PDF-1.4");
+        assertThat(first.toString().endsWith(store.relativePath(key))).isTrue();
+        assertThat(store.find(key).isPresent()).isTrue();
+    }
+
+    @Test
+    void store_ShouldLeaveNothingBehind_WhenWriteFails() throws Exception {
+        Path root = Files.createTempDirectory("pdf-store");
+        PdfArtifactStore store = new PdfArtifactStore(root);
+        String key = PdfArtifactStore.key("1", model("900000.00"));
+
+        assertThatThrownBy(() -> store.store(key, out -> {
+            out.write(1);
+            throw new IOException("disk full");
+        })).isInstanceOf(IOException.class);
+
+        assertThat(store.find(key).isPresent()).isFalse();
+        try (Stream<Path> files = Files.walk(root)) {
+            assertThat(files.filter(Files::isRegularFile).count()).isEqualTo(0L);
+        }
+    }
+
+    @Test
+    void store_ShouldCreateRootLazilyAndFailOnlyOnWrite() throws Exception {
+        Path parent = Files.createTempDirectory("pdf-store");
+        Path missing = parent.resolve("nested/pdf");
+        PdfArtifactStore lazy = new PdfArtifactStore(missing);
+        assertThat(Files.exists(missing)).isFalse();
+
+        String key = PdfArtifactStore.key("1", model("900000.00"));
+        assertThat(lazy.find(key).isPresent()).isFalse();
+        assertThat(Files.isRegularFile(lazy.store(key, out -> out.write(1)))).isTrue();
+
+        Path notADirectory = Files.createFile(parent.resolve("occupied"));
+        PdfArtifactStore broken = new PdfArtifactStore(notADirectory);
+        assertThatThrownBy(() -> broken.store(key, out -> out.write(1)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("not writable");
+    }
+
+    private static ProposalModel model(String boilerPrice) {
+        return new ProposalModel(REQUEST, CANDIDATE, "Customer", null, null,
+                new BigDecimal("500"), new BigDecimal("95"), new BigDecimal("70"), FuelType.gas,
+                new BigDecimal(boilerPrice), "RUB", 30, LocalDate.of(2025, 1, 15),
+                List.of(new ProposalModel.Line(EquipmentCategory.boiler, "Bosch", "UT-L 500", BigDecimal.ONE,
+                        new BigDecimal(boilerPrice), new BigDecimal(boilerPrice))));
+    }
+}
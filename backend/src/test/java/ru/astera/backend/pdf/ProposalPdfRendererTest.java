@@ -0,0 +1,74 @@
+package ru.astera.backend.pdf;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import ru.astera.backend.entity.EquipmentCategory;
+import ru.astera.backend.entity.FuelType;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProposalPdfRendererTest {
+
+    private final ProposalPdfRenderer renderer = new ProposalPdfRenderer(new DefaultResourceLoader(),
+            "Proposal", "classpath:fonts/DejaVuSans.ttf", "static/missing-logo.png", "Astera", "+7 (495) 000-00-00", "sales@astera.example");
+
+    @Test
+    void render_ShouldWriteCompletePdfWithoutClosingStream() throws Exception {
+        TrackingOutputStream out = new TrackingOutputStream();
+
+        renderer.render(model(), out);
+
+        String pdf = out.toString(StandardCharsets.ISO_8859_1);
+        assertThat(pdf.startsWith("%PDF-")).isTrue();
+        assertThat(pdf.strip().endsWith("%%EOF")).isTrue();
+        assertThat(pdf).contains("DejaVuSans");
+        assertThat(out.closed).isFalse();
+    }
+
+    @Test
+    void render_ShouldBeReusableAcrossDocuments() throws Exception {
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+
+        renderer.render(model(), first);
+        renderer.render(model(), second);
+
+        assertThat(first.size() > 0).isTrue();
+        assertThat(second.size() > 0).isTrue();
+    }
+
+    @Test
+    void constructor_ShouldFail_WhenFontIsMissing() {
+        assertThatThrownBy(() -> new ProposalPdfRenderer(new DefaultResourceLoader(), "Proposal",
+                "classpath:fonts/missing.ttf", "", "Astera", "", ""))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("missing.ttf");
+    }
+
+    private static ProposalModel model() {
+        return new ProposalModel(UUID.randomUUID(), UUID.randomUUID(), "Customer", "Org", "+7 900 000-00-00",
+                new BigDecimal("500"), new BigDecimal("95"), new BigDecimal("70"), FuelType.gas,
+                new BigDecimal("1250000.00"), "RUB", 30, LocalDate.now(),
+                List.of(new ProposalModel.Line(EquipmentCategory.boiler, "Bosch", "UT-L 500", BigDecimal.ONE,
+                                new BigDecimal("900000.00"), new BigDecimal("900000.00")),
+                        new ProposalModel.Line(EquipmentCategory.burner, "Weishaupt", "WM-G10", BigDecimal.ONE,
+                                new BigDecimal("350000.00"), new BigDecimal("350000.00"))));
+    }
+
+    private static final class TrackingOutputStream extends ByteArrayOutputStream {
+        private boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
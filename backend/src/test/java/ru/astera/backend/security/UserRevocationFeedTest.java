@@ -0,0 +1,54 @@
+package ru.astera.backend.security;
+
+import org.junit.jupiter.api.Test;
+import ru.astera.backend.service.JwtService;
+import ru.astera.backend.support.PgNotificationListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserRevocationFeedTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T12:00:00.500Z");
+
+    private final JwtService jwtService = mock(JwtService.class);
+    private final VerifiedTokenCache cache = new VerifiedTokenCache(jwtService, 100, Duration.ofMinutes(10),
+            Duration.ofDays(1), Clock.fixed(NOW, ZoneOffset.UTC));
+    private final UserRevocationFeed feed = new UserRevocationFeed(cache, mock(PgNotificationListener.class), false);
+
+    @Test
+    void apply_ShouldRevokeUserFromNotificationPayload() {
+        UUID userId = UUID.randomUUID();
+        when(jwtService.authenticate("t1")).thenReturn(Optional.of(principal(userId)));
+        assertTrue(cache.verify("t1").isPresent());
+
+        feed.apply(List.of("not-a-uuid", userId.toString()));
+
+        assertTrue(cache.verify("t1").isEmpty());
+    }
+
+    @Test
+    void resync_ShouldDropCachedTokens() {
+        UUID userId = UUID.randomUUID();
+        when(jwtService.authenticate("t1")).thenReturn(Optional.of(principal(userId)));
+        cache.verify("t1");
+
+        feed.resync();
+
+        assertEquals(0, cache.size());
+        assertTrue(cache.verify("t1").isPresent());
+        verify(jwtService, times(2)).authenticate("t1");
+    }
+
+    private static JwtPrincipal principal(UUID userId) {
+        return new JwtPrincipal(userId, "user@astera.example", "customer", NOW.minusSeconds(60), NOW.plusSeconds(3600));
+    }
+}
@@ -0,0 +1,93 @@
+package ru.astera.backend.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.astera.backend.service.JwtService;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VerifiedTokenCacheTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T12:00:00.500Z");
+
+    @Mock
+    private JwtService jwtService;
+
+    private VerifiedTokenCache cache;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        cache = new VerifiedTokenCache(jwtService, 100, Duration.ofMinutes(10), Duration.ofDays(1),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void verify_ShouldCheckSignatureOncePerToken() {
+        when(jwtService.authenticate("t1")).thenReturn(Optional.of(principal(NOW.minusSeconds(60), NOW.plusSeconds(3600))));
+
+        VerifiedTokenCache.Verified first = cache.verify("t1").orElseThrow();
+        VerifiedTokenCache.Verified second = cache.verify("t1").orElseThrow();
+
+        assertSame(first, second);
+        assertEquals(userId, second.principal().userId());
+        assertEquals("ROLE_manager", second.authorities().get(0).getAuthority());
+        verify(jwtService, times(1)).authenticate("t1");
+    }
+
+    @Test
+    void verify_ShouldNotCacheRejectedToken() {
+        when(jwtService.authenticate("bad")).thenReturn(Optional.empty());
+
+        assertTrue(cache.verify("bad").isEmpty());
+        assertTrue(cache.verify("bad").isEmpty());
+
+        verify(jwtService, times(2)).authenticate("bad");
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void revoke_ShouldRejectTokensIssuedBeforeRevocation() {
+        when(jwtService.authenticate("old")).thenReturn(Optional.of(principal(NOW.minusSeconds(60), NOW.plusSeconds(3600))));
+        // iat с точностью до секунды: выдан в ту же секунду, что и отзыв
+        when(jwtService.authenticate("same-second")).thenReturn(Optional.of(principal(NOW.minusMillis(500), NOW.plusSeconds(3600))));
+        when(jwtService.authenticate("new")).thenReturn(Optional.of(principal(NOW.plusSeconds(1), NOW.plusSeconds(3600))));
+        assertTrue(cache.verify("old").isPresent());
+
+        cache.onAccessRevoked(new UserAccessRevokedEvent(userId));
+
+        assertTrue(cache.verify("old").isEmpty());
+        assertTrue(cache.verify("same-second").isEmpty());
+        assertTrue(cache.verify("new").isPresent());
+    }
+
+    @Test
+    void verify_ShouldStillRejectRevokedUserWhenCacheDisabled() {
+        VerifiedTokenCache uncached = new VerifiedTokenCache(jwtService, 0, Duration.ofMinutes(10), Duration.ofDays(1),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+        when(jwtService.authenticate("t1")).thenReturn(Optional.of(principal(NOW.minusSeconds(60), NOW.plusSeconds(3600))));
+
+        assertTrue(uncached.verify("t1").isPresent());
+        uncached.revoke(userId);
+
+        assertTrue(uncached.verify("t1").isEmpty());
+        verify(jwtService, times(2)).authenticate("t1");
+    }
+
+    private JwtPrincipal principal(Instant issuedAt, Instant expiresAt) {
+        return new JwtPrincipal(userId, "user@astera.example", "manager", issuedAt, expiresAt);
+    }
+}
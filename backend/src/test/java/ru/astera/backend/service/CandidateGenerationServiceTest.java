@@ -0,0 +1,154 @@
+package ru.astera.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.astera.backend.dto.selection.ConfigurationCandidateDto;
+import ru.astera.backend.dto.selection.HeatingRequestDto;
+import ru.astera.backend.repository.HeatingRequestRepository;
+import ru.astera.backend.service.impl.CandidateGenerationServiceImpl;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CandidateGenerationServiceTest {
+
+    @Mock
+    private HeatingRequestRepository requestRepo;
+
+    @Mock
+    private HeatingRequestService heatingRequestService;
+
+    @Mock
+    private ConfigurationSelectionService configurationService;
+
+    @Mock
+    private ConfigCandidateService candidateService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CandidateGenerationServiceImpl generationService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        generationService = new CandidateGenerationServiceImpl(requestRepo, heatingRequestService,
+                configurationService, candidateService, transactionManager, meterRegistry, true);
+    }
+
+    @Test
+    void generateIfAbsent_ShouldLockRequestBeforeGenerating() {
+        UUID requestId = UUID.randomUUID();
+        long key = requestId.getMostSignificantBits() ^ requestId.getLeastSignificantBits();
+        HeatingRequestDto req = HeatingRequestDto.builder().id(requestId).build();
+        List<ConfigurationCandidateDto> generated = List.of(ConfigurationCandidateDto.builder().build());
+        List<ConfigurationCandidateDto> saved = List.of(ConfigurationCandidateDto.builder().id(UUID.randomUUID()).build());
+
+        when(candidateService.findByRequest(requestId, true)).thenReturn(List.of(), saved);
+        when(heatingRequestService.get(requestId)).thenReturn(req);
+        when(configurationService.selectTopConfigurations(req, 3, true)).thenReturn(generated);
+
+        List<ConfigurationCandidateDto> result = generationService.generateIfAbsent(requestId, 3, true);
+
+        assertThat(result).isEqualTo(saved);
+        InOrder inOrder = inOrder(requestRepo, candidateService);
+        inOrder.verify(requestRepo).advisoryXactLock(key);
+        inOrder.verify(candidateService).findByRequest(requestId, true);
+        inOrder.verify(candidateService).replaceCandidates(requestId, generated);
+        // статус меняет только фоновая задача, синхронный вызов его не трогает
+        verify(requestRepo, never()).advanceStatus(any(), any(), any());
+    }
+
+    @Test
+    void generateIfAbsent_ShouldReturnExistingCandidatesWithoutGenerating() {
+        UUID requestId = UUID.randomUUID();
+        List<ConfigurationCandidateDto> existing = List.of(ConfigurationCandidateDto.builder().id(UUID.randomUUID()).build());
+        when(candidateService.findByRequest(requestId, true)).thenReturn(existing);
+
+        List<ConfigurationCandidateDto> result = generationService.generateIfAbsent(requestId, 3, true);
+
+        assertThat(result).isEqualTo(existing);
+        verify(requestRepo).advisoryXactLock(anyLong());
+        verifyNoInteractions(heatingRequestService, configurationService);
+        verify(candidateService, never()).replaceCandidates(any(), anyList());
+        verify(requestRepo, never()).advanceStatus(any(), any(), any());
+    }
+
+    @Test
+    void generateIfAbsent_ShouldShareOneComputationBetweenConcurrentCalls() throws Exception {
+        UUID requestId = UUID.randomUUID();
+        List<ConfigurationCandidateDto> existing = List.of(ConfigurationCandidateDto.builder().id(UUID.randomUUID()).build());
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(candidateService.findByRequest(requestId, true)).thenAnswer(inv -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return existing;
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<ConfigurationCandidateDto>> leader =
+                    pool.submit(() -> generationService.generateIfAbsent(requestId, 3, true));
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<List<ConfigurationCandidateDto>> follower =
+                    pool.submit(() -> generationService.generateIfAbsent(requestId, 3, true));
+            while (meterRegistry.counter("astera.generation.coalesced").count() < 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isSameAs(existing);
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isSameAs(existing);
+        } finally {
+            pool.shutdownNow();
+        }
+        verify(requestRepo, times(1)).advisoryXactLock(anyLong());
+        verify(candidateService, times(1)).findByRequest(requestId, true);
+    }
+
+    @Test
+    void generateIfAbsent_ShouldNotShareComputationBetweenDifferentParameters() throws Exception {
+        UUID requestId = UUID.randomUUID();
+        List<ConfigurationCandidateDto> existing = List.of(ConfigurationCandidateDto.builder().id(UUID.randomUUID()).build());
+        CountDownLatch entered = new CountDownLatch(2);
+        when(candidateService.findByRequest(requestId, true)).thenAnswer(inv -> {
+            entered.countDown();
+            // оба вызова должны дойти до вычисления, пока ни один не завершился
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+            return existing;
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<ConfigurationCandidateDto>> top3 =
+                    pool.submit(() -> generationService.generateIfAbsent(requestId, 3, true));
+            Future<List<ConfigurationCandidateDto>> top5 =
+                    pool.submit(() -> generationService.generateIfAbsent(requestId, 5, false));
+
+            assertThat(top3.get(5, TimeUnit.SECONDS)).isSameAs(existing);
+            assertThat(top5.get(5, TimeUnit.SECONDS)).isSameAs(existing);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(meterRegistry.counter("astera.generation.coalesced").count()).isZero();
+        verify(candidateService, times(2)).findByRequest(requestId, true);
+    }
+}
@@ -0,0 +1,108 @@
+package ru.astera.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.astera.backend.dto.selection.ConfigurationCandidateDto;
+import ru.astera.backend.dto.selection.ConfigurationComponentDto;
+import ru.astera.backend.entity.ConfigCandidate;
+import ru.astera.backend.entity.EquipmentCategory;
+import ru.astera.backend.entity.HeatingRequest;
+import ru.astera.backend.mapper.ConfigCandidateMapper;
+import ru.astera.backend.mapper.ConfigComponentMapper;
+import ru.astera.backend.repository.ConfigCandidateRepository;
+import ru.astera.backend.repository.ConfigComponentRepository;
+import ru.astera.backend.repository.HeatingRequestRepository;
+import ru.astera.backend.service.impl.ConfigCandidateServiceImpl;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConfigCandidateServiceTest {
+
+    @Mock
+    private ConfigCandidateRepository candidateRepo;
+
+    @Mock
+    private ConfigComponentRepository componentRepo;
+
+    @Mock
+    private HeatingRequestRepository requestRepo;
+
+    @Spy
+    private ConfigComponentMapper componentMapper = Mappers.getMapper(ConfigComponentMapper.class);
+
+    @Spy
+    private ConfigCandidateMapper candidateMapper = candidateMapper(componentMapper);
+
+    @InjectMocks
+    private ConfigCandidateServiceImpl candidateService;
+
+    @Test
+    void replaceCandidates_ShouldPersistAllCandidatesWithComponentsInOneSaveAll() {
+        UUID requestId = UUID.randomUUID();
+        HeatingRequest requestRef = new HeatingRequest();
+        requestRef.setId(requestId);
+        when(requestRepo.existsById(requestId)).thenReturn(true);
+        when(requestRepo.getReferenceById(requestId)).thenReturn(requestRef);
+
+        List<ConfigurationCandidateDto> dtos = List.of(candidate(requestId, 3), candidate(requestId, 2));
+
+        candidateService.replaceCandidates(requestId, dtos);
+
+        verify(candidateRepo).deleteByRequestId(requestId);
+        verify(requestRepo, times(1)).getReferenceById(requestId);
+        verify(requestRepo, never()).findById(any());
+        verify(candidateRepo, never()).save(any());
+        verifyNoInteractions(componentRepo);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ConfigCandidate>> saved = ArgumentCaptor.forClass(List.class);
+        verify(candidateRepo).saveAll(saved.capture());
+        assertThat(saved.getValue()).hasSize(2);
+        assertThat(saved.getValue()).allSatisfy(c -> {
+            assertThat(c.getRequest()).isSameAs(requestRef);
+            assertThat(c.getComponents()).allSatisfy(comp -> assertThat(comp.getCandidate()).isSameAs(c));
+        });
+        assertThat(saved.getValue().get(0).getComponents()).hasSize(3);
+        assertThat(saved.getValue().get(1).getComponents()).hasSize(2);
+    }
+
+    private static ConfigCandidateMapper candidateMapper(ConfigComponentMapper componentMapper) {
+        ConfigCandidateMapper mapper = Mappers.getMapper(ConfigCandidateMapper.class);
+        ReflectionTestUtils.setField(mapper, "configComponentMapper", componentMapper);
+        return mapper;
+    }
+
+    private static ConfigurationCandidateDto candidate(UUID requestId, int components) {
+        List<ConfigurationComponentDto> comps = new ArrayList<>();
+        for (int i = 0; i < components; i++) {
+            comps.add(ConfigurationComponentDto.builder()
+                    .equipmentId(UUID.randomUUID())
+                    .category(EquipmentCategory.values()[i])
+                    .qty(BigDecimal.ONE)
+                    .unitPrice(new BigDecimal("1000"))
+                    .subtotal(new BigDecimal("1000"))
+                    .build());
+        }
+        return ConfigurationCandidateDto.builder()
+                .requestId(requestId)
+                .totalPrice(new BigDecimal(1000 * components))
+                .currency("RUB")
+                .components(comps)
+                .build();
+    }
+}
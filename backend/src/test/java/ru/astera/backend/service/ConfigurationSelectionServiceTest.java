@@ -0,0 +1,119 @@
+package ru.astera.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.astera.backend.catalog.BandTableMaterializer;
+import ru.astera.backend.catalog.SelectionResultCache;
+import ru.astera.backend.dto.selection.ConfigurationCandidateDto;
+import ru.astera.backend.dto.selection.HeatingRequestDto;
+import ru.astera.backend.entity.Equipment;
+import ru.astera.backend.entity.EquipmentCategory;
+import ru.astera.backend.entity.FuelType;
+import ru.astera.backend.mapper.EquipmentMapper;
+import ru.astera.backend.metrics.SelectionMetrics;
+import ru.astera.backend.repository.EquipmentRepository;
+import ru.astera.backend.service.impl.CatalogServiceImpl;
+import ru.astera.backend.service.impl.ConfigurationSelectionServiceImpl;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConfigurationSelectionServiceTest {
+
+    @Mock
+    private EquipmentRepository equipmentRepository;
+
+    private ConfigurationSelectionServiceImpl selectionService;
+
+    @BeforeEach
+    void setUp() {
+        List<Equipment> catalog = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            int dn = i % 2 == 0 ? 65 : 80;
+            String key = "DN" + dn + "_GAS_STD";
+            catalog.add(equipment(EquipmentCategory.boiler, "KB-" + i, 300, 700, null, null, dn, null, key, 900_000 + i * 1_000));
+            catalog.add(equipment(EquipmentCategory.burner, "BTG-" + i, 300, 700, null, null, null, FuelType.gas, key, 300_000 + i * 1_000));
+        }
+        catalog.add(equipment(EquipmentCategory.pump, "CR-10", null, null, "5", "15", null, null, null, 120_000));
+        catalog.add(equipment(EquipmentCategory.valve, "LD-DN65", null, null, null, null, 65, null, null, 20_000));
+        catalog.add(equipment(EquipmentCategory.valve, "LD-DN80", null, null, null, null, 80, null, null, 24_000));
+        catalog.add(equipment(EquipmentCategory.flowmeter, "PF-DN65", null, null, null, null, 65, null, null, 40_000));
+        catalog.add(equipment(EquipmentCategory.flowmeter, "PF-DN80", null, null, null, null, 80, null, null, 47_000));
+        catalog.add(equipment(EquipmentCategory.automation, "TRM-210", null, null, null, null, null, null, null, 45_000));
+        when(equipmentRepository.findByActiveTrue()).thenReturn(catalog);
+
+        EquipmentMapper mapper = Mappers.getMapper(EquipmentMapper.class);
+        selectionService = new ConfigurationSelectionServiceImpl(
+                new CatalogServiceImpl(equipmentRepository), mapper,
+                SelectionResultCache.disabled(), BandTableMaterializer.disabled(), SelectionMetrics.disabled());
+    }
+
+    @Test
+    void selectTopConfigurations_ShouldNotQueryDatabaseBeyondCatalogSnapshot() {
+        HeatingRequestDto req = request("500");
+
+        List<ConfigurationCandidateDto> first = selectionService.selectTopConfigurations(req, 5, true);
+        List<ConfigurationCandidateDto> second = selectionService.selectTopConfigurations(req, 5, false);
+
+        assertThat(first).hasSize(5);
+        assertThat(second).hasSize(5);
+        // Один запрос на построение снимка, сам подбор к БД не обращается.
+        verify(equipmentRepository, times(1)).findByActiveTrue();
+        verifyNoMoreInteractions(equipmentRepository);
+    }
+
+    @Test
+    void selectTopConfigurations_ShouldResolveAccessoriesPerDn() {
+        List<ConfigurationCandidateDto> result = selectionService.selectTopConfigurations(request("500"), 10, true);
+
+        assertThat(result).hasSize(10);
+        assertThat(result).allSatisfy(c -> {
+            assertThat(c.components()).hasSize(6);
+            assertThat(c.components().get(3).model()).isEqualTo("LD-DN" + c.dnSize());
+            assertThat(c.components().get(4).model()).isEqualTo("PF-DN" + c.dnSize());
+        });
+        assertThat(result.get(0).totalPrice()).isEqualByComparingTo("1425000");
+    }
+
+    private static HeatingRequestDto request(String powerKw) {
+        return HeatingRequestDto.builder()
+                .id(UUID.randomUUID())
+                .powerKw(new BigDecimal(powerKw))
+                .tIn(new BigDecimal("95"))
+                .tOut(new BigDecimal("55"))
+                .fuelType(FuelType.gas)
+                .build();
+    }
+
+    private static Equipment equipment(EquipmentCategory category, String model,
+                                       Integer powerMin, Integer powerMax,
+                                       String flowMin, String flowMax,
+                                       Integer dn, FuelType fuel, String connectionKey, int price) {
+        Equipment e = new Equipment();
+        e.setId(UUID.randomUUID());
+        e.setCategory(category);
+        e.setBrand("TEST");
+        e.setModel(model);
+        e.setPowerMinKw(powerMin == null ? null : BigDecimal.valueOf(powerMin));
+        e.setPowerMaxKw(powerMax == null ? null : BigDecimal.valueOf(powerMax));
+        e.setFlowMinM3h(flowMin == null ? null : new BigDecimal(flowMin));
+        e.setFlowMaxM3h(flowMax == null ? null : new BigDecimal(flowMax));
+        e.setDnSize(dn);
+        e.setFuelType(fuel);
+        e.setConnectionKey(connectionKey);
+        e.setPrice(BigDecimal.valueOf(price));
+        e.setDeliveryDays(7);
+        e.setActive(true);
+        return e;
+    }
+}
@@ -1,5 +1,8 @@
 package ru.astera.backend.service;
 
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -10,6 +13,8 @@ import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 import ru.astera.backend.config.TestContainersConfig;
+import ru.astera.backend.dto.admin.CustomerDto;
+import ru.astera.backend.dto.admin.CustomerPageDto;
 import ru.astera.backend.dto.registration.CustomerRegistrationDto;
 import ru.astera.backend.entity.CustomerProfile;
 import ru.astera.backend.entity.User;
@@ -38,6 +43,8 @@ class CustomerServiceIT {
     UserRepository userRepository;
     @Autowired
     CustomerProfileRepository profileRepository;
+    @Autowired
+    EntityManager entityManager;
 
     @BeforeEach
     void clean() {
@@ -101,4 +108,30 @@ class CustomerServiceIT {
         assertThat(found).isNotNull();
         assertThat(found.getUser().getId()).isEqualTo(userId);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Список и карточка клиента читаются без N+1: страница — SELECT и COUNT, карточка — один SELECT")
+    void customerListing_issuesConstantNumberOfStatements() {
+        for (int i = 0; i < 5; i++) {
+            customerService.registerCustomer(sampleDto("n" + i + "@ex.com"));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        CustomerPageDto page = customerService.getCustomersWithPagination(0, 3);
+
+        assertThat(page.getCustomers().size()).isEqualTo(3);
+        assertThat(page.getTotalCustomers()).isEqualTo(5L);
+        assertThat(page.getCustomers().get(0).getEmail()).isNotNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2L);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(0L);
+
+        statistics.clear();
+        CustomerDto customer = customerService.getCustomerById(page.getCustomers().get(0).getId());
+
+        assertThat(customer.getFullName()).isEqualTo("Иван Иванов");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1L);
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -22,6 +23,7 @@ import ru.astera.backend.entity.User;
 import ru.astera.backend.exception.UserAlreadyExistsException;
 import ru.astera.backend.repository.CustomerProfileRepository;
 import ru.astera.backend.repository.UserRepository;
+import ru.astera.backend.security.UserAccessRevokedEvent;
 import ru.astera.backend.service.impl.CustomerServiceImpl;
 
 import java.time.OffsetDateTime;
@@ -51,6 +53,8 @@ class CustomerServiceTest {
     private PasswordEncoder passwordEncoder;
     @Mock
     private ObjectMapper objectMapper;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private CustomerServiceImpl customerService;
@@ -99,13 +103,13 @@ class CustomerServiceTest {
         profile2.setPhone("+7 900 987-65-43");
         profile2.setOrganization("ООО Тест 2");
 
-        Page<CustomerProfile> mockPage = new PageImpl<>(
-                Arrays.asList(testProfile, profile2),
+        Page<CustomerProfileRepository.CustomerRow> mockPage = new PageImpl<>(
+                Arrays.asList(row(testProfile), row(profile2)),
                 PageRequest.of(0, 20),
                 2L
         );
 
-        when(profileRepository.findAllCustomersWithUsers(any(Pageable.class)))
+        when(profileRepository.findCustomerRows(any(Pageable.class)))
                 .thenReturn(mockPage);
 
         // Act
@@ -127,7 +131,7 @@ class CustomerServiceTest {
         assertThat(firstCustomer.getOrganization()).isEqualTo("ООО Тест");
         assertThat(firstCustomer.getIsActive()).isTrue();
 
-        verify(profileRepository).findAllCustomersWithUsers(any(Pageable.class));
+        verify(profileRepository).findCustomerRows(any(Pageable.class));
     }
 
     /* =======================
@@ -137,7 +141,7 @@ class CustomerServiceTest {
     @Test
     void getCustomerById_Success() {
         // Arrange
-        when(profileRepository.findById(testUserId)).thenReturn(Optional.of(testProfile));
+        when(profileRepository.findCustomerRowById(testUserId)).thenReturn(Optional.of(row(testProfile)));
 
         // Act
         CustomerDto result = customerService.getCustomerById(testUserId);
@@ -151,21 +155,21 @@ class CustomerServiceTest {
         assertThat(result.getOrganization()).isEqualTo("ООО Тест");
         assertThat(result.getIsActive()).isTrue();
 
-        verify(profileRepository).findById(testUserId);
+        verify(profileRepository).findCustomerRowById(testUserId);
     }
 
     @Test
     void getCustomerById_NotFound() {
         // Arrange
         UUID nonExistentId = UUID.randomUUID();
-        when(profileRepository.findById(nonExistentId)).thenReturn(Optional.empty());
+        when(profileRepository.findCustomerRowById(nonExistentId)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> customerService.getCustomerById(nonExistentId))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessage("Клиент не найден");
 
-        verify(profileRepository).findById(nonExistentId);
+        verify(profileRepository).findCustomerRowById(nonExistentId);
     }
 
     /* =======================
@@ -319,6 +323,7 @@ class CustomerServiceTest {
         verify(userService).existsByEmail(dto.getEmail());
         verify(userRepository).save(testUser);
         verify(profileRepository).save(testProfile);
+        verify(eventPublisher).publishEvent(new UserAccessRevokedEvent(testUserId));
     }
 
     @Test
@@ -410,6 +415,7 @@ class CustomerServiceTest {
         verify(profileRepository).findById(testUserId);
         verify(profileRepository).delete(testProfile);
         verify(userRepository).delete(testUser);
+        verify(eventPublisher).publishEvent(new UserAccessRevokedEvent(testUserId));
     }
 
     @Test
@@ -427,4 +433,43 @@ class CustomerServiceTest {
         verify(profileRepository, never()).delete(any(CustomerProfile.class));
         verify(userRepository, never()).delete(any(User.class));
     }
-}
\ No newline at end of file
+
+    private static CustomerProfileRepository.CustomerRow row(CustomerProfile profile) {
+        return new CustomerProfileRepository.CustomerRow() {
+            @Override
+            public UUID getId() {
+                return profile.getUserId();
+            }
+
+            @Override
+            public String getEmail() {
+                return profile.getUser().getEmail();
+            }
+
+            @Override
+            public String getFullName() {
+                return profile.getUser().getFullName();
+            }
+
+            @Override
+            public String getPhone() {
+                return profile.getPhone();
+            }
+
+            @Override
+            public String getOrganization() {
+                return profile.getOrganization();
+            }
+
+            @Override
+            public Boolean getIsActive() {
+                return profile.getUser().getIsActive();
+            }
+
+            @Override
+            public OffsetDateTime getCreatedAt() {
+                return profile.getCreatedAt();
+            }
+        };
+    }
+}
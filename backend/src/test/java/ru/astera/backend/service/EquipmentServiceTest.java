@@ -1,31 +1,46 @@
 package ru.astera.backend.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import ru.astera.backend.catalog.EquipmentChangedEvent;
 import ru.astera.backend.dto.admin.EquipmentCreateDto;
 import ru.astera.backend.dto.admin.EquipmentDto;
+import ru.astera.backend.dto.admin.EquipmentExportFormat;
 import ru.astera.backend.dto.admin.EquipmentPageDto;
 import ru.astera.backend.dto.admin.EquipmentUpdateDto;
+import ru.astera.backend.dto.common.KeysetPageDto;
+import ru.astera.backend.dto.common.PageTotal;
 import ru.astera.backend.entity.Equipment;
 import ru.astera.backend.entity.EquipmentCategory;
 import ru.astera.backend.exception.EquipmentNotFoundException;
 import ru.astera.backend.repository.EquipmentRepository;
 import ru.astera.backend.service.impl.EquipmentServiceImpl;
+import ru.astera.backend.support.Keyset;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +49,15 @@ class EquipmentServiceTest {
     @Mock
     private EquipmentRepository equipmentRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private EquipmentServiceImpl equipmentService;
 
@@ -98,6 +122,9 @@ class EquipmentServiceTest {
         assertEquals("Model1", result.getModel());
         assertEquals(EquipmentCategory.boiler, result.getCategory());
         verify(equipmentRepository, times(1)).save(any(Equipment.class));
+        verify(eventPublisher).publishEvent(
+                new EquipmentChangedEvent(equipmentId, EquipmentChangedEvent.Operation.INSERT,
+                        EquipmentCategory.boiler, null, Set.of()));
     }
 
     @Test
@@ -113,6 +140,9 @@ class EquipmentServiceTest {
         assertNotNull(result);
         assertEquals("UpdatedModel", result.getModel());
         verify(equipmentRepository, times(1)).save(testEquipment);
+        verify(eventPublisher).publishEvent(
+                new EquipmentChangedEvent(equipmentId, EquipmentChangedEvent.Operation.UPDATE,
+                        EquipmentCategory.boiler, EquipmentCategory.boiler, Set.of("model")));
     }
 
     @Test
@@ -134,6 +164,7 @@ class EquipmentServiceTest {
         });
 
         verify(equipmentRepository, times(1)).delete(testEquipment);
+        verify(eventPublisher).publishEvent(any(EquipmentChangedEvent.class));
     }
 
     @Test
@@ -143,6 +174,66 @@ class EquipmentServiceTest {
         assertThrows(EquipmentNotFoundException.class, () -> {
             equipmentService.deleteEquipment(equipmentId);
         });
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void getEquipmentKeyset_ShouldSeekFromCursorAndReturnNextCursor() {
+        Equipment second = createTestEquipment(UUID.randomUUID());
+        second.setModel("Model2");
+        Equipment extra = createTestEquipment(UUID.randomUUID());
+        extra.setModel("Model3");
+        String cursor = Keyset.encode("boiler", "Bosch", "Model0");
+        when(equipmentRepository.findKeysetAfter(eq(EquipmentCategory.boiler), eq("Bosch"), eq("Model0"), any(Pageable.class)))
+                .thenReturn(List.of(testEquipment, second, extra));
+
+        KeysetPageDto<EquipmentDto> page = equipmentService.getEquipmentKeyset(cursor, 2, PageTotal.none);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(List.of("boiler", "Bosch", "Model2"), Keyset.decode(page.getNextCursor(), 3));
+        assertNull(page.getTotal());
+        verify(equipmentRepository).findKeysetAfter(any(), any(), any(), eq(Pageable.ofSize(3)));
+        verify(equipmentRepository, never()).count();
+    }
+
+    @Test
+    void getEquipmentKeyset_ShouldRejectBrokenCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> equipmentService.getEquipmentKeyset("garbage", 20, PageTotal.none));
+        verifyNoInteractions(equipmentRepository);
+    }
+
+    @Test
+    void exportEquipment_Csv_ShouldWriteImportColumnsAndDetachRows() throws Exception {
+        Equipment quoted = createTestEquipment(UUID.randomUUID());
+        quoted.setModel("Logano \"Plus\", 24");
+        when(equipmentRepository.streamAllByBrandAndModel()).thenReturn(Stream.of(testEquipment, quoted));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        equipmentService.exportEquipment(EquipmentExportFormat.csv, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, lines.length);
+        assertEquals("category,brand,model,active,powerMinKw,powerMaxKw,flowMinM3h,flowMaxM3h,"
+                + "dnSize,fuelType,connectionKey,price,deliveryDays", lines[0]);
+        assertEquals("boiler,Bosch,Model1,true,10.0,50.0,,,80,,DN80_GAS_STD,25000.00,14", lines[1]);
+        assertTrue(lines[2].startsWith("boiler,Bosch,\"Logano \"\"Plus\"\", 24\",true,"));
+        verify(entityManager).detach(testEquipment);
+        verify(entityManager).detach(quoted);
+    }
+
+    @Test
+    void exportEquipment_Ndjson_ShouldWriteOneObjectPerLine() throws Exception {
+        when(equipmentRepository.streamAllByBrandAndModel()).thenReturn(Stream.of(testEquipment));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        equipmentService.exportEquipment(EquipmentExportFormat.ndjson, out);
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertTrue(body.endsWith("}\n"));
+        EquipmentDto dto = objectMapper.readValue(body.strip(), EquipmentDto.class);
+        assertEquals(equipmentId, dto.getId());
+        assertEquals("Model1", dto.getModel());
     }
 
     private Equipment createTestEquipment(UUID id) {
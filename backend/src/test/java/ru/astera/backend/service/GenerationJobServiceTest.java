@@ -0,0 +1,205 @@
+package ru.astera.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.astera.backend.dto.selection.ConfigurationCandidateDto;
+import ru.astera.backend.dto.selection.GenerationJobDto;
+import ru.astera.backend.dto.selection.GenerationJobStatus;
+import ru.astera.backend.entity.HeatingRequestStatus;
+import ru.astera.backend.exception.ServiceBusyException;
+import ru.astera.backend.repository.HeatingRequestRepository;
+import ru.astera.backend.service.impl.GenerationJobServiceImpl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GenerationJobServiceTest {
+
+    @Mock
+    private CandidateGenerationService generationService;
+
+    @Mock
+    private HeatingRequestRepository requestRepo;
+
+    private GenerationJobServiceImpl jobService;
+
+    @AfterEach
+    void tearDown() {
+        if (jobService != null) {
+            jobService.shutdown();
+        }
+    }
+
+    @Test
+    void submit_ShouldRunGenerationInBackgroundAndCompleteJob() throws Exception {
+        jobService = service(2, 10);
+        UUID requestId = UUID.randomUUID();
+        List<ConfigurationCandidateDto> saved = List.of(ConfigurationCandidateDto.builder().id(UUID.randomUUID()).build());
+        when(requestRepo.existsById(requestId)).thenReturn(true);
+        when(generationService.generateIfAbsent(requestId, 5, false)).thenReturn(saved);
+
+        GenerationJobDto submitted = jobService.submit(requestId, 5, false);
+        GenerationJobDto done = jobService.completion(submitted.id()).get(5, TimeUnit.SECONDS);
+
+        assertThat(submitted.requestId()).isEqualTo(requestId);
+        assertThat(done.status()).isEqualTo(GenerationJobStatus.done);
+        assertThat(done.candidates()).isEqualTo(saved);
+        assertThat(jobService.get(submitted.id()).finishedAt()).isNotNull();
+        verify(requestRepo).advanceStatus(requestId, HeatingRequestStatus.created, HeatingRequestStatus.proposed);
+    }
+
+    @Test
+    void submit_ShouldReturnRunningJobForSameRequest() throws Exception {
+        jobService = service(2, 10);
+        UUID requestId = UUID.randomUUID();
+        CountDownLatch release = new CountDownLatch(1);
+        when(requestRepo.existsById(requestId)).thenReturn(true);
+        when(generationService.generateIfAbsent(requestId, 3, true)).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        GenerationJobDto first = jobService.submit(requestId, 3, true);
+        GenerationJobDto second = jobService.submit(requestId, 3, true);
+        release.countDown();
+        jobService.completion(first.id()).get(5, TimeUnit.SECONDS);
+
+        assertThat(second.id()).isEqualTo(first.id());
+        verify(generationService, times(1)).generateIfAbsent(requestId, 3, true);
+    }
+
+    @Test
+    void submit_ShouldStartSeparateJob_WhenParametersDiffer() throws Exception {
+        jobService = service(2, 10);
+        UUID requestId = UUID.randomUUID();
+        CountDownLatch release = new CountDownLatch(1);
+        when(requestRepo.existsById(requestId)).thenReturn(true);
+        when(generationService.generateIfAbsent(eq(requestId), anyInt(), anyBoolean())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        GenerationJobDto top3 = jobService.submit(requestId, 3, true);
+        GenerationJobDto top5 = jobService.submit(requestId, 5, false);
+        release.countDown();
+        jobService.completion(top3.id()).get(5, TimeUnit.SECONDS);
+        jobService.completion(top5.id()).get(5, TimeUnit.SECONDS);
+
+        assertThat(top5.id()).isNotEqualTo(top3.id());
+        verify(generationService).generateIfAbsent(requestId, 3, true);
+        verify(generationService).generateIfAbsent(requestId, 5, false);
+    }
+
+    @Test
+    void submit_ShouldRejectWhenQueueIsFull() throws Exception {
+        jobService = service(1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(requestRepo.existsById(any())).thenReturn(true);
+        when(generationService.generateIfAbsent(any(), anyInt(), anyBoolean())).thenAnswer(inv -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        try {
+            jobService.submit(UUID.randomUUID(), 3, true);
+            // единственный поток занят первой задачей, вторая займёт очередь
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            jobService.submit(UUID.randomUUID(), 3, true);
+            assertThatThrownBy(() -> jobService.submit(UUID.randomUUID(), 3, true))
+                    .isInstanceOf(ServiceBusyException.class);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void submit_ShouldMarkJobFailed_WhenGenerationThrows() throws Exception {
+        jobService = service(1, 10);
+        UUID requestId = UUID.randomUUID();
+        when(requestRepo.existsById(requestId)).thenReturn(true);
+        when(generationService.generateIfAbsent(requestId, 3, true))
+                .thenThrow(new IllegalArgumentException("Flow is out of range"));
+
+        GenerationJobDto job = jobService.submit(requestId, 3, true);
+        GenerationJobDto failed = jobService.completion(job.id()).get(5, TimeUnit.SECONDS);
+
+        assertThat(failed.status()).isEqualTo(GenerationJobStatus.failed);
+        assertThat(failed.error()).isEqualTo("Flow is out of range");
+    }
+
+    @Test
+    void finishedJob_ShouldBeEvictedAfterRetention_WithoutFurtherSubmits() throws Exception {
+        jobService = new GenerationJobServiceImpl(generationService, requestRepo, new SimpleMeterRegistry(),
+                1, 10, Duration.ofMillis(200));
+        UUID requestId = UUID.randomUUID();
+        when(requestRepo.existsById(requestId)).thenReturn(true);
+        when(generationService.generateIfAbsent(requestId, 3, true)).thenReturn(List.of());
+
+        GenerationJobDto job = jobService.submit(requestId, 3, true);
+        jobService.completion(job.id()).get(5, TimeUnit.SECONDS);
+        assertThat(jobService.get(job.id()).status()).isEqualTo(GenerationJobStatus.done);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        boolean evicted = false;
+        while (!evicted && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            try {
+                jobService.get(job.id());
+            } catch (NoSuchElementException e) {
+                evicted = true;
+            }
+        }
+        assertThat(evicted).isTrue();
+    }
+
+    @Test
+    void submit_ShouldHideInternalErrorDetails() throws Exception {
+        jobService = service(1, 10);
+        UUID requestId = UUID.randomUUID();
+        when(requestRepo.existsById(requestId)).thenReturn(true);
+        when(generationService.generateIfAbsent(requestId, 3, true)).thenThrow(new IllegalStateException(
+                "could not execute statement [ERROR: duplicate key value violates unique constraint \"config_candidates_pkey\"]"));
+
+        GenerationJobDto job = jobService.submit(requestId, 3, true);
+        GenerationJobDto failed = jobService.completion(job.id()).get(5, TimeUnit.SECONDS);
+
+        assertThat(failed.status()).isEqualTo(GenerationJobStatus.failed);
+        assertThat(failed.error()).isEqualTo("generation failed");
+        verify(requestRepo, never()).advanceStatus(any(), any(), any());
+    }
+
+    @Test
+    void submit_ShouldThrowNotFound_WhenRequestDoesNotExist() {
+        jobService = service(1, 10);
+        UUID requestId = UUID.randomUUID();
+        when(requestRepo.existsById(requestId)).thenReturn(false);
+
+        assertThatThrownBy(() -> jobService.submit(requestId, 3, true))
+                .isInstanceOf(NoSuchElementException.class);
+        verifyNoInteractions(generationService);
+    }
+
+    private GenerationJobServiceImpl service(int threads, int queueCapacity) {
+        return new GenerationJobServiceImpl(generationService, requestRepo, new SimpleMeterRegistry(),
+                threads, queueCapacity, Duration.ofMinutes(15));
+    }
+}
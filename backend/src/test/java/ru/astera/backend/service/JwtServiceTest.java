@@ -0,0 +1,49 @@
+package ru.astera.backend.service;
+
+import org.junit.jupiter.api.Test;
+import ru.astera.backend.security.JwtPrincipal;
+import ru.astera.backend.service.impl.JwtServiceImpl;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "test-jwt-secret-key-0123456789abcdef0123";
+
+    private final JwtServiceImpl jwtService = new JwtServiceImpl(SECRET, 60_000L);
+
+    @Test
+    void authenticate_ShouldReturnPrincipalFromSingleParse() {
+        UUID userId = UUID.randomUUID();
+        String token = jwtService.generateToken(userId, "user@astera.example", "manager");
+
+        Optional<JwtPrincipal> principal = jwtService.authenticate(token);
+
+        assertThat(principal.isPresent()).isTrue();
+        assertThat(principal.get().userId()).isEqualTo(userId);
+        assertThat(principal.get().email()).isEqualTo("user@astera.example");
+        assertThat(principal.get().role()).isEqualTo("manager");
+        assertThat(principal.get().expiresAt()).isNotNull();
+    }
+
+    @Test
+    void authenticate_ShouldRejectTokenSignedWithAnotherKey() {
+        String foreign = new JwtServiceImpl("another-jwt-secret-key-0123456789abcdef", 60_000L)
+                .generateToken(UUID.randomUUID(), "user@astera.example", "admin");
+
+        assertThat(jwtService.authenticate(foreign).isPresent()).isFalse();
+    }
+
+    @Test
+    void authenticate_ShouldRejectExpiredAndMalformedTokens() {
+        String expired = new JwtServiceImpl(SECRET, -1_000L)
+                .generateToken(UUID.randomUUID(), "user@astera.example", "customer");
+
+        assertThat(jwtService.authenticate(expired).isPresent()).isFalse();
+        assertThat(jwtService.authenticate("not-a-jwt").isPresent()).isFalse();
+        assertThat(jwtService.authenticate("").isPresent()).isFalse();
+    }
+}
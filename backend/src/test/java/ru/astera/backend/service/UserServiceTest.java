@@ -0,0 +1,126 @@
+package ru.astera.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import ru.astera.backend.entity.User;
+import ru.astera.backend.exception.ServiceBusyException;
+import ru.astera.backend.repository.UserRepository;
+import ru.astera.backend.service.impl.UserServiceImpl;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceTest {
+
+    private static final String DUMMY = "{bcrypt}dummy";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserServiceImpl userService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        when(passwordEncoder.encode(anyString())).thenReturn(DUMMY);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userService.shutdown();
+    }
+
+    @Test
+    void checkPassword_ShouldVerifyDummyHash_WhenUserMissing() {
+        userService = service(2, 4, true);
+
+        assertFalse(userService.checkPassword(null, "secret"));
+
+        verify(passwordEncoder).matches("secret", DUMMY);
+    }
+
+    @Test
+    void checkPassword_ShouldRehashOutdatedHash_WhenPasswordMatches() {
+        userService = service(2, 4, true);
+        User user = user("{bcrypt}old");
+        when(passwordEncoder.matches("secret", "{bcrypt}old")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("{bcrypt}old")).thenReturn(true);
+        when(passwordEncoder.encode("secret")).thenReturn("{bcrypt}new");
+
+        assertTrue(userService.checkPassword(user, "secret"));
+
+        verify(userRepository).updatePasswordHash(user.getId(), "{bcrypt}old", "{bcrypt}new");
+    }
+
+    @Test
+    void checkPassword_ShouldNotRehash_WhenDisabledOrPasswordWrong() {
+        userService = service(2, 4, false);
+        User user = user("{bcrypt}old");
+        when(passwordEncoder.matches("secret", "{bcrypt}old")).thenReturn(true);
+        when(passwordEncoder.matches("wrong", "{bcrypt}old")).thenReturn(false);
+
+        assertTrue(userService.checkPassword(user, "secret"));
+        assertFalse(userService.checkPassword(user, "wrong"));
+
+        verify(passwordEncoder, never()).upgradeEncoding(anyString());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void checkPassword_ShouldRejectWithBusy_WhenQueueIsFull() throws Exception {
+        userService = service(1, 1, false);
+        User user = user("{bcrypt}hash");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(passwordEncoder.matches("secret", "{bcrypt}hash")).thenAnswer(inv -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> userService.checkPassword(user, "secret"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> userService.checkPassword(user, "secret"));
+        while (meterRegistry.get("astera.password.queue").gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+
+        assertThrows(ServiceBusyException.class, () -> userService.checkPassword(user, "secret"));
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    private UserServiceImpl service(int threads, int queueCapacity, boolean rehash) {
+        return new UserServiceImpl(userRepository, passwordEncoder, meterRegistry,
+                threads, queueCapacity, Duration.ofSeconds(10), rehash);
+    }
+
+    private User user(String hash) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setEmail("user@ex.com");
+        user.setPasswordHash(hash);
+        user.setIsActive(true);
+        return user;
+    }
+}
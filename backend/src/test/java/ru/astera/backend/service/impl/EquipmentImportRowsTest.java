@@ -0,0 +1,70 @@
+package ru.astera.backend.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import ru.astera.backend.entity.EquipmentCategory;
+import ru.astera.backend.entity.FuelType;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EquipmentImportRowsTest {
+
+    @Test
+    void csv_mapsSnakeAndCamelCaseColumnsAndReportsBadCells() throws Exception {
+        String csv = "\uFEFFcategory;brand;model;power_min_kw;powerMaxKw;fuel_type;price\n"
+                + "boiler;Bosch;GC7000;10,5;24;gas;150000\n"
+                + "boiler;Bosch;GC8000;abc;24;gas;150000\n";
+        try (EquipmentImportRows.Source rows = EquipmentImportRows.csv(new StringReader(csv))) {
+            EquipmentImportRows.Row first = rows.next();
+            assertThat(first.number()).isEqualTo(1);
+            assertThat(first.error()).isNull();
+            assertThat(first.dto().getCategory()).isEqualTo(EquipmentCategory.boiler);
+            assertThat(first.dto().getPowerMinKw()).isEqualTo(new BigDecimal("10.5"));
+            assertThat(first.dto().getFuelType()).isEqualTo(FuelType.gas);
+            assertThat(first.dto().getActive()).isEqualTo(true);
+
+            EquipmentImportRows.Row second = rows.next();
+            assertThat(second.number()).isEqualTo(2);
+            assertThat(second.dto()).isNull();
+            assertThat(second.error()).contains("power_min_kw");
+
+            assertThat(rows.next()).isNull();
+        }
+    }
+
+    @Test
+    void csv_rejectsUnknownAndMissingColumns() {
+        assertThatThrownBy(() -> EquipmentImportRows.csv(new StringReader("category,brand,model,price,colour\n")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("colour");
+        assertThatThrownBy(() -> EquipmentImportRows.csv(new StringReader("category,brand,model\n")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("price");
+    }
+
+    @Test
+    void json_continuesAfterBadValueInNdjson() throws Exception {
+        String ndjson = """
+                {"category":"pump","brand":"Grundfos","model":"UPS 25","price":12000}
+                {"category":"rocket","brand":"Acme","model":"X","price":1}
+                {"category":"valve","brand":"Danfoss","model":"V1","price":900,"dnSize":25}
+                """;
+        try (EquipmentImportRows.Source rows = EquipmentImportRows.json(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), new ObjectMapper())) {
+            assertThat(rows.next().dto().getModel()).isEqualTo("UPS 25");
+            EquipmentImportRows.Row bad = rows.next();
+            assertThat(bad.number()).isEqualTo(2);
+            assertThat(bad.error()).isNotNull();
+            EquipmentImportRows.Row third = rows.next();
+            assertThat(third.number()).isEqualTo(3);
+            assertThat(third.dto().getDnSize()).isEqualTo(25);
+            assertThat(rows.next()).isNull();
+        }
+    }
+}
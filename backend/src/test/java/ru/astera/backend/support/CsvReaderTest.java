@@ -0,0 +1,41 @@
+package ru.astera.backend.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvReaderTest {
+
+    @Test
+    void next_readsQuotedFieldsWithSeparatorsNewlinesAndQuotes() throws Exception {
+        CsvReader csv = new CsvReader(new StringReader("a,b,c\r\n\"x, y\",\"line1\nline2\",\"say \"\"hi\"\"\"\n"));
+
+        assertThat(csv.next()).containsExactly("a", "b", "c");
+        assertThat(csv.next()).containsExactly("x, y", "line1\nline2", "say \"hi\"");
+        assertThat(csv.next()).isNull();
+    }
+
+    @Test
+    void next_detectsSemicolonAndMapsEmptyUnquotedFieldsToNull() throws Exception {
+        CsvReader csv = new CsvReader(new StringReader("brand;price\n\n Bosch ;\n\"\";1,5\n"));
+
+        assertThat(csv.next()).containsExactly("brand", "price");
+        assertThat(csv.next()).containsExactly("Bosch", null);
+        List<String> last = csv.next();
+        assertThat(last).containsExactly("", "1,5");
+        assertThat(csv.next()).isNull();
+    }
+
+    @Test
+    void next_rejectsUnterminatedQuote() {
+        CsvReader csv = new CsvReader(new StringReader("\"open,field\n"));
+
+        assertThatThrownBy(csv::next)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unterminated");
+    }
+}
@@ -0,0 +1,76 @@
+package ru.astera.backend.support;
+
+import org.junit.jupiter.api.Test;
+import ru.astera.backend.dto.common.KeysetPageDto;
+import ru.astera.backend.dto.common.PageTotal;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetTest {
+
+    @Test
+    void cursor_roundTripsValuesWithSeparatorsAndUnicode() {
+        String cursor = Keyset.encode("boiler", "Buderus|Logano", "G334 \"WS\", ДН80");
+
+        assertThat(cursor).doesNotContain("=");
+        assertThat(Keyset.decode(cursor, 3)).containsExactly("boiler", "Buderus|Logano", "G334 \"WS\", ДН80");
+    }
+
+    @Test
+    void decode_rejectsForeignOrDamagedCursor() {
+        String threeValues = Keyset.encode("a", "b", "c");
+
+        assertThatThrownBy(() -> Keyset.decode(threeValues, 2)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Keyset.decode("not base64!", 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Keyset.CreatedAtId.parse(Keyset.encode("yesterday", "x")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+
+    @Test
+    void createdAtId_keepsMicrosecondsAndOffset() {
+        Keyset.CreatedAtId key = new Keyset.CreatedAtId(
+                OffsetDateTime.parse("2025-03-01T10:15:30.123456+03:00"), UUID.randomUUID());
+
+        assertThat(Keyset.CreatedAtId.parse(key.cursor())).isEqualTo(key);
+    }
+
+    @Test
+    void page_usesExtraRowOnlyAsNextPageMarker() {
+        KeysetPageDto<String> page = Keyset.page(List.of(1, 2, 3), 2, String::valueOf, i -> "#" + i);
+
+        assertThat(page.getItems()).containsExactly("#1", "#2");
+        assertThat(page.getNextCursor()).isEqualTo("2");
+        assertThat(page.getPageSize()).isEqualTo(2);
+
+        KeysetPageDto<String> last = Keyset.page(List.of(1, 2), 2, String::valueOf, i -> "#" + i);
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    @Test
+    void total_isFilledOnlyWhenRequested() {
+        KeysetPageDto<String> page = new KeysetPageDto<>();
+
+        Keyset.total(page, PageTotal.none, () -> 10, () -> 12L);
+        assertThat(page.getTotal()).isNull();
+
+        Keyset.total(page, PageTotal.estimate, () -> 10, () -> 12L);
+        assertThat(page.getTotal()).isEqualTo(12L);
+        assertThat(page.getTotalEstimated()).isTrue();
+
+        Keyset.total(page, PageTotal.exact, () -> 10, () -> 12L);
+        assertThat(page.getTotal()).isEqualTo(10L);
+        assertThat(page.getTotalEstimated()).isFalse();
+    }
+
+    @Test
+    void checkPageSize_rejectsOutOfRange() {
+        assertThatThrownBy(() -> Keyset.checkPageSize(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Keyset.checkPageSize(Keyset.MAX_PAGE_SIZE + 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
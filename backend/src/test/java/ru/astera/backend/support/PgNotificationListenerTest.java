@@ -0,0 +1,70 @@
+package ru.astera.backend.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PgNotificationListenerTest {
+
+    private final DataSourceProperties properties = new DataSourceProperties();
+    private final PgNotificationListener listener = new PgNotificationListener(properties);
+
+    PgNotificationListenerTest() {
+        // недоступный адрес: фоновый поток только пытается подключиться
+        properties.setUrl("jdbc:postgresql://127.0.0.1:1/none?connectTimeout=1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        listener.stop();
+    }
+
+    @Test
+    void dispatch_routesPayloadsByChannel() {
+        List<List<String>> catalog = new ArrayList<>();
+        List<List<String>> users = new ArrayList<>();
+        listener.listen("equipment_changes", catalog::add, () -> { });
+        listener.listen("user_access_revoked", users::add, () -> { });
+
+        listener.dispatch(new PGNotification[]{
+                notification("equipment_changes", "a"),
+                notification("user_access_revoked", "u1"),
+                notification("equipment_changes", "b"),
+                notification("unknown", "x")
+        });
+
+        assertThat(catalog).containsExactly(List.of("a", "b"));
+        assertThat(users).containsExactly(List.of("u1"));
+    }
+
+    @Test
+    void dispatch_keepsOtherChannelsWhenOneFails() {
+        List<List<String>> users = new ArrayList<>();
+        listener.listen("equipment_changes", payloads -> {
+            throw new IllegalStateException("boom");
+        }, () -> { });
+        listener.listen("user_access_revoked", users::add, () -> { });
+
+        listener.dispatch(new PGNotification[]{
+                notification("equipment_changes", "a"),
+                notification("user_access_revoked", "u1")
+        });
+
+        assertThat(users).containsExactly(List.of("u1"));
+    }
+
+    private static PGNotification notification(String channel, String payload) {
+        PGNotification notification = mock(PGNotification.class);
+        when(notification.getName()).thenReturn(channel);
+        when(notification.getParameter()).thenReturn(payload);
+        return notification;
+    }
+}
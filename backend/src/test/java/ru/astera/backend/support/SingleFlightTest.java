@@ -0,0 +1,75 @@
+package ru.astera.backend.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    @Test
+    void execute_runsLoaderOnceForConcurrentCallers() throws Exception {
+        AtomicInteger coalesced = new AtomicInteger();
+        AtomicInteger loads = new AtomicInteger();
+        SingleFlight<String, Integer> flight = new SingleFlight<>(coalesced::incrementAndGet);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<Integer> leader = pool.submit(() -> flight.execute("k", () -> {
+                loads.incrementAndGet();
+                entered.countDown();
+                await(release);
+                return 42;
+            }));
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<Integer> first = pool.submit(() -> flight.execute("k", loads::incrementAndGet));
+            Future<Integer> second = pool.submit(() -> flight.execute("k", loads::incrementAndGet));
+            while (coalesced.get() < 2) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(flight.inFlight()).isZero();
+    }
+
+    @Test
+    void execute_doesNotCacheCompletedResults() {
+        AtomicInteger loads = new AtomicInteger();
+        SingleFlight<String, Integer> flight = new SingleFlight<>(() -> {
+        });
+
+        assertThat(flight.execute("k", loads::incrementAndGet)).isEqualTo(1);
+        assertThat(flight.execute("k", loads::incrementAndGet)).isEqualTo(2);
+    }
+
+    @Test
+    void execute_propagatesLoaderFailureAndClearsKey() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(() -> {
+        });
+
+        assertThatThrownBy(() -> flight.execute("k", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+        assertThat(flight.inFlight()).isZero();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}